@@ -0,0 +1,78 @@
+package com.bufalari.benchmark;
+
+import com.bufalari.dto.AlternativeContactDTO;
+import com.bufalari.dto.ClientDTO;
+import com.bufalari.entity.AlternativeContactEntity;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeoCoordinatesEntity;
+import com.bufalari.entity.GeocodeStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clients shaped like those returned by the API: geocoded, with a main contact and one alternative contact.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static ClientEntity clientEntity(long id) {
+        ClientEntity client = new ClientEntity();
+        client.setId(id);
+        client.setName("Client " + id);
+        client.setAddress(id + " Yonge St");
+        client.setCity("Toronto");
+        client.setProvince("ON");
+        client.setPostalCode("M5V 2H5");
+        client.setCountry("Canada");
+        client.setDdI1("+1");
+        client.setPhoneNumber1("(416) 555-1212");
+        client.setEmail("client" + id + "@example.com");
+        client.setSinNumber(String.valueOf(100_000_000 + id));
+        client.setNotes("Prefers email");
+        client.setGeocodeStatus(GeocodeStatus.RESOLVED);
+        client.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        GeoCoordinatesEntity coordinates = new GeoCoordinatesEntity();
+        coordinates.setLatitude(43.6532 + id * 1e-4);
+        coordinates.setLongitude(-79.3832 - id * 1e-4);
+        client.setGeoCoordinates(coordinates);
+        client.getAlternativeContacts().add(contactEntity(client, id * 2, client.getName(), "Main Contact"));
+        client.getAlternativeContacts().add(contactEntity(client, id * 2 + 1, "Contact of " + client.getName(), null));
+        return client;
+    }
+
+    static ClientDTO clientDTO(long id) {
+        ClientDTO client = new ClientDTO();
+        client.setName("Client " + id);
+        client.setAddress(id + " Yonge St");
+        client.setCity("Toronto");
+        client.setProvince("ON");
+        client.setPostalCode("M5V 2H5");
+        client.setCountry("Canada");
+        client.setDdI1("+1");
+        client.setPhoneNumber1("(416) 555-1212");
+        client.setEmail("client" + id + "@example.com");
+        client.setSinNumber(String.valueOf(100_000_000 + id));
+        AlternativeContactDTO contact = new AlternativeContactDTO();
+        contact.setName("Contact of Client " + id);
+        contact.setDdI("+1");
+        contact.setPhoneNumber("(416) 111-2222");
+        contact.setEmail("contact" + id + "@example.com");
+        client.setAlternativeContacts(List.of(contact));
+        return client;
+    }
+
+    private static AlternativeContactEntity contactEntity(ClientEntity client, long id, String name, String notes) {
+        AlternativeContactEntity contact = new AlternativeContactEntity();
+        contact.setId(id);
+        contact.setClient(client);
+        contact.setName(name);
+        contact.setDDI("+1");
+        contact.setPhoneNumber("(416) 111-2222");
+        contact.setEmail("contact" + id + "@example.com");
+        contact.setNotes(notes);
+        return contact;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bufalari.benchmark;
+
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientDTO;
+import com.bufalari.dto.ClientResponseDTO;
+import com.bufalari.entity.ClientEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions made for every client read (entity to response) and written (request to entity).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientConverterBenchmark {
+
+    private final ClientConverter clientConverter = new ClientConverter();
+    private ClientEntity clientEntity;
+    private ClientDTO clientDTO;
+
+    @Setup
+    public void setUp() {
+        clientEntity = BenchmarkData.clientEntity(1);
+        clientDTO = BenchmarkData.clientDTO(1);
+    }
+
+    @Benchmark
+    public ClientResponseDTO convertEntityToResponseDTO() {
+        return clientConverter.convertEntityToResponseDTO(clientEntity);
+    }
+
+    @Benchmark
+    public ClientEntity convertDTOToEntity() {
+        return clientConverter.convertDTOToEntity(clientDTO);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bufalari.benchmark;
+
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of client lists, from a single client up to a full page and a large search result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientJsonBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<ClientResponseDTO> clients;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().findAndRegisterModules().writerFor(List.class);
+        ClientConverter clientConverter = new ClientConverter();
+        clients = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            clients.add(clientConverter.convertEntityToResponseDTO(BenchmarkData.clientEntity(i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeClients() throws Exception {
+        return writer.writeValueAsBytes(clients);
+    }
+}
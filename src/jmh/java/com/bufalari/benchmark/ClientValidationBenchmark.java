@@ -0,0 +1,55 @@
+package com.bufalari.benchmark;
+
+import com.bufalari.dto.ClientDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of a ClientDTO, as done for every created or updated client. An invalid client also
+ * pays for interpolating the violation messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ClientDTO validClient;
+    private ClientDTO invalidClient;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validClient = BenchmarkData.clientDTO(1);
+        invalidClient = BenchmarkData.clientDTO(2);
+        invalidClient.setName("X");
+        invalidClient.setEmail("not an email");
+        invalidClient.getAlternativeContacts().get(0).setPhoneNumber(" ");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ClientDTO>> validateValidClient() {
+        return validator.validate(validClient);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ClientDTO>> validateInvalidClient() {
+        return validator.validate(invalidClient);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bufalari.benchmark;
+
+import com.bufalari.util.MapLinkGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the map links of {@link MapLinkGenerator} with the String.format implementation it replaced.
+ * <p>
+ * create measures what every converted client pays, read what a caller iterating the links pays, and
+ * serialize what a JSON response pays. Run with -prof gc (the default) to see bytes allocated per link set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapLinkBenchmark {
+
+    private static final int LOCATIONS = 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final double[] latitudes = new double[LOCATIONS];
+    private final double[] longitudes = new double[LOCATIONS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < LOCATIONS; i++) {
+            // Geocoder results carry 7 decimal places
+            latitudes[i] = Math.round(random.nextDouble(-90, 90) * 1e7) / 1e7;
+            longitudes[i] = Math.round(random.nextDouble(-180, 180) * 1e7) / 1e7;
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> createFormatted() {
+        int i = nextLocation();
+        return formattedLinks(latitudes[i], longitudes[i]);
+    }
+
+    @Benchmark
+    public Map<String, String> createTemplated() {
+        int i = nextLocation();
+        return MapLinkGenerator.generateMapLinks(latitudes[i], longitudes[i]);
+    }
+
+    @Benchmark
+    public void readFormatted(Blackhole blackhole) {
+        int i = nextLocation();
+        formattedLinks(latitudes[i], longitudes[i]).values().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void readTemplated(Blackhole blackhole) {
+        int i = nextLocation();
+        MapLinkGenerator.generateMapLinks(latitudes[i], longitudes[i]).values().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public byte[] serializeFormatted() throws Exception {
+        int i = nextLocation();
+        return objectMapper.writeValueAsBytes(formattedLinks(latitudes[i], longitudes[i]));
+    }
+
+    @Benchmark
+    public byte[] serializeTemplated() throws Exception {
+        int i = nextLocation();
+        return objectMapper.writeValueAsBytes(MapLinkGenerator.generateMapLinks(latitudes[i], longitudes[i]));
+    }
+
+    private int nextLocation() {
+        next = (next + 1) & (LOCATIONS - 1);
+        return next;
+    }
+
+    /**
+     * The previous implementation of MapLinkGenerator.generateMapLinks.
+     */
+    private static Map<String, String> formattedLinks(double latitude, double longitude) {
+        Map<String, String> mapLinks = new LinkedHashMap<>();
+        mapLinks.put("googleMaps", String.format("https://www.google.com/maps/search/?api=1&query=%s,%s", latitude, longitude));
+        mapLinks.put("waze", String.format("https://waze.com/ul?ll=%s,%s&navigate=yes", latitude, longitude));
+        mapLinks.put("appleMaps", String.format("http://maps.apple.com/?daddr=%s,%s", latitude, longitude));
+        mapLinks.put("sygic", String.format("com.sygic.aura://coordinate|%s|%s", latitude, longitude));
+        mapLinks.put("hereWeGo", String.format("https://wego.here.com/directions/mix//%s,%s", latitude, longitude));
+        return mapLinks;
+    }
+}
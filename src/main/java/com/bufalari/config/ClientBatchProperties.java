@@ -0,0 +1,25 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for bulk client creation.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.batch")
+public class ClientBatchProperties {
+
+    /**
+     * Maximum number of clients accepted in a single batch request.
+     */
+    private int maxSize = 10000;
+
+    /**
+     * Number of clients written per transaction. Each chunk is flushed and cleared from the
+     * persistence context before the next one starts.
+     */
+    private int chunkSize = 500;
+}
@@ -0,0 +1,27 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory cache of single-client lookups.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.cache")
+public class ClientCacheProperties {
+
+    /**
+     * Maximum number of clients kept in memory.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a cached client is kept. Writes made through this service invalidate entries
+     * immediately; this bounds staleness for changes made elsewhere.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,74 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the location queries over geocoded clients.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.geo")
+public class ClientGeoProperties {
+
+    /**
+     * Largest radius, in kilometres, a caller may search.
+     */
+    private double maxRadiusKm = 200;
+
+    /**
+     * Number of results returned when the request does not specify a limit.
+     */
+    private int defaultLimit = 50;
+
+    /**
+     * Upper bound for the limit a caller may request.
+     */
+    private int maxLimit = 500;
+
+    /**
+     * Maximum number of geohash cells queried for one search. Fewer cells means coarser cells and
+     * more candidates discarded by the exact distance check.
+     */
+    private int maxCells = 16;
+
+    private Nearest nearest = new Nearest();
+
+    private Clusters clusters = new Clusters();
+
+    @Data
+    public static class Nearest {
+
+        /**
+         * Number of clients returned when the request does not specify k.
+         */
+        private int defaultK = 20;
+
+        /**
+         * Upper bound for the k a caller may request.
+         */
+        private int maxK = 200;
+    }
+
+    @Data
+    public static class Clusters {
+
+        /**
+         * Highest zoom level with precomputed clusters; requests for deeper zooms use this level.
+         */
+        private int maxZoom = 14;
+
+        /**
+         * Cells per map tile along each axis; must be a power of two. With 256-pixel tiles, 2 means
+         * one cluster per 128 x 128 pixels.
+         */
+        private int cellsPerTile = 2;
+
+        /**
+         * Maximum number of cells a response may span. Larger areas are answered from a coarser
+         * zoom level, which bounds the payload size.
+         */
+        private int maxCells = 256;
+    }
+}
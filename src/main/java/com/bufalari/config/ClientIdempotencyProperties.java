@@ -0,0 +1,31 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Idempotency-Key header of POST /clients.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.idempotency")
+public class ClientIdempotencyProperties {
+
+    /**
+     * How long the response to a key is kept and replayed to retries.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How often expired keys are deleted.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * Maximum length of a key; longer keys are rejected.
+     */
+    private int maxKeyLength = 255;
+}
@@ -0,0 +1,56 @@
+package com.bufalari.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Configuration class for the client import executors.
+ */
+@Configuration
+public class ClientImportConfig {
+
+    /**
+     * Executor running import jobs, one thread per concurrently running job.
+     *
+     * @param importProperties The import configuration.
+     * @return The executor for import jobs.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor clientImportExecutor(ClientImportProperties importProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(importProperties.getConcurrentJobs());
+        executor.setMaxPoolSize(importProperties.getConcurrentJobs());
+        executor.setThreadNamePrefix("client-import-");
+        return executor;
+    }
+
+    /**
+     * Executor geocoding the records of a chunk. Its size bounds the number of Geocoding API calls
+     * an import makes at once, independently of the chunk size. With virtual threads enabled each call
+     * runs on its own virtual thread, still limited to the same number at once.
+     *
+     * @param importProperties The import configuration.
+     * @param environment      The environment telling whether virtual threads are enabled.
+     * @return The executor for import geocoding.
+     */
+    @Bean
+    public Executor importGeocodingExecutor(ClientImportProperties importProperties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("import-geocode-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(importProperties.getGeocodingParallelism());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(importProperties.getGeocodingParallelism());
+        executor.setMaxPoolSize(importProperties.getGeocodingParallelism());
+        executor.setThreadNamePrefix("import-geocode-");
+        return executor;
+    }
+}
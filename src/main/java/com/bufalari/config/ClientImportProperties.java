@@ -0,0 +1,51 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for file-based client imports.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.import")
+public class ClientImportProperties {
+
+    /**
+     * Directory the uploaded files are stored in until their import completes.
+     */
+    private String directory = System.getProperty("java.io.tmpdir") + "/client-imports";
+
+    /**
+     * Name of this node, recorded on the jobs it accepts. The uploaded files are on the node's local
+     * disk, so only that node runs and resumes them; the name must therefore survive restarts.
+     * Defaults to the host name.
+     */
+    private String node;
+
+    /**
+     * Number of records written per transaction; also the unit a job resumes from.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Maximum number of addresses of a chunk geocoded concurrently.
+     */
+    private int geocodingParallelism = 8;
+
+    /**
+     * Number of import jobs that run at the same time; further jobs wait in the queue.
+     */
+    private int concurrentJobs = 1;
+
+    /**
+     * Maximum number of rejected records stored per job with their error.
+     */
+    private int maxRecordedErrors = 1000;
+
+    /**
+     * Whether jobs that were queued or running when the application stopped are resumed on startup.
+     */
+    private boolean resumeOnStartup = true;
+}
@@ -0,0 +1,38 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the channel telling other nodes which clients changed.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.invalidation")
+public class ClientInvalidationProperties {
+
+    public enum Transport {
+        POSTGRES, // LISTEN/NOTIFY on the application database
+        LOCAL // In-process only, for tests and single-node runs
+    }
+
+    private Transport transport = Transport.POSTGRES;
+
+    /**
+     * Name of the Postgres notification channel.
+     */
+    private String channel = "client_changes";
+
+    /**
+     * How often changed client IDs are sent. Changes within one interval are coalesced into one message.
+     */
+    private Duration flushInterval = Duration.ofMillis(20);
+
+    /**
+     * How long to wait before reconnecting after the listening connection fails.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
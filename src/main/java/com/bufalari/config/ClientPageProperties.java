@@ -0,0 +1,24 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the keyset-paginated client listing.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.page")
+public class ClientPageProperties {
+
+    /**
+     * Page size used when the request does not specify one.
+     */
+    private int defaultSize = 50;
+
+    /**
+     * Upper bound for the page size a caller may request.
+     */
+    private int maxSize = 500;
+}
@@ -0,0 +1,40 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the client name search and autocomplete.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.search")
+public class ClientSearchProperties {
+
+    /**
+     * Number of results returned when the request does not specify a limit.
+     */
+    private int defaultLimit = 100;
+
+    /**
+     * Upper bound for the limit a caller may request.
+     */
+    private int maxLimit = 1000;
+
+    private Autocomplete autocomplete = new Autocomplete();
+
+    @Data
+    public static class Autocomplete {
+
+        /**
+         * Number of suggestions returned when the request does not specify a limit.
+         */
+        private int defaultLimit = 10;
+
+        /**
+         * Upper bound for the number of suggestions a caller may request.
+         */
+        private int maxLimit = 50;
+    }
+}
@@ -0,0 +1,62 @@
+package com.bufalari.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration class for the geocoding background workers.
+ */
+@Configuration
+public class GeocodingConfig {
+
+    /**
+     * Executor refreshing stale geocode_cache entries. It is deliberately small: refreshes are
+     * best effort and are dropped rather than queued without bound when the API is slow. A dropped
+     * refresh is rejected with an exception, so that GeocodingService can schedule the address again later.
+     *
+     * @return The executor for background geocode refreshes.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor geocodingRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("geocode-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Scheduler running the background geocoding attempts of ASYNC mode. A scheduler rather than a
+     * plain pool lets retries wait out their backoff without holding a thread. With virtual threads
+     * enabled each attempt runs on its own virtual thread; the pool size still bounds how many run at once.
+     *
+     * @param geocodingProperties The geocoding configuration.
+     * @param environment         The environment telling whether virtual threads are enabled.
+     * @return The scheduler for background geocoding.
+     */
+    @Bean
+    public TaskScheduler geocodingWorkerScheduler(GeocodingProperties geocodingProperties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setConcurrencyLimit(geocodingProperties.getAsync().getPoolSize());
+            scheduler.setThreadNamePrefix("geocode-worker-");
+            return scheduler;
+        }
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(geocodingProperties.getAsync().getPoolSize());
+        scheduler.setThreadNamePrefix("geocode-worker-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
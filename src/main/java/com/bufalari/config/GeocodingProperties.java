@@ -0,0 +1,119 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for address geocoding.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "geocoding")
+public class GeocodingProperties {
+
+    /**
+     * SYNC geocodes inside POST /clients; ASYNC saves the client as PENDING and geocodes in the background.
+     */
+    private Mode mode = Mode.SYNC;
+
+    /**
+     * Base URL of the Geocoding API, read by GeocodingClientRepository.
+     */
+    private String apiUrl = "https://maps.googleapis.com/maps/api/geocode";
+
+    /**
+     * In SYNC mode, save the client as PENDING instead of failing when the circuit breaker or bulkhead
+     * rejects the geocoding call.
+     */
+    private boolean deferWhenUnavailable = true;
+
+    private Cache cache = new Cache();
+
+    private Store store = new Store();
+
+    private Async async = new Async();
+
+    public enum Mode {
+        SYNC,
+        ASYNC
+    }
+
+    /**
+     * Settings of the in-memory cache in front of the Geocoding API.
+     */
+    @Data
+    public static class Cache {
+
+        /**
+         * Maximum number of addresses kept in memory.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long a resolved address is kept.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * How long an address the API could not resolve (ZERO_RESULTS) is kept.
+         */
+        private Duration negativeTtl = Duration.ofHours(1);
+    }
+
+    /**
+     * Settings of the geocode_cache table shared by all nodes.
+     */
+    @Data
+    public static class Store {
+
+        /**
+         * Whether resolved addresses are persisted and looked up in the geocode_cache table.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Age after which a stored entry is ignored and the address is geocoded again.
+         */
+        private Duration ttl = Duration.ofDays(90);
+
+        /**
+         * Age after which a stored entry is still served but refreshed in the background.
+         */
+        private Duration refreshAfter = Duration.ofDays(30);
+    }
+
+    /**
+     * Settings of the background geocoding workers used in ASYNC mode.
+     */
+    @Data
+    public static class Async {
+
+        /**
+         * Number of worker threads calling the Geocoding API.
+         */
+        private int poolSize = 4;
+
+        /**
+         * Attempts per client before it is marked FAILED.
+         */
+        private int maxAttempts = 6;
+
+        /**
+         * Delay before the first retry; doubled on every further attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(2);
+
+        /**
+         * Upper bound for the delay between attempts.
+         */
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        /**
+         * How often PENDING clients left behind (e.g. by a restart) are picked up again.
+         */
+        private Duration sweepInterval = Duration.ofMinutes(5);
+    }
+}
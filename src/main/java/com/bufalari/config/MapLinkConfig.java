@@ -0,0 +1,39 @@
+package com.bufalari.config;
+
+import com.bufalari.util.MapLinkGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration class for the map links returned with each geocoded client.
+ */
+@Configuration
+public class MapLinkConfig {
+
+    /**
+     * Builds the generator for the configured GPS applications; the templates are parsed here, once.
+     *
+     * @param mapLinkProperties The map link configuration.
+     * @return The map link generator.
+     * @throws IllegalStateException If a provider has no template.
+     */
+    @Bean
+    public MapLinkGenerator mapLinkGenerator(MapLinkProperties mapLinkProperties) {
+        Map<String, String> available = new LinkedHashMap<>(MapLinkGenerator.DEFAULT_TEMPLATES);
+        available.putAll(mapLinkProperties.getTemplates());
+
+        Map<String, String> templates = new LinkedHashMap<>();
+        for (String provider : mapLinkProperties.getProviders()) {
+            String template = available.get(provider);
+            if (template == null) {
+                throw new IllegalStateException("No map link template for provider " + provider
+                        + "; set clients.map-links.templates." + provider);
+            }
+            templates.put(provider, template);
+        }
+        return new MapLinkGenerator(templates);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bufalari.config;
+
+import com.bufalari.util.MapLinkGenerator;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for the map links returned with each geocoded client.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.map-links")
+public class MapLinkProperties {
+
+    /**
+     * GPS applications whose links are returned, in this order. Leave one out to stop returning its links.
+     */
+    private List<String> providers = new ArrayList<>(MapLinkGenerator.DEFAULT_TEMPLATES.keySet());
+
+    /**
+     * Link templates by GPS application, with {lat} and {lng} placeholders. Replace the built-in template
+     * of an application or add one for a new application, which must then also be listed in providers.
+     */
+    private Map<String, String> templates = new LinkedHashMap<>();
+}
@@ -0,0 +1,54 @@
+package com.bufalari.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+/**
+ * Configuration class for the Hibernate second-level cache, enabled by the l2cache profile.
+ * Regions are Caffeine caches created from the clients.l2cache.regions.* properties and handed to
+ * Hibernate through JCache; their hit, miss and put counts are published under
+ * /actuator/metrics/hibernate.second.level.cache.*. Clients changed on other nodes are evicted by
+ * {@link com.bufalari.invalidation.SecondLevelCacheEvictor}.
+ */
+@Configuration
+@Profile("l2cache")
+public class SecondLevelCacheConfig {
+
+    /**
+     * Creates one Caffeine cache per configured region.
+     *
+     * @param cacheProperties The region configuration.
+     * @return The cache manager holding the regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties cacheProperties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        cacheProperties.getRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    /**
+     * Points Hibernate at the cache manager holding the regions.
+     *
+     * @param secondLevelCacheManager The cache manager holding the regions.
+     * @return The customizer adding the cache manager to the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+    }
+}
@@ -0,0 +1,37 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the Hibernate second-level cache regions, used with the l2cache profile.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.l2cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Regions by name. Every region named in an entity's @Cache annotation must be listed.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /**
+         * Maximum number of entries kept in the region.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long an entry is kept after it was written.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
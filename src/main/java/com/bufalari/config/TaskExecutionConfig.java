@@ -0,0 +1,58 @@
+package com.bufalari.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+/**
+ * Configuration class for the application's default task executor and scheduler.
+ * Spring Boot backs off its own executor and scheduler as soon as any other Executor or
+ * TaskScheduler bean is declared (such as the geocoding workers), so they are declared here
+ * explicitly for MVC async requests (e.g. the streaming export), @Async and @Scheduled methods.
+ * Like Spring Boot's own, they run tasks on virtual threads when spring.threads.virtual.enabled is set.
+ */
+@Configuration
+public class TaskExecutionConfig {
+
+    /**
+     * Builds the default executor from the spring.task.execution.* properties.
+     *
+     * @param threadPoolBuilder The auto-configured pool executor builder.
+     * @param simpleBuilder     The auto-configured executor builder used with virtual threads.
+     * @param environment       The environment telling whether virtual threads are enabled.
+     * @return The application task executor.
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder simpleBuilder,
+                                                     Environment environment) {
+        return Threading.VIRTUAL.isActive(environment) ? simpleBuilder.build() : threadPoolBuilder.build();
+    }
+
+    /**
+     * Builds the default scheduler from the spring.task.scheduling.* properties.
+     *
+     * @param threadPoolBuilder The auto-configured pool scheduler builder.
+     * @param simpleBuilder     The auto-configured scheduler builder used with virtual threads.
+     * @param environment       The environment telling whether virtual threads are enabled.
+     * @return The scheduler used by @Scheduled methods.
+     */
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder threadPoolBuilder,
+                                       SimpleAsyncTaskSchedulerBuilder simpleBuilder,
+                                       Environment environment) {
+        return Threading.VIRTUAL.isActive(environment) ? simpleBuilder.build() : threadPoolBuilder.build();
+    }
+}
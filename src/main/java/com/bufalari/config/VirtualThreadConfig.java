@@ -0,0 +1,59 @@
+package com.bufalari.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration class for running requests on virtual threads, active when spring.threads.virtual.enabled
+ * is set on Java 21 or later. Spring Boot then runs Tomcat requests on virtual threads, and with them the
+ * JDBC calls and the SYNC mode Geocoding API calls they make; the executors declared in this application
+ * switch to virtual threads as well. What remains bounded is the database: every DataSource is wrapped in
+ * a {@link ConnectionLimitingDataSource}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wraps the DataSource so that no more connections are requested at once than the pool holds.
+     * Static so the post-processor does not force early initialization of this configuration.
+     *
+     * @param virtualThreadProperties The virtual thread configuration, resolved when the DataSource is created.
+     * @return The post-processor wrapping DataSource beans.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(ObjectProvider<VirtualThreadProperties> virtualThreadProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                VirtualThreadProperties properties = virtualThreadProperties.getObject();
+                int permits = properties.getDatabasePermits();
+                if (permits <= 0 && dataSource instanceof HikariDataSource hikari) {
+                    permits = hikari.getMaximumPoolSize();
+                }
+                if (permits <= 0) {
+                    // Hikari's default maximum size, applied when the pool starts if none is configured
+                    permits = DEFAULT_POOL_SIZE;
+                }
+                logger.info("Requests run on virtual threads; DataSource {} limited to {} connections at once.", beanName, permits);
+                return new ConnectionLimitingDataSource(dataSource, permits, properties.getDatabaseAcquireTimeout());
+            }
+        };
+    }
+}
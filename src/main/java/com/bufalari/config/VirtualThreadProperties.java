@@ -0,0 +1,26 @@
+package com.bufalari.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties applied when requests run on virtual threads (spring.threads.virtual.enabled).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "clients.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Maximum number of database connections borrowed at once; 0 uses the connection pool's maximum size.
+     */
+    private int databasePermits = 0;
+
+    /**
+     * How long a request waits for a database connection before failing.
+     */
+    private Duration databaseAcquireTimeout = Duration.ofSeconds(30);
+}
@@ -1,18 +1,38 @@
 package com.bufalari.controllers;
 
+import com.bufalari.dto.ClientBatchResultDTO;
 import com.bufalari.dto.ClientDTO;
+import com.bufalari.dto.ClientField;
+import com.bufalari.dto.ClientFieldsDTO;
+import com.bufalari.dto.ClientFieldsPageDTO;
+import com.bufalari.dto.ClientFileFormat;
+import com.bufalari.dto.ClientNameDTO;
+import com.bufalari.dto.ClientPageDTO;
 import com.bufalari.dto.ClientResponseDTO;
-import com.bufalari.exception.ClientAlreadyExistsException;
+import com.bufalari.dto.GeoClusterDTO;
+import com.bufalari.dto.NearbyClientDTO;
 import com.bufalari.exception.ClientNotFoundException;
 import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.service.ClientAutocompleteService;
+import com.bufalari.service.ClientBatchService;
+import com.bufalari.service.ClientExportService;
+import com.bufalari.service.ClientGeoService;
+import com.bufalari.service.ClientIdempotencyService;
 import com.bufalari.service.ClientService;
+import com.bufalari.util.ClientETag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/clients")
@@ -21,31 +41,117 @@ public class ClientController {
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private ClientExportService clientExportService;
+
+    @Autowired
+    private ClientBatchService clientBatchService;
+
+    @Autowired
+    private ClientAutocompleteService clientAutocompleteService;
+
+    @Autowired
+    private ClientGeoService clientGeoService;
+
+    @Autowired
+    private ClientIdempotencyService clientIdempotencyService;
+
 
     @GetMapping
-    public ResponseEntity<List<ClientResponseDTO>> getAllClients() {
-        return ResponseEntity.ok(clientService.getAllClients());
+    public ResponseEntity<ClientPageDTO> getAllClients(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer size,
+                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = clientService.getCollectionETag();
+        if (ClientETag.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(clientService.getAllClients(cursor, size));
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<ClientFieldsPageDTO> getAllClientFields(@RequestParam String fields,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<ClientField> requested = ClientField.parse(fields);
+        String etag = clientService.getCollectionETag();
+        if (ClientETag.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(clientService.getAllClients(cursor, size, requested));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportClients(@RequestParam(defaultValue = "ndjson") String format,
+                                                               @RequestParam(defaultValue = "false") boolean gzip) {
+        ClientFileFormat exportFormat = ClientFileFormat.fromValue(format);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.getContentType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("clients." + exportFormat.getFileExtension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = outputStream -> clientExportService.exportClients(outputStream, exportFormat, gzip);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ClientResponseDTO> getClientById(@PathVariable Long id) {
+    public ResponseEntity<ClientResponseDTO> getClientById(@PathVariable Long id,
+                                                           @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            return ResponseEntity.ok(clientService.getClientById(id));
+            // A conditional request is answered from the client's version alone when it has not changed
+            if (ifNoneMatch != null) {
+                Optional<String> current = clientService.getClientETag(id);
+                if (current.isPresent() && ClientETag.matches(ifNoneMatch, current.get())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+                }
+            }
+            // The tag comes from the returned client itself, so it never describes a newer version than the body
+            ClientResponseDTO client = clientService.getClientById(id);
+            return ResponseEntity.ok().eTag(ClientETag.forClient(client.getId(), client.getUpdatedAt())).body(client);
         } catch (ClientNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
 
-    @PostMapping
-    public ResponseEntity<ClientResponseDTO> createClient(@RequestBody ClientDTO clientDTO) {
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<ClientFieldsDTO> getClientFieldsById(@PathVariable Long id,
+                                                               @RequestParam String fields,
+                                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<ClientField> requested = ClientField.parse(fields);
         try {
-            ClientResponseDTO createdClient = clientService.createClient(clientDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
-        } catch (ClientAlreadyExistsException e) {
-            return ResponseEntity.badRequest().body(null); // Returns a 400 Bad Request
+            if (ifNoneMatch != null) {
+                Optional<String> current = clientService.getClientETag(id);
+                if (current.isPresent() && ClientETag.matches(ifNoneMatch, current.get())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+                }
+            }
+            ClientFieldsDTO client = clientService.getClientById(id, requested);
+            return ResponseEntity.ok().eTag(ClientETag.forClient(id, client.getUpdatedAt())).body(client);
+        } catch (ClientNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
     }
 
+    @PostMapping
+    public ResponseEntity<ClientResponseDTO> createClient(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                                          @RequestBody ClientDTO clientDTO) {
+        // A retry carrying the same Idempotency-Key gets the stored response of the first attempt.
+        // Duplicates surface as a unique index violation, answered with 400 by GlobalExceptionHandler.
+        ClientResponseDTO createdClient = clientIdempotencyService.createClient(idempotencyKey, clientDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ClientBatchResultDTO> createClients(@RequestBody List<ClientDTO> clientDTOs) {
+        // Per-item outcomes are in the body; the request as a whole succeeds even if some clients fail
+        return ResponseEntity.ok(clientBatchService.createClients(clientDTOs));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ClientResponseDTO> updateClient(@PathVariable Long id, @RequestBody @Valid ClientDTO clientDTO) {
         try {
@@ -106,7 +212,53 @@ public class ClientController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ClientResponseDTO>> searchClientsByName(@RequestParam String name) {
-        return ResponseEntity.ok(clientService.searchClientsByName(name));
+    public ResponseEntity<List<ClientResponseDTO>> searchClientsByName(@RequestParam String name,
+                                                                       @RequestParam(required = false) Integer limit,
+                                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = clientService.getCollectionETag();
+        if (ClientETag.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(clientService.searchClientsByName(name, limit));
+    }
+
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<List<ClientFieldsDTO>> searchClientFieldsByName(@RequestParam String name,
+                                                                          @RequestParam String fields,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<ClientField> requested = ClientField.parse(fields);
+        String etag = clientService.getCollectionETag();
+        if (ClientETag.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(clientService.searchClientsByName(name, limit, requested));
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<ClientNameDTO>> autocomplete(@RequestParam String prefix,
+                                                            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(clientAutocompleteService.autocomplete(prefix, limit));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyClientDTO>> nearby(@RequestParam double lat,
+                                                        @RequestParam double lng,
+                                                        @RequestParam double radiusKm,
+                                                        @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(clientGeoService.nearby(lat, lng, radiusKm, limit));
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearbyClientDTO>> nearest(@RequestParam double lat,
+                                                         @RequestParam double lng,
+                                                         @RequestParam(required = false) Integer k) {
+        return ResponseEntity.ok(clientGeoService.nearest(lat, lng, k));
+    }
+
+    @GetMapping("/geo/clusters")
+    public ResponseEntity<List<GeoClusterDTO>> geoClusters(@RequestParam String bbox,
+                                                           @RequestParam int zoom) {
+        return ResponseEntity.ok(clientGeoService.clusters(bbox, zoom));
     }
 }
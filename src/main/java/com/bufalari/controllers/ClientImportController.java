@@ -0,0 +1,51 @@
+package com.bufalari.controllers;
+
+import com.bufalari.dto.ClientFileFormat;
+import com.bufalari.dto.ImportJobDTO;
+import com.bufalari.dto.ImportJobErrorDTO;
+import com.bufalari.service.ClientImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/clients/imports")
+public class ClientImportController {
+
+    @Autowired
+    private ClientImportService clientImportService;
+
+    // The request body is the file itself, streamed to disk rather than buffered in memory
+    @PostMapping
+    public ResponseEntity<ImportJobDTO> createImport(@RequestParam(defaultValue = "ndjson") String format,
+                                                     InputStream body) throws IOException {
+        ImportJobDTO job = clientImportService.createJob(body, ClientFileFormat.fromValue(format));
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(clientImportService.getJob(id));
+    }
+
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<List<ImportJobErrorDTO>> getImportErrors(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(clientImportService.getErrors(id, limit));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobDTO> resumeImport(@PathVariable Long id) {
+        return ResponseEntity.accepted().body(clientImportService.resumeJob(id));
+    }
+}
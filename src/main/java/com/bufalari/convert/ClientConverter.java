@@ -2,13 +2,20 @@ package com.bufalari.convert;
 
 import com.bufalari.dto.AlternativeContactDTO;
 import com.bufalari.dto.ClientDTO;
+import com.bufalari.dto.ClientField;
+import com.bufalari.dto.ClientFieldsDTO;
 import com.bufalari.dto.ClientResponseDTO;
 import com.bufalari.entity.AlternativeContactEntity;
 import com.bufalari.entity.ClientEntity;
+import com.bufalari.repository.AlternativeContactView;
 import com.bufalari.util.MapLinkGenerator;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -17,6 +24,24 @@ import java.util.stream.Collectors;
 @Component
 public class ClientConverter {
 
+    private final MapLinkGenerator mapLinkGenerator;
+
+    /**
+     * Constructor for ClientConverter generating links for all supported GPS applications.
+     */
+    public ClientConverter() {
+        this(MapLinkGenerator.DEFAULT);
+    }
+
+    /**
+     * Constructor for ClientConverter.
+     *
+     * @param mapLinkGenerator The generator of the configured map links.
+     */
+    @Autowired
+    public ClientConverter(MapLinkGenerator mapLinkGenerator) {
+        this.mapLinkGenerator = mapLinkGenerator;
+    }
 
     /**
      * Converts a ClientEntity to a ClientResponseDTO.
@@ -28,7 +53,24 @@ public class ClientConverter {
         if (clientEntity == null) {
             return null;
         }
+        return convertEntityToResponseDTO(clientEntity, convertAlternativeContactEntityToDTO(clientEntity.getAlternativeContacts()));
+    }
 
+    /**
+     * Converts a ClientEntity whose contacts were loaded separately to a ClientResponseDTO.
+     * The entity's own contact collection is not accessed, so a lazy collection stays unloaded.
+     *
+     * @param clientEntity The ClientEntity to convert.
+     * @param contacts     The client's contacts.
+     * @return The corresponding ClientResponseDTO.
+     */
+    public ClientResponseDTO convertEntityWithContactsToResponseDTO(ClientEntity clientEntity, List<AlternativeContactView> contacts) {
+        return convertEntityToResponseDTO(clientEntity, contacts.stream()
+                .map(this::convertAlternativeContactViewToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    private ClientResponseDTO convertEntityToResponseDTO(ClientEntity clientEntity, List<AlternativeContactDTO> contacts) {
         ClientResponseDTO clientResponseDTO = new ClientResponseDTO();
 
         // Set basic client details first
@@ -45,18 +87,52 @@ public class ClientConverter {
         clientResponseDTO.setCity(clientEntity.getCity());
         clientResponseDTO.setCountry(clientEntity.getCountry());
         clientResponseDTO.setNotes(clientEntity.getNotes());
-        clientResponseDTO.setAlternativeContacts(convertAlternativeContactEntityToDTO(clientEntity.getAlternativeContacts()));
+        clientResponseDTO.setAlternativeContacts(contacts);
+
+        clientResponseDTO.setGeocodeStatus(clientEntity.getGeocodeStatus());
+        clientResponseDTO.setUpdatedAt(clientEntity.getUpdatedAt());
 
         // Generate map links based on geocoordinates
-        if (clientEntity.getGeoCoordinates() != null) {
+        if (clientEntity.getGeoCoordinates() != null && clientEntity.getGeoCoordinates().getLatitude() != null
+                && clientEntity.getGeoCoordinates().getLongitude() != null) {
             double latitude = clientEntity.getGeoCoordinates().getLatitude();
             double longitude = clientEntity.getGeoCoordinates().getLongitude();
-            clientResponseDTO.setMapLink(MapLinkGenerator.generateMapLinks(latitude, longitude));
+            clientResponseDTO.setMapLink(mapLinkGenerator.links(latitude, longitude));
         }
 
         return clientResponseDTO;
     }
 
+    /**
+     * Converts a row selected by ClientFieldsRepository to a ClientFieldsDTO holding the requested fields.
+     * Map links are only generated, and contacts only converted, when they were requested.
+     *
+     * @param client   The selected columns of the client.
+     * @param fields   The requested fields.
+     * @param contacts The client's contacts, or null if they were not requested.
+     * @return The corresponding ClientFieldsDTO.
+     */
+    public ClientFieldsDTO convertTupleToFieldsDTO(Tuple client, Set<ClientField> fields, List<AlternativeContactView> contacts) {
+        ClientFieldsDTO clientFieldsDTO = new ClientFieldsDTO();
+        for (ClientField field : fields) {
+            switch (field) {
+                case MAP_LINK -> {
+                    Double latitude = client.get("latitude", Double.class);
+                    Double longitude = client.get("longitude", Double.class);
+                    clientFieldsDTO.getFields().put(field.getName(), latitude != null && longitude != null
+                            ? mapLinkGenerator.links(latitude, longitude)
+                            : null);
+                }
+                case ALTERNATIVE_CONTACTS -> clientFieldsDTO.getFields().put(field.getName(), contacts.stream()
+                        .map(this::convertAlternativeContactViewToDTO)
+                        .collect(Collectors.toList()));
+                default -> clientFieldsDTO.getFields().put(field.getName(), client.get(field.getName()));
+            }
+        }
+        clientFieldsDTO.setUpdatedAt(client.get("updatedAt", LocalDateTime.class));
+        return clientFieldsDTO;
+    }
+
     /**
      * Converts a ClientDTO to a ClientEntity.
      *
@@ -80,6 +156,7 @@ public class ClientConverter {
         clientEntity.setProvince(clientDTO.getProvince());
         clientEntity.setPostalCode(clientDTO.getPostalCode());
         clientEntity.setCity(clientDTO.getCity());
+        clientEntity.setCountry(clientDTO.getCountry());
         clientEntity.setSinNumber(clientDTO.getSinNumber());
         // Correção: Passando o clientEntity corretamente
         clientEntity.setAlternativeContacts(convertAlternativeContactDTOToEntity(clientDTO.getAlternativeContacts(), clientEntity));
@@ -87,6 +164,24 @@ public class ClientConverter {
         return clientEntity;
     }
 
+    /**
+     * Creates the "Main Contact" entry that mirrors the client's own name, phone and email.
+     *
+     * @param clientEntity The ClientEntity the contact belongs to.
+     * @param clientDTO    The ClientDTO the client was created from.
+     * @return The main contact, associated with the client.
+     */
+    public AlternativeContactEntity createMainContact(ClientEntity clientEntity, ClientDTO clientDTO) {
+        AlternativeContactEntity mainContactEntity = new AlternativeContactEntity();
+        mainContactEntity.setClient(clientEntity);
+        mainContactEntity.setName(clientDTO.getName());
+        mainContactEntity.setDDI(clientDTO.getDdI1());
+        mainContactEntity.setEmail(clientDTO.getEmail());
+        mainContactEntity.setPhoneNumber(clientDTO.getPhoneNumber1());
+        mainContactEntity.setNotes("Main Contact");
+        return mainContactEntity;
+    }
+
     // Helper methods to convert lists of alternative contacts
 
     /**
@@ -118,6 +213,23 @@ public class ClientConverter {
         return dto;
     }
 
+    /**
+     * Converts an AlternativeContactView to an AlternativeContactDTO.
+     *
+     * @param view The AlternativeContactView to convert.
+     * @return The corresponding AlternativeContactDTO.
+     */
+    private AlternativeContactDTO convertAlternativeContactViewToDTO(AlternativeContactView view) {
+        AlternativeContactDTO dto = new AlternativeContactDTO();
+        dto.setId(view.getId());
+        dto.setName(view.getName());
+        dto.setDdI(view.getDdI());
+        dto.setPhoneNumber(view.getPhoneNumber());
+        dto.setEmail(view.getEmail());
+        dto.setNotes(view.getNotes());
+        return dto;
+    }
+
     /**
      * Converts a list of AlternativeContactDTO to a list of AlternativeContactEntity,
      * associating each contact with the provided ClientEntity.
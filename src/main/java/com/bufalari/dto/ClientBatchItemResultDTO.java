@@ -0,0 +1,16 @@
+package com.bufalari.dto;
+
+import lombok.Data;
+
+@Data
+public class ClientBatchItemResultDTO {
+    private int index; // Position of the client in the request body
+    private Status status;
+    private Long id; // Set when the client was created
+    private String error; // Set when the client was rejected
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+}
@@ -0,0 +1,12 @@
+package com.bufalari.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ClientBatchResultDTO {
+    private int created;
+    private int failed;
+    private List<ClientBatchItemResultDTO> items; // One entry per request item, in request order
+}
@@ -0,0 +1,75 @@
+package com.bufalari.dto;
+
+import com.bufalari.exception.InvalidClientDataException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Client fields that can be requested with the fields parameter of the read endpoints, in the order of
+ * ClientResponseDTO. Except for mapLink and alternativeContacts, each name is also the ClientEntity
+ * attribute it is read from.
+ */
+public enum ClientField {
+
+    ID("id"),
+    NAME("name"),
+    CITY("city"),
+    PROVINCE("province"),
+    POSTAL_CODE("postalCode"),
+    ADDRESS("address"),
+    DDI1("ddI1"),
+    PHONE_NUMBER1("phoneNumber1"),
+    DDI2("ddI2"),
+    PHONE_NUMBER2("phoneNumber2"),
+    EMAIL("email"),
+    COUNTRY("country"),
+    NOTES("notes"),
+    MAP_LINK("mapLink"),
+    GEOCODE_STATUS("geocodeStatus"),
+    ALTERNATIVE_CONTACTS("alternativeContacts");
+
+    private final String name;
+
+    ClientField(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Resolves a comma-separated list of field names (case-sensitive, as in the JSON responses).
+     * The ID is always included, so every returned client can be identified.
+     *
+     * @param fields The requested fields, e.g. "name,city,phoneNumber1".
+     * @return The requested fields and the ID.
+     * @throws InvalidClientDataException If no field is given or a field is unknown.
+     */
+    public static Set<ClientField> parse(String fields) {
+        Set<ClientField> parsed = EnumSet.of(ID);
+        boolean empty = true;
+        for (String value : fields.split(",")) {
+            String trimmed = value.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(fromName(trimmed));
+            empty = false;
+        }
+        if (empty) {
+            throw new InvalidClientDataException("fields must name at least one field");
+        }
+        return parsed;
+    }
+
+    private static ClientField fromName(String name) {
+        for (ClientField field : values()) {
+            if (field.name.equals(name)) {
+                return field;
+            }
+        }
+        throw new InvalidClientDataException("Unknown client field: " + name);
+    }
+}
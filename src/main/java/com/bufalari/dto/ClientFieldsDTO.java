@@ -0,0 +1,25 @@
+package com.bufalari.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A client reduced to the fields requested with the fields parameter; serialized as a plain object
+ * holding only those fields, so fields that were not requested are absent rather than null.
+ */
+@Data
+public class ClientFieldsDTO {
+    private Map<String, Object> fields = new LinkedHashMap<>(); // Keyed by ClientField name, in ClientField order
+    @JsonIgnore
+    private LocalDateTime updatedAt; // Source of the ETag; not part of the body
+
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bufalari.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ClientFieldsPageDTO {
+    private List<ClientFieldsDTO> items;
+    private int size;
+    private String next; // Opaque cursor for the following page, null on the last page
+}
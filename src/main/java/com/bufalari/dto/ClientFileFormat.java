@@ -0,0 +1,44 @@
+package com.bufalari.dto;
+
+import com.bufalari.exception.InvalidClientDataException;
+
+/**
+ * File formats supported by the client export and import endpoints.
+ */
+public enum ClientFileFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ClientFileFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Resolves a format from its request parameter value (case-insensitive).
+     *
+     * @param value The requested format.
+     * @return The matching ClientFileFormat.
+     * @throws InvalidClientDataException If the format is not supported.
+     */
+    public static ClientFileFormat fromValue(String value) {
+        for (ClientFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidClientDataException("Unsupported file format: " + value);
+    }
+}
@@ -0,0 +1,13 @@
+package com.bufalari.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientNameDTO {
+    private Long id;
+    private String name;
+}
@@ -1,7 +1,10 @@
 package com.bufalari.dto;
 
+import com.bufalari.entity.GeocodeStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -21,5 +24,8 @@ public class ClientResponseDTO {
     private String country; // Added missing field
     private String notes; // Added missing field
     private Map<String, String> mapLink;
+    private GeocodeStatus geocodeStatus; // PENDING until the background geocoder has set the coordinates
     private List<AlternativeContactDTO> alternativeContacts;
+    @JsonIgnore
+    private LocalDateTime updatedAt; // Source of the ETag; not part of the body
 }
\ No newline at end of file
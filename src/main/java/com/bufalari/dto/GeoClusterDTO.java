@@ -0,0 +1,14 @@
+package com.bufalari.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoClusterDTO {
+    private double latitude; // Centroid of the clients in the cell
+    private double longitude;
+    private int count;
+}
@@ -0,0 +1,21 @@
+package com.bufalari.dto;
+
+import com.bufalari.entity.ImportJobStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ImportJobDTO {
+    private Long id;
+    private ClientFileFormat format;
+    private ImportJobStatus status;
+    private long recordsProcessed;
+    private long recordsCreated;
+    private long recordsFailed;
+    private double progressPercent; // Share of the file read so far
+    private double recordsPerSecond; // Throughput of the current (or last) run
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,9 @@
+package com.bufalari.dto;
+
+import lombok.Data;
+
+@Data
+public class ImportJobErrorDTO {
+    private long recordNumber;
+    private String message;
+}
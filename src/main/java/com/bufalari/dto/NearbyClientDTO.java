@@ -0,0 +1,18 @@
+package com.bufalari.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyClientDTO {
+    private Long id;
+    private String name;
+    private String address;
+    private String city;
+    private Double latitude;
+    private Double longitude;
+    private double distanceKm;
+}
@@ -0,0 +1,15 @@
+package com.bufalari.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "client_collection_version")
+public class ClientCollectionVersionEntity {
+
+    @Id
+    private Long id; // Single row, ID 1
+
+    private long version; // Incremented by every transaction that changes a client
+}
@@ -1,7 +1,10 @@
 package com.bufalari.entity;
 
 import jakarta.persistence.*;
+import com.bufalari.util.GeoHash;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,11 +14,18 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "clients")
+@Cacheable // Only cached when the second-level cache is enabled (profile l2cache)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clients")
+@Table(name = "clients", indexes = {
+        @Index(name = "ix_clients_name_id", columnList = "name, id"), // Supports keyset pagination
+        @Index(name = "ix_clients_geohash", columnList = "geohash"), // Supports location queries
+        @Index(name = "ix_clients_geocode_status_updated_at", columnList = "geocodeStatus, updatedAt") // Supports the GeocodingWorker sweep
+})
 public class ClientEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @SequenceGenerator(name = "clients_seq", sequenceName = "clients_seq", allocationSize = 50) // Pooled, so inserts can be batched
     private Long id;
 
     @Column(nullable = false)
@@ -51,6 +61,10 @@ public class ClientEntity {
     @Embedded
     private GeoCoordinatesEntity geoCoordinates;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private GeocodeStatus geocodeStatus;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -61,5 +75,15 @@ public class ClientEntity {
     private boolean deleted = false;
 
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client-contacts")
     private List<AlternativeContactEntity> alternativeContacts = new ArrayList<>(); // Lista de contatos alternativos
+
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        if (geoCoordinates != null) {
+            geoCoordinates.setGeohash(geoCoordinates.getLatitude() == null || geoCoordinates.getLongitude() == null ? null
+                    : GeoHash.encode(geoCoordinates.getLatitude(), geoCoordinates.getLongitude(), GeoHash.MAX_PRECISION));
+        }
+    }
 }
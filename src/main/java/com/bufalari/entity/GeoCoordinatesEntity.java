@@ -1,5 +1,6 @@
 package com.bufalari.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import lombok.Data;
 
@@ -9,4 +10,7 @@ public class GeoCoordinatesEntity { // Nome ajustado
 
     private Double latitude;
     private Double longitude;
+
+    @Column(length = 12)
+    private String geohash; // Derived from latitude/longitude by ClientEntity, indexed for location queries
 }
\ No newline at end of file
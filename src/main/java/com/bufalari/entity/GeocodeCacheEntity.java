@@ -0,0 +1,31 @@
+package com.bufalari.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "geocode_cache", indexes = {
+        @Index(name = "ix_geocode_cache_resolved_at", columnList = "resolvedAt")
+})
+public class GeocodeCacheEntity {
+
+    @Id
+    @Column(length = 64)
+    private String addressHash; // SHA-256 of the normalized address
+
+    @Column(nullable = false, length = 1000)
+    private String address; // Normalized address, used to refresh the entry
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(nullable = false, length = 32)
+    private String status; // Provider status: OK or ZERO_RESULTS
+
+    @Column(nullable = false)
+    private LocalDateTime resolvedAt;
+}
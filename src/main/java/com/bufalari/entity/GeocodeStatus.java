@@ -0,0 +1,10 @@
+package com.bufalari.entity;
+
+/**
+ * Progress of resolving a client's address to coordinates.
+ */
+public enum GeocodeStatus {
+    PENDING,  // Saved without coordinates, waiting for the background geocoder
+    RESOLVED, // Coordinates are set
+    FAILED    // The address could not be resolved, or retries were exhausted
+}
@@ -0,0 +1,53 @@
+package com.bufalari.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "ix_idempotency_keys_expires_at", columnList = "expiresAt")
+})
+public class IdempotencyKeyEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key; // Idempotency-Key header sent by the client
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request body, to detect a key reused for another request
+
+    @Column(nullable = false)
+    private Long clientId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String responseBody; // JSON of the 201 response
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Transient
+    private boolean stored; // Rows are only ever inserted, so save() must persist rather than merge
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        this.stored = true;
+    }
+}
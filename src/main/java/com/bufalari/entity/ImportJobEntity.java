@@ -0,0 +1,53 @@
+package com.bufalari.entity;
+
+import com.bufalari.dto.ClientFileFormat;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "import_jobs")
+public class ImportJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ClientFileFormat format;
+
+    @Column(nullable = false, length = 1000)
+    private String filePath; // Uploaded file, deleted once the job completes
+
+    private String node; // Node the file was uploaded to; only that node runs and resumes the job
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportJobStatus status;
+
+    private long totalBytes;
+
+    private long bytesRead;
+
+    private long recordsProcessed; // Records covered by committed chunks; the job resumes after them
+
+    private long recordsCreated;
+
+    private long recordsFailed;
+
+    @Column(length = 1000)
+    private String error;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    private LocalDateTime runStartedAt; // Start of the current (or last) run, for throughput
+
+    private long runStartRecords; // recordsProcessed when the current run started
+
+    private LocalDateTime finishedAt;
+}
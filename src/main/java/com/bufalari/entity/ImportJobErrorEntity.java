@@ -0,0 +1,25 @@
+package com.bufalari.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "import_job_errors", indexes = {
+        @Index(name = "ix_import_job_errors_job_id", columnList = "jobId, recordNumber")
+})
+public class ImportJobErrorEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_job_errors_seq")
+    @SequenceGenerator(name = "import_job_errors_seq", sequenceName = "import_job_errors_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    private long recordNumber; // 1-based position of the record in the file
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+}
@@ -0,0 +1,11 @@
+package com.bufalari.entity;
+
+/**
+ * Lifecycle of a client import job.
+ */
+public enum ImportJobStatus {
+    QUEUED,    // Uploaded, waiting for an import thread
+    RUNNING,
+    COMPLETED,
+    FAILED     // Stopped on an unexpected error; can be resumed from the last committed chunk
+}
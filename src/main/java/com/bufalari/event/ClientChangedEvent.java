@@ -0,0 +1,34 @@
+package com.bufalari.event;
+
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeoCoordinatesEntity;
+import lombok.Value;
+
+/**
+ * Published whenever a client is created, updated, deleted, activated or geocoded. Carries the state
+ * of the fields kept in the in-memory client indexes, as of the change.
+ */
+@Value
+public class ClientChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        ACTIVATED
+    }
+
+    Long clientId;
+    ChangeType type;
+    String name;
+    boolean active;
+    Double latitude; // Null while the client has no coordinates
+    Double longitude;
+
+    public static ClientChangedEvent of(ClientEntity client, ChangeType type) {
+        GeoCoordinatesEntity coordinates = client.getGeoCoordinates();
+        return new ClientChangedEvent(client.getId(), type, client.getName(), !client.isDeleted(),
+                coordinates != null ? coordinates.getLatitude() : null,
+                coordinates != null ? coordinates.getLongitude() : null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.bufalari.event;
+
+import lombok.Value;
+
+/**
+ * Published when a client was saved without coordinates and its address must be geocoded
+ * in the background.
+ */
+@Value
+public class ClientGeocodingRequestedEvent {
+    Long clientId;
+    String address;
+}
@@ -0,0 +1,25 @@
+package com.bufalari.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published when another node reports changed clients. Local caches must drop these clients and
+ * re-read them from the database when needed. When {@code all} is set, messages may have been
+ * missed and every cached client must be dropped.
+ */
+@Value
+public class ClientInvalidatedEvent {
+
+    Set<Long> clientIds;
+    boolean all;
+
+    public static ClientInvalidatedEvent of(Set<Long> clientIds) {
+        return new ClientInvalidatedEvent(clientIds, false);
+    }
+
+    public static ClientInvalidatedEvent all() {
+        return new ClientInvalidatedEvent(Set.of(), true);
+    }
+}
@@ -0,0 +1,39 @@
+package com.bufalari.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Recognizes violations of the database constraints on clients.
+ */
+public final class ClientConstraints {
+
+    // Partial unique index on clients (email, sin_number), created in schema-postgresql.sql
+    private static final String EMAIL_SIN_INDEX = "ux_clients_email_sin_active";
+
+    private ClientConstraints() {
+    }
+
+    /**
+     * @param ex The violation to inspect.
+     * @return True if it violates the index allowing one active client per email and SIN number.
+     */
+    public static boolean isDuplicateClient(DataIntegrityViolationException ex) {
+        return EMAIL_SIN_INDEX.equalsIgnoreCase(constraintName(ex));
+    }
+
+    /**
+     * Finds the name of the violated constraint reported by Hibernate, if any.
+     *
+     * @param ex The DataIntegrityViolationException to inspect.
+     * @return The constraint name, or null if it is not known.
+     */
+    private static String constraintName(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+}
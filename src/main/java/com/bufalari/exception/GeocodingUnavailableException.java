@@ -0,0 +1,7 @@
+package com.bufalari.exception;
+
+public class GeocodingUnavailableException extends GeocodingApiException {
+    public GeocodingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,6 +2,7 @@ package com.bufalari.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -42,6 +43,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles DataIntegrityViolationException. A violation of the email and SIN number index is a
+     * duplicate client and is answered like ClientAlreadyExistsException.
+     *
+     * @param ex      The DataIntegrityViolationException that occurred.
+     * @param request The WebRequest object.
+     * @return A ResponseEntity with an ErrorResponse and HTTP status 400 (Bad Request) for a duplicate
+     * client, or 409 (Conflict) for any other constraint violation.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex, WebRequest request) {
+        if (ClientConstraints.isDuplicateClient(ex)) {
+            return handleClientAlreadyExistsException(
+                    new ClientAlreadyExistsException("Client with this email and SIN number already exists."), request);
+        }
+        String traceId = generateTraceId();
+        logger.error("[TRACE-ID: {}] - Data integrity violation: {}", traceId, ex.getMostSpecificCause().getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(LocalDateTime.now());
+        errorResponse.setStatus(HttpStatus.CONFLICT.value());
+        errorResponse.setError("Conflict");
+        errorResponse.setMessage("The request conflicts with existing data."); // Generic message for security
+        errorResponse.setPath(request.getDescription(false));
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles ClientNotFoundException.
      *
@@ -64,6 +93,50 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles ImportJobNotFoundException.
+     *
+     * @param ex      The ImportJobNotFoundException that occurred.
+     * @param request The WebRequest object.
+     * @return A ResponseEntity with an ErrorResponse and HTTP status 404 (Not Found).
+     */
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleImportJobNotFoundException(ImportJobNotFoundException ex, WebRequest request) {
+        String traceId = generateTraceId();
+        logger.error("[TRACE-ID: {}] - Import job not found: {}", traceId, ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(LocalDateTime.now());
+        errorResponse.setStatus(HttpStatus.NOT_FOUND.value());
+        errorResponse.setError("Not Found");
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setPath(request.getDescription(false));
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles ImportJobOnOtherNodeException.
+     *
+     * @param ex      The ImportJobOnOtherNodeException that occurred.
+     * @param request The WebRequest object.
+     * @return A ResponseEntity with an ErrorResponse and HTTP status 409 (Conflict).
+     */
+    @ExceptionHandler(ImportJobOnOtherNodeException.class)
+    public ResponseEntity<ErrorResponse> handleImportJobOnOtherNodeException(ImportJobOnOtherNodeException ex, WebRequest request) {
+        String traceId = generateTraceId();
+        logger.error("[TRACE-ID: {}] - Import job on another node: {}", traceId, ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(LocalDateTime.now());
+        errorResponse.setStatus(HttpStatus.CONFLICT.value());
+        errorResponse.setError("Conflict");
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setPath(request.getDescription(false));
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles InvalidClientDataException.
      *
@@ -86,6 +159,75 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles IdempotencyKeyReusedException.
+     *
+     * @param ex      The IdempotencyKeyReusedException that occurred.
+     * @param request The WebRequest object.
+     * @return A ResponseEntity with an ErrorResponse and HTTP status 422 (Unprocessable Entity).
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex, WebRequest request) {
+        String traceId = generateTraceId();
+        logger.error("[TRACE-ID: {}] - Idempotency key reused: {}", traceId, ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(LocalDateTime.now());
+        errorResponse.setStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+        errorResponse.setError("Unprocessable Entity");
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setPath(request.getDescription(false));
+        errorResponse.setSuggestion("Please use a new Idempotency-Key for a different client.");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles GeocodingUnavailableException.
+     *
+     * @param ex      The GeocodingUnavailableException that occurred.
+     * @param request The WebRequest object.
+     * @return A ResponseEntity with an ErrorResponse and HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(GeocodingUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleGeocodingUnavailableException(GeocodingUnavailableException ex, WebRequest request) {
+        String traceId = generateTraceId();
+        logger.error("[TRACE-ID: {}] - Geocoding API unavailable: {}", traceId, ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(LocalDateTime.now());
+        errorResponse.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setError("Service Unavailable");
+        errorResponse.setMessage("Geographic coordinates are temporarily unavailable.");
+        errorResponse.setPath(request.getDescription(false));
+        errorResponse.setSuggestion("Please try again in a few moments.");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles IndexNotReadyException.
+     *
+     * @param ex      The IndexNotReadyException that occurred.
+     * @param request The WebRequest object.
+     * @return A ResponseEntity with an ErrorResponse and HTTP status 503 (Service Unavailable).
+     */
+    @ExceptionHandler(IndexNotReadyException.class)
+    public ResponseEntity<ErrorResponse> handleIndexNotReadyException(IndexNotReadyException ex, WebRequest request) {
+        String traceId = generateTraceId();
+        logger.warn("[TRACE-ID: {}] - Index not ready: {}", traceId, ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(LocalDateTime.now());
+        errorResponse.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setError("Service Unavailable");
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setPath(request.getDescription(false));
+        errorResponse.setSuggestion("Please try again in a few moments.");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handles GeocodingApiException.
      *
@@ -0,0 +1,7 @@
+package com.bufalari.exception;
+
+public class ImportJobOnOtherNodeException extends RuntimeException {
+    public ImportJobOnOtherNodeException(String message) {
+        super(message);
+    }
+}
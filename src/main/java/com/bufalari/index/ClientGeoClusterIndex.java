@@ -0,0 +1,232 @@
+package com.bufalari.index;
+
+import com.bufalari.config.ClientGeoProperties;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-zoom-level counts and centroids of geocoded active clients, for drawing density on a map.
+ * <p>
+ * Each zoom level divides the Web Mercator plane, the projection used by map tiles, into a square grid
+ * with a fixed number of cells per tile. Every client adds to one cell on each level, so a write
+ * touches one cell per level and a query only reads the cells inside the requested box.
+ */
+@Component
+public class ClientGeoClusterIndex implements ClientIndex {
+
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+
+    private final ClientGeoProperties geoProperties;
+    private final int maxZoom;
+    private final int cellsPerTile;
+    private final int maxCells;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, double[]> locations = new HashMap<>(); // ID -> {latitude, longitude}
+    private List<Map<Long, Cell>> levels = new ArrayList<>(); // Zoom -> packed (x, y) -> cell
+    private volatile boolean ready;
+
+    /**
+     * Constructor for ClientGeoClusterIndex.
+     *
+     * @param geoProperties The configuration for location queries.
+     */
+    @Autowired
+    public ClientGeoClusterIndex(ClientGeoProperties geoProperties) {
+        ClientGeoProperties.Clusters clusters = geoProperties.getClusters();
+        if (Integer.bitCount(clusters.getCellsPerTile()) != 1) {
+            throw new IllegalArgumentException("clients.geo.clusters.cells-per-tile must be a power of two");
+        }
+        this.geoProperties = geoProperties;
+        this.cellsPerTile = clusters.getCellsPerTile();
+        // Cell coordinates are packed into 31 bits each
+        this.maxZoom = Math.min(clusters.getMaxZoom(), 30 - Integer.numberOfTrailingZeros(cellsPerTile));
+        this.maxCells = clusters.getMaxCells();
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    public void put(ClientIndexEntry entry) {
+        if (!entry.hasCoordinates()) {
+            remove(entry.getId());
+            return;
+        }
+        double[] location = {entry.getLatitude(), entry.getLongitude()};
+        lock.writeLock().lock();
+        try {
+            double[] previous = locations.put(entry.getId(), location);
+            if (previous != null) {
+                if (Arrays.equals(previous, location)) {
+                    return;
+                }
+                update(previous, -1);
+            }
+            update(location, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long clientId) {
+        lock.writeLock().lock();
+        try {
+            double[] previous = locations.remove(clientId);
+            if (previous != null) {
+                update(previous, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ClientIndex emptyCopy() {
+        return new ClientGeoClusterIndex(geoProperties);
+    }
+
+    @Override
+    public void replaceWith(ClientIndex rebuilt) {
+        ClientGeoClusterIndex other = (ClientGeoClusterIndex) rebuilt;
+        lock.writeLock().lock();
+        try {
+            locations = other.locations;
+            levels = other.levels;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = other.ready;
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the non-empty cells intersecting a box. A box crossing the antimeridian has
+     * {@code west > east}.
+     *
+     * @param south Southern latitude of the box.
+     * @param west  Western longitude of the box.
+     * @param north Northern latitude of the box.
+     * @param east  Eastern longitude of the box.
+     * @param zoom  The map zoom level; reduced when the box would span too many cells.
+     * @return The clusters, ordered by cell.
+     */
+    public List<Cluster> clusters(double south, double west, double north, double east, int zoom) {
+        int level = Math.max(0, Math.min(zoom, maxZoom));
+        boolean wraps = west > east;
+        long columns, rows;
+        while (true) {
+            long size = gridSize(level);
+            long westX = cellX(west, size), eastX = cellX(east, size);
+            columns = Math.min(size, wraps ? size - westX + eastX + 1 : eastX - westX + 1);
+            rows = cellY(south, size) - cellY(north, size) + 1;
+            if (level == 0 || columns * rows <= maxCells) {
+                break;
+            }
+            level--;
+        }
+
+        long size = gridSize(level);
+        long westX = cellX(west, size), eastX = cellX(east, size);
+        long northY = cellY(north, size), southY = cellY(south, size);
+        List<Cluster> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Cell> cells = levels.get(level);
+            if (columns * rows <= cells.size()) {
+                for (long i = 0; i < columns; i++) {
+                    long x = (westX + i) % size;
+                    for (long y = northY; y <= southY; y++) {
+                        Cell cell = cells.get(key(x, y));
+                        if (cell != null) {
+                            result.add(cell.toCluster(key(x, y)));
+                        }
+                    }
+                }
+            } else {
+                // Fewer occupied cells than cells in the box: scanning the level is cheaper
+                for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                    long x = entry.getKey() >>> 32, y = entry.getKey() & 0xFFFFFFFFL;
+                    boolean inColumns = wraps ? x >= westX || x <= eastX : x >= westX && x <= eastX;
+                    if (inColumns && y >= northY && y <= southY) {
+                        result.add(entry.getValue().toCluster(entry.getKey()));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingLong(Cluster::getCell));
+        return result;
+    }
+
+    private void update(double[] location, int delta) {
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            long size = gridSize(zoom);
+            long key = key(cellX(location[1], size), cellY(location[0], size));
+            Map<Long, Cell> cells = levels.get(zoom);
+            Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+            cell.count += delta;
+            cell.latitudeSum += delta * location[0];
+            cell.longitudeSum += delta * location[1];
+            if (cell.count == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private long gridSize(int zoom) {
+        return (1L << zoom) * cellsPerTile;
+    }
+
+    private static long cellX(double longitude, long size) {
+        long x = (long) Math.floor((longitude + 180) / 360 * size);
+        return Math.max(0, Math.min(size - 1, x));
+    }
+
+    private static long cellY(double latitude, long size) {
+        double radians = Math.toRadians(Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude)));
+        double mercator = Math.log(Math.tan(radians) + 1 / Math.cos(radians));
+        long y = (long) Math.floor((1 - mercator / Math.PI) / 2 * size);
+        return Math.max(0, Math.min(size - 1, y));
+    }
+
+    private static long key(long x, long y) {
+        return (x << 32) | y;
+    }
+
+    /**
+     * A non-empty cell: the number of clients in it and their mean position.
+     */
+    @Value
+    public static class Cluster {
+        long cell;
+        double latitude;
+        double longitude;
+        int count;
+    }
+
+    private static final class Cell {
+
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+
+        Cluster toCluster(long key) {
+            return new Cluster(key, latitudeSum / count, longitudeSum / count, count);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bufalari.index;
+
+/**
+ * An in-memory index over the active clients, kept up to date by {@link ClientIndexMaintainer}.
+ * Implementations must be safe for concurrent reads while an update is applied.
+ */
+public interface ClientIndex {
+
+    /**
+     * Adds a client, or replaces the indexed state of a client already present.
+     *
+     * @param entry The client's indexed fields.
+     */
+    void put(ClientIndexEntry entry);
+
+    /**
+     * Removes a client; does nothing if the client is not indexed.
+     *
+     * @param clientId The ID of the client.
+     */
+    void remove(Long clientId);
+
+    /**
+     * @return A new, empty index configured like this one, into which {@link ClientIndexMaintainer}
+     * rebuilds the index while this one keeps answering queries.
+     */
+    ClientIndex emptyCopy();
+
+    /**
+     * Takes over the contents of a rebuilt index returned by {@link #emptyCopy()}, which must not be
+     * used afterwards. Queries see either the previous contents or the rebuilt ones. Must not run
+     * concurrently with {@link #put} or {@link #remove}.
+     *
+     * @param rebuilt The rebuilt index.
+     */
+    void replaceWith(ClientIndex rebuilt);
+
+    /**
+     * Called once the initial load is complete. Until then, queries must not be answered from the index.
+     */
+    void markReady();
+
+    /**
+     * @return Whether the index holds every active client and can answer queries.
+     */
+    boolean isReady();
+}
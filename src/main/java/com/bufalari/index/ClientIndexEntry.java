@@ -0,0 +1,29 @@
+package com.bufalari.index;
+
+import lombok.Value;
+
+/**
+ * The fields of a client held by the in-memory indexes.
+ */
+@Value
+public class ClientIndexEntry {
+    Long id;
+    String name;
+    Double latitude; // Null while the client has no coordinates
+    Double longitude;
+
+    public ClientIndexEntry(Long id, String name, Double latitude, Double longitude) {
+        this.id = id;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public ClientIndexEntry(Long id, String name) {
+        this(id, name, null, null);
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+}
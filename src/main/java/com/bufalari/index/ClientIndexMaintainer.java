@@ -0,0 +1,220 @@
+package com.bufalari.index;
+
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientInvalidatedEvent;
+import com.bufalari.repository.ClientIndexView;
+import com.bufalari.repository.ClientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Loads the active clients into every {@link ClientIndex} at startup and applies client changes to
+ * them once the transaction making the change has committed, whether on this node or on another one.
+ * Changes committed while the initial load is running are held back and applied after it, so the
+ * load cannot overwrite them with older state.
+ * <p>
+ * When another node reports that its change notifications may have been missed, the indexes are
+ * rebuilt in the background into fresh copies, which are swapped in once loaded. The current indexes
+ * keep answering queries and receiving changes meanwhile; the changes are also held back for the
+ * copies, as during the initial load.
+ */
+@Component
+public class ClientIndexMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientIndexMaintainer.class);
+
+    private final ClientRepository clientRepository;
+    private final List<ClientIndex> indexes;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor rebuildExecutor;
+    private final Object loadLock = new Object(); // Also serializes the changes applied to the indexes
+    private List<ClientChangedEvent> heldBack = new ArrayList<>(); // Null unless a load or rebuild is running
+    private boolean rebuilding;
+    private boolean rebuildRequested; // Another rebuild must start once the running load or rebuild finishes
+
+    /**
+     * Constructor for ClientIndexMaintainer.
+     *
+     * @param clientRepository   The repository for accessing client data.
+     * @param indexes            The indexes to maintain.
+     * @param transactionManager The transaction manager used for loading the indexes.
+     * @param rebuildExecutor    The executor rebuilding the indexes in the background.
+     */
+    @Autowired
+    public ClientIndexMaintainer(ClientRepository clientRepository,
+                                 List<ClientIndex> indexes,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor rebuildExecutor) {
+        this.clientRepository = clientRepository;
+        this.indexes = indexes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * Streams every active client into the indexes, then marks them ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        long start = System.nanoTime();
+        long loaded;
+        try {
+            loaded = load(indexes);
+        } catch (RuntimeException e) {
+            // The indexes stay not ready, so queries keep going to the database
+            logger.error("Failed to load the client indexes. Error: {}", e.getMessage());
+            finishLoad(() -> { });
+            return;
+        }
+
+        finishLoad(() -> {
+            heldBack.forEach(event -> apply(indexes, event));
+            indexes.forEach(ClientIndex::markReady);
+        });
+        logger.info("Loaded {} clients into {} indexes in {} ms.", loaded, indexes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a client change to the indexes. Runs after commit, or immediately when the change was
+     * made outside a transaction.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        synchronized (loadLock) {
+            if (heldBack != null) {
+                heldBack.add(event);
+                if (!rebuilding) {
+                    return; // The initial load would overwrite the change with older state
+                }
+            }
+            apply(indexes, event);
+        }
+    }
+
+    /**
+     * Re-reads the clients another node reports as changed and applies their current state, or
+     * rebuilds the indexes when any client may have changed.
+     *
+     * @param event The clients changed on another node.
+     */
+    @EventListener
+    public void onClientsInvalidated(ClientInvalidatedEvent event) {
+        if (event.isAll()) {
+            logger.warn("Client change notifications may have been missed; rebuilding the in-memory indexes.");
+            requestRebuild();
+            return;
+        }
+        Map<Long, ClientIndexView> current = new HashMap<>();
+        clientRepository.findIndexViewsByIdIn(event.getClientIds()).forEach(client -> current.put(client.getId(), client));
+        for (Long id : event.getClientIds()) {
+            ClientIndexView client = current.get(id);
+            onClientChanged(client != null
+                    ? new ClientChangedEvent(id, ClientChangedEvent.ChangeType.UPDATED, client.getName(), true, client.getLatitude(), client.getLongitude())
+                    : new ClientChangedEvent(id, ClientChangedEvent.ChangeType.DELETED, null, false, null, null));
+        }
+    }
+
+    private void requestRebuild() {
+        synchronized (loadLock) {
+            if (heldBack != null) {
+                // The running load may have read the clients before the missed changes
+                rebuildRequested = true;
+                return;
+            }
+            heldBack = new ArrayList<>();
+            rebuilding = true;
+        }
+        try {
+            rebuildExecutor.execute(this::rebuildIndexes);
+        } catch (RejectedExecutionException e) {
+            logger.error("Failed to start rebuilding the client indexes. Error: {}", e.getMessage());
+            finishLoad(() -> { });
+        }
+    }
+
+    private void rebuildIndexes() {
+        long start = System.nanoTime();
+        List<ClientIndex> rebuilt = indexes.stream().map(ClientIndex::emptyCopy).toList();
+        long loaded;
+        try {
+            loaded = load(rebuilt);
+        } catch (RuntimeException e) {
+            // The current indexes keep serving; a later notification of missed changes retries
+            logger.error("Failed to rebuild the client indexes. Error: {}", e.getMessage());
+            finishLoad(() -> { });
+            return;
+        }
+        // Outside the lock, so the k-d tree is built without holding up changes
+        rebuilt.forEach(ClientIndex::markReady);
+
+        finishLoad(() -> {
+            heldBack.forEach(event -> apply(rebuilt, event));
+            for (int i = 0; i < indexes.size(); i++) {
+                indexes.get(i).replaceWith(rebuilt.get(i));
+            }
+        });
+        logger.info("Rebuilt {} indexes from {} clients in {} ms.", indexes.size(), loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long load(List<ClientIndex> targets) {
+        Long loaded = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<ClientIndexView> clients = clientRepository.streamIndexViews()) {
+                for (ClientIndexView client : (Iterable<ClientIndexView>) clients::iterator) {
+                    ClientIndexEntry entry = new ClientIndexEntry(client.getId(), client.getName(), client.getLatitude(), client.getLongitude());
+                    targets.forEach(index -> index.put(entry));
+                    count++;
+                }
+            }
+            return count;
+        });
+        return loaded == null ? 0 : loaded;
+    }
+
+    /**
+     * Runs the last step of a load or rebuild while changes are held back, then stops holding them
+     * back and starts the rebuild requested meanwhile, if any.
+     */
+    private void finishLoad(Runnable lastStep) {
+        boolean rebuildAgain;
+        synchronized (loadLock) {
+            lastStep.run();
+            heldBack = null;
+            rebuilding = false;
+            rebuildAgain = rebuildRequested;
+            rebuildRequested = false;
+        }
+        if (rebuildAgain) {
+            requestRebuild();
+        }
+    }
+
+    private static void apply(List<ClientIndex> targets, ClientChangedEvent event) {
+        if (event.isActive()) {
+            ClientIndexEntry entry = new ClientIndexEntry(event.getClientId(), event.getName(), event.getLatitude(), event.getLongitude());
+            targets.forEach(index -> index.put(entry));
+        } else {
+            targets.forEach(index -> index.remove(event.getClientId()));
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.bufalari.index;
+
+import com.bufalari.util.GeoHash;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nearest-neighbour index over the coordinates of active, geocoded clients.
+ * <p>
+ * Points are stored as unit vectors on the sphere, so the straight-line (chord) distance between two
+ * points orders them exactly as the great-circle distance does and no special case is needed at the
+ * antimeridian or the poles. The tree is implicit: the points of a range are arranged so that its
+ * middle element splits the rest along one axis, the lower half before it and the upper half after
+ * it, with the axis cycling by depth. Coordinates live in primitive arrays, one per axis.
+ * <p>
+ * The balanced tree is rebuilt rather than rebalanced. Changes since the last build are kept aside:
+ * added or moved clients in a small map scanned by every query, removed or moved clients in a set the
+ * tree search skips. Once those exceed a fraction of the tree, the tree is rebuilt from the live
+ * points, which keeps the cost of each change amortized to O(log n).
+ */
+@Component
+public class ClientLocationKdTree implements ClientIndex {
+
+    private static final int REBUILD_MIN_CHANGES = 256;
+
+    private static final int REBUILD_FRACTION = 16; // Rebuild once changes exceed 1/16 of the tree
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, double[]> added = new HashMap<>(); // ID -> {latitude, longitude}, not in the tree
+    private Set<Long> removed = new HashSet<>(); // IDs in the tree that must be skipped
+    private Map<Long, Integer> positions = new HashMap<>(); // ID -> position in the tree
+    private long[] ids = new long[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private double[][] axes = {new double[0], new double[0], new double[0]}; // x, y, z on the unit sphere
+    private volatile boolean ready;
+
+    @Override
+    public void put(ClientIndexEntry entry) {
+        if (!entry.hasCoordinates()) {
+            remove(entry.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            added.remove(entry.getId());
+            Integer position = positions.get(entry.getId());
+            if (position != null && latitudes[position] == entry.getLatitude() && longitudes[position] == entry.getLongitude()) {
+                removed.remove(entry.getId());
+                return;
+            }
+            if (position != null) {
+                removed.add(entry.getId());
+            }
+            added.put(entry.getId(), new double[]{entry.getLatitude(), entry.getLongitude()});
+            rebuildIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long clientId) {
+        lock.writeLock().lock();
+        try {
+            added.remove(clientId);
+            if (positions.containsKey(clientId)) {
+                removed.add(clientId);
+                rebuildIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ClientIndex emptyCopy() {
+        return new ClientLocationKdTree();
+    }
+
+    @Override
+    public void replaceWith(ClientIndex rebuilt) {
+        ClientLocationKdTree other = (ClientLocationKdTree) rebuilt;
+        lock.writeLock().lock();
+        try {
+            added = other.added;
+            removed = other.removed;
+            positions = other.positions;
+            ids = other.ids;
+            latitudes = other.latitudes;
+            longitudes = other.longitudes;
+            axes = other.axes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = other.ready;
+    }
+
+    @Override
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return The number of indexed clients.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.length - removed.size() + added.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the clients closest to a point.
+     *
+     * @param latitude  Latitude of the point in degrees.
+     * @param longitude Longitude of the point in degrees.
+     * @param k         The number of clients to return.
+     * @return Up to {@code k} entries of client ID and great-circle distance in kilometres, nearest first.
+     */
+    public List<Map.Entry<Long, Double>> nearest(double latitude, double longitude, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        double[] target = toUnitVector(latitude, longitude);
+        Neighbours best = new Neighbours(k);
+
+        lock.readLock().lock();
+        try {
+            search(0, ids.length, 0, target, best);
+            for (Map.Entry<Long, double[]> entry : added.entrySet()) {
+                double[] point = toUnitVector(entry.getValue()[0], entry.getValue()[1]);
+                best.offer(entry.getKey(), entry.getValue()[0], entry.getValue()[1], squaredDistance(point, target));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return best.sorted(latitude, longitude);
+    }
+
+    private void search(int from, int to, int depth, double[] target, Neighbours best) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        int axis = depth % 3;
+        if (!removed.contains(ids[middle])) {
+            double distance = 0;
+            for (int a = 0; a < 3; a++) {
+                double delta = axes[a][middle] - target[a];
+                distance += delta * delta;
+            }
+            best.offer(ids[middle], latitudes[middle], longitudes[middle], distance);
+        }
+
+        double offset = target[axis] - axes[axis][middle];
+        boolean lowerFirst = offset < 0;
+        search(lowerFirst ? from : middle + 1, lowerFirst ? middle : to, depth + 1, target, best);
+        // The far side can only hold a closer point if the splitting plane is within the current worst distance
+        if (!best.isFull() || offset * offset < best.worstDistance()) {
+            search(lowerFirst ? middle + 1 : from, lowerFirst ? to : middle, depth + 1, target, best);
+        }
+    }
+
+    private void rebuildIfNeeded() {
+        // Before the initial load completes nothing is queried, so the single build in markReady suffices
+        if (ready && added.size() + removed.size() > REBUILD_MIN_CHANGES + ids.length / REBUILD_FRACTION) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        int size = ids.length - removed.size() + added.size();
+        long[] newIds = new long[size];
+        double[] newLatitudes = new double[size];
+        double[] newLongitudes = new double[size];
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (!removed.contains(ids[i])) {
+                newIds[n] = ids[i];
+                newLatitudes[n] = latitudes[i];
+                newLongitudes[n] = longitudes[i];
+                n++;
+            }
+        }
+        for (Map.Entry<Long, double[]> entry : added.entrySet()) {
+            newIds[n] = entry.getKey();
+            newLatitudes[n] = entry.getValue()[0];
+            newLongitudes[n] = entry.getValue()[1];
+            n++;
+        }
+
+        ids = newIds;
+        latitudes = newLatitudes;
+        longitudes = newLongitudes;
+        axes = new double[][]{new double[size], new double[size], new double[size]};
+        for (int i = 0; i < size; i++) {
+            setPoint(i, toUnitVector(latitudes[i], longitudes[i]));
+        }
+        build(0, size, 0);
+
+        positions = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            positions.put(ids[i], i);
+        }
+        added.clear();
+        removed.clear();
+    }
+
+    private void build(int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, depth % 3);
+        build(from, middle, depth + 1);
+        build(middle + 1, to, depth + 1);
+    }
+
+    /**
+     * Quickselect: moves the k-th smallest point along the axis to position k, with smaller points before it
+     * and larger points after it.
+     */
+    private void select(int left, int right, int k, int axis) {
+        double[] values = axes[axis];
+        while (left < right) {
+            int pivotIndex = (left + right) >>> 1;
+            double pivot = values[pivotIndex];
+            swap(pivotIndex, right);
+            int store = left;
+            for (int i = left; i < right; i++) {
+                if (values[i] < pivot) {
+                    swap(i, store++);
+                }
+            }
+            swap(store, right);
+            if (store == k) {
+                return;
+            } else if (store < k) {
+                left = store + 1;
+            } else {
+                right = store - 1;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        if (i == j) {
+            return;
+        }
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double latitude = latitudes[i];
+        latitudes[i] = latitudes[j];
+        latitudes[j] = latitude;
+        double longitude = longitudes[i];
+        longitudes[i] = longitudes[j];
+        longitudes[j] = longitude;
+        for (double[] axis : axes) {
+            double value = axis[i];
+            axis[i] = axis[j];
+            axis[j] = value;
+        }
+    }
+
+    private void setPoint(int position, double[] point) {
+        for (int a = 0; a < 3; a++) {
+            axes[a][position] = point[a];
+        }
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        return new double[]{Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi)};
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double distance = 0;
+        for (int i = 0; i < 3; i++) {
+            double delta = a[i] - b[i];
+            distance += delta * delta;
+        }
+        return distance;
+    }
+
+    /**
+     * Bounded max-heap of the closest points seen so far, ordered by squared chord distance.
+     */
+    private static final class Neighbours {
+
+        private final int capacity;
+        private final long[] ids;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double[] distances;
+        private int size;
+
+        Neighbours(int capacity) {
+            this.capacity = capacity;
+            this.ids = new long[capacity];
+            this.latitudes = new double[capacity];
+            this.longitudes = new double[capacity];
+            this.distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        double worstDistance() {
+            return distances[0];
+        }
+
+        void offer(long id, double latitude, double longitude, double distance) {
+            if (size < capacity) {
+                set(size, id, latitude, longitude, distance);
+                siftUp(size++);
+            } else if (distance < distances[0]) {
+                set(0, id, latitude, longitude, distance);
+                siftDown(0);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> sorted(double latitude, double longitude) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> distances[i]).thenComparingLong(i -> ids[i]));
+            List<Map.Entry<Long, Double>> result = new ArrayList<>(size);
+            for (int i : order) {
+                result.add(Map.entry(ids[i], GeoHash.haversineKm(latitude, longitude, latitudes[i], longitudes[i])));
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                exchange(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && distances[left] > distances[largest]) {
+                    largest = left;
+                }
+                if (right < size && distances[right] > distances[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                exchange(i, largest);
+                i = largest;
+            }
+        }
+
+        private void set(int i, long id, double latitude, double longitude, double distance) {
+            ids[i] = id;
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+            distances[i] = distance;
+        }
+
+        private void exchange(int i, int j) {
+            long id = ids[i];
+            double latitude = latitudes[i];
+            double longitude = longitudes[i];
+            double distance = distances[i];
+            set(i, ids[j], latitudes[j], longitudes[j], distances[j]);
+            set(j, id, latitude, longitude, distance);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bufalari.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix index over the names of active clients, for autocomplete.
+ * <p>
+ * Names are kept lower-cased in a skip list ordered by (name, ID), so the matches of a prefix are a
+ * contiguous range that starts at the prefix itself; the first {@code k} entries of that range are
+ * the answer. Reads never block and do not block writers.
+ */
+@Component
+public class ClientNamePrefixIndex implements ClientIndex {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing((Key key) -> key.normalizedName).thenComparingLong(key -> key.id);
+
+    private volatile ConcurrentSkipListMap<Key, String> entries = new ConcurrentSkipListMap<>(KEY_ORDER); // Key -> name as stored
+    private volatile Map<Long, Key> keys = new ConcurrentHashMap<>(); // ID -> current key, to find the entry on update
+    private volatile boolean ready;
+
+    @Override
+    public void put(ClientIndexEntry entry) {
+        Key key = new Key(normalize(entry.getName()), entry.getId());
+        // Per-ID atomic, so concurrent changes to the same client cannot leave two entries behind
+        keys.compute(entry.getId(), (id, previous) -> {
+            if (previous != null && !previous.normalizedName.equals(key.normalizedName)) {
+                entries.remove(previous);
+            }
+            entries.put(key, entry.getName());
+            return key;
+        });
+    }
+
+    @Override
+    public void remove(Long clientId) {
+        keys.computeIfPresent(clientId, (id, previous) -> {
+            entries.remove(previous);
+            return null;
+        });
+    }
+
+    @Override
+    public ClientIndex emptyCopy() {
+        return new ClientNamePrefixIndex();
+    }
+
+    @Override
+    public void replaceWith(ClientIndex rebuilt) {
+        ClientNamePrefixIndex other = (ClientNamePrefixIndex) rebuilt;
+        keys = other.keys;
+        entries = other.entries;
+        ready = other.ready;
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the clients whose name starts with the prefix, ignoring case.
+     *
+     * @param prefix The prefix to complete.
+     * @param limit  The maximum number of matches to return.
+     * @return Up to {@code limit} ID/name pairs, ordered by name and then ID.
+     */
+    public List<Map.Entry<Long, String>> complete(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        ConcurrentNavigableMap<Key, String> range = entries.tailMap(new Key(normalizedPrefix, Long.MIN_VALUE), true);
+        List<Map.Entry<Long, String>> matches = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<Key, String> entry : range.entrySet()) {
+            if (matches.size() >= limit || !entry.getKey().normalizedName.startsWith(normalizedPrefix)) {
+                break;
+            }
+            matches.add(Map.entry(entry.getKey().id, entry.getValue()));
+        }
+        return matches;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Key {
+
+        private final String normalizedName;
+        private final long id;
+
+        private Key(String normalizedName, long id) {
+            this.normalizedName = normalizedName;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.bufalari.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive substring index over the names of active clients.
+ * <p>
+ * Every lower-cased name is split into its overlapping three-character sequences (trigrams), and each
+ * trigram keeps a sorted posting list of the IDs of the names containing it. A query is answered by
+ * intersecting the posting lists of its own trigrams, starting from the shortest, and checking the
+ * remaining candidates against the name, since sharing all trigrams does not guarantee the
+ * trigrams are adjacent. Queries shorter than three characters have no trigram and are answered by a
+ * scan of the indexed names.
+ * <p>
+ * Readers share a read lock and writers take the write lock; updates are rare compared with searches.
+ */
+@Component
+public class ClientNameTrigramIndex implements ClientIndex {
+
+    private static final int GRAM = 3;
+
+    private static final Comparator<Map.Entry<Long, String>> BY_NAME_THEN_ID =
+            Map.Entry.<Long, String>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, String> names = new HashMap<>(); // ID -> name as stored
+    private Map<Long, PostingList> postings = new HashMap<>(); // Packed trigram -> IDs
+    private volatile boolean ready;
+
+    @Override
+    public void put(ClientIndexEntry entry) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(entry.getId(), entry.getName());
+            if (previous != null) {
+                if (previous.equals(entry.getName())) {
+                    return;
+                }
+                removePostings(entry.getId(), previous);
+            }
+            for (long trigram : trigrams(normalize(entry.getName()))) {
+                postings.computeIfAbsent(trigram, key -> new PostingList()).add(entry.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long clientId) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(clientId);
+            if (previous != null) {
+                removePostings(clientId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ClientIndex emptyCopy() {
+        return new ClientNameTrigramIndex();
+    }
+
+    @Override
+    public void replaceWith(ClientIndex rebuilt) {
+        ClientNameTrigramIndex other = (ClientNameTrigramIndex) rebuilt;
+        lock.writeLock().lock();
+        try {
+            names = other.names;
+            postings = other.postings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = other.ready;
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return The number of indexed clients.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the clients whose name contains the query, ignoring case.
+     *
+     * @param query The text to search for.
+     * @param limit The maximum number of IDs to return.
+     * @return The IDs of the first {@code limit} matches, ordered by name and then ID.
+     */
+    public List<Long> search(String query, int limit) {
+        String needle = normalize(query);
+        // Bounded max-heap on (name, id): keeps the first `limit` matches without sorting them all
+        PriorityQueue<Map.Entry<Long, String>> best = new PriorityQueue<>(BY_NAME_THEN_ID.reversed());
+
+        lock.readLock().lock();
+        try {
+            long[] queryTrigrams = trigrams(needle);
+            if (queryTrigrams.length == 0) {
+                for (Map.Entry<Long, String> entry : names.entrySet()) {
+                    offer(best, entry, needle, limit);
+                }
+            } else {
+                PostingList[] lists = new PostingList[queryTrigrams.length];
+                for (int i = 0; i < queryTrigrams.length; i++) {
+                    lists[i] = postings.get(queryTrigrams[i]);
+                    if (lists[i] == null) {
+                        return List.of();
+                    }
+                }
+                Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+                PostingList smallest = lists[0];
+                for (int i = 0; i < smallest.size; i++) {
+                    long id = smallest.ids[i];
+                    boolean inAll = true;
+                    for (int j = 1; j < lists.length && inAll; j++) {
+                        inAll = lists[j].contains(id);
+                    }
+                    if (inAll) {
+                        offer(best, Map.entry(id, names.get(id)), needle, limit);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, String>> matches = new ArrayList<>(best);
+        matches.sort(BY_NAME_THEN_ID);
+        List<Long> ids = new ArrayList<>(matches.size());
+        matches.forEach(match -> ids.add(match.getKey()));
+        return ids;
+    }
+
+    private static void offer(PriorityQueue<Map.Entry<Long, String>> best, Map.Entry<Long, String> entry, String needle, int limit) {
+        if (!containsNormalized(entry.getValue(), needle)) {
+            return;
+        }
+        if (best.size() < limit) {
+            best.add(entry);
+        } else if (limit > 0 && BY_NAME_THEN_ID.compare(entry, best.peek()) < 0) {
+            best.poll();
+            best.add(entry);
+        }
+    }
+
+    private void removePostings(Long id, String name) {
+        for (long trigram : trigrams(normalize(name))) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Lower-cases char by char, so positions in the result match positions in the name.
+     */
+    private static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Equivalent to {@code normalize(name).contains(needle)} without allocating.
+     */
+    private static boolean containsNormalized(String name, String needle) {
+        if (name == null) {
+            return false;
+        }
+        int last = name.length() - needle.length();
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < needle.length(); j++) {
+                if (Character.toLowerCase(name.charAt(i + j)) != needle.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Distinct trigrams of a normalized string, each packed into a long (three 16-bit chars).
+     */
+    private static long[] trigrams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Sorted, growable array of client IDs. IDs come from a sequence, so adds are nearly always appends.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
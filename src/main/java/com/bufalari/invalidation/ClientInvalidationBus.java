@@ -0,0 +1,120 @@
+package com.bufalari.invalidation;
+
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientInvalidatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells the other nodes which clients changed, so they can drop their cached copies.
+ * <p>
+ * IDs of committed changes are collected and sent every flush interval as one message
+ * "{node}:{id},{id},...", so a burst of writes to the same or different clients costs a handful of
+ * messages. Received messages from other nodes are republished locally as
+ * {@link ClientInvalidatedEvent}; this node's own messages are ignored, since its caches were
+ * updated by the {@link ClientChangedEvent} itself.
+ */
+@Component
+public class ClientInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientInvalidationBus.class);
+
+    private static final int MAX_PAYLOAD_LENGTH = 7900; // Postgres limits a notification to 8000 bytes
+
+    private final InvalidationTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for ClientInvalidationBus.
+     *
+     * @param transport      The channel shared by all nodes.
+     * @param eventPublisher The publisher for the invalidations received.
+     */
+    @Autowired
+    public ClientInvalidationBus(InvalidationTransport transport, ApplicationEventPublisher eventPublisher) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        transport.subscribe(this::receive, () -> {
+            logger.warn("Client change notifications may have been missed; dropping every cached client.");
+            eventPublisher.publishEvent(ClientInvalidatedEvent.all());
+        });
+    }
+
+    /**
+     * Queues a changed client once the transaction changing it has committed.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        pending.add(event.getClientId());
+    }
+
+    /**
+     * Sends the IDs queued since the last flush.
+     */
+    @Scheduled(fixedDelayString = "#{@clientInvalidationProperties.flushInterval.toMillis()}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Iterator<Long> iterator = pending.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+
+        StringBuilder payload = new StringBuilder();
+        Set<Long> inPayload = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (payload.length() > MAX_PAYLOAD_LENGTH) {
+                send(payload, inPayload);
+            }
+            payload.append(payload.isEmpty() ? nodeId + ":" : ",").append(id);
+            inPayload.add(id);
+        }
+        send(payload, inPayload);
+    }
+
+    private void send(StringBuilder payload, Set<Long> ids) {
+        try {
+            transport.send(payload.toString());
+        } catch (RuntimeException e) {
+            // Retried with the next flush
+            logger.error("Failed to send {} client change notifications. Error: {}", ids.size(), e.getMessage());
+            pending.addAll(ids);
+        }
+        payload.setLength(0);
+        ids.clear();
+    }
+
+    private void receive(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.startsWith(nodeId + ":")) {
+            return;
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String id : payload.substring(separator + 1).split(",")) {
+            try {
+                ids.add(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed client change notification: {}", payload);
+                return;
+            }
+        }
+        eventPublisher.publishEvent(ClientInvalidatedEvent.of(ids));
+    }
+}
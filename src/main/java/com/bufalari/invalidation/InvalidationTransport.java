@@ -0,0 +1,25 @@
+package com.bufalari.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Delivers short text messages to every node of the application, including the sender.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Sends a message to every subscribed node.
+     *
+     * @param payload The message; at most 8000 bytes.
+     */
+    void send(String payload);
+
+    /**
+     * Registers the receiver of this node's messages.
+     *
+     * @param onMessage   Called with each message received.
+     * @param onReconnect Called after the transport lost its connection and reconnected, when
+     *                    messages may have been missed.
+     */
+    void subscribe(Consumer<String> onMessage, Runnable onReconnect);
+}
@@ -0,0 +1,29 @@
+package com.bufalari.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages to the subscribers in this JVM only. Stands in for the database channel in tests
+ * and single-node runs; several buses sharing one instance behave like separate nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "clients.invalidation.transport", havingValue = "local")
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(String payload) {
+        subscribers.forEach(subscriber -> subscriber.accept(payload));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onReconnect) {
+        subscribers.add(onMessage);
+    }
+}
@@ -0,0 +1,140 @@
+package com.bufalari.invalidation;
+
+import com.bufalari.config.ClientInvalidationProperties;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Delivers messages through Postgres LISTEN/NOTIFY on the application database.
+ * <p>
+ * Notifications are sent on pooled connections and delivered when the sending transaction commits.
+ * Listening uses a connection of its own, opened outside the pool and polled by a dedicated thread:
+ * it is held for the lifetime of the application, and a pooled connection would go back to the pool
+ * still subscribed to the channel. Postgres does not queue notifications for a dropped listener, so
+ * after a reconnect the subscriber is told that messages may have been missed.
+ */
+@Component
+@ConditionalOnProperty(name = "clients.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final long reconnectDelayMillis;
+    private volatile boolean running = true;
+    private Thread listener;
+
+    /**
+     * Constructor for PostgresInvalidationTransport.
+     *
+     * @param dataSource             The application data source, used to send notifications.
+     * @param dataSourceProperties   The connection settings of the application data source, used to
+     *                               open the listening connection.
+     * @param invalidationProperties The invalidation channel configuration.
+     */
+    @Autowired
+    public PostgresInvalidationTransport(DataSource dataSource,
+                                         DataSourceProperties dataSourceProperties,
+                                         ClientInvalidationProperties invalidationProperties) {
+        if (!IDENTIFIER.matcher(invalidationProperties.getChannel()).matches()) {
+            throw new IllegalArgumentException("clients.invalidation.channel must be a lower-case SQL identifier");
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.channel = invalidationProperties.getChannel();
+        this.reconnectDelayMillis = invalidationProperties.getReconnectDelay().toMillis();
+    }
+
+    @Override
+    public void send(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, payload);
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String> onMessage, Runnable onReconnect) {
+        if (listener != null) {
+            throw new IllegalStateException("Only one subscriber is supported");
+        }
+        listener = new Thread(() -> listen(onMessage, onReconnect), "client-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen(Consumer<String> onMessage, Runnable onReconnect) {
+        boolean connectedBefore = false;
+        while (running) {
+            // Not from the pool; closing it ends the session and with it the subscription
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("Listening for client changes on channel {}.", channel);
+                if (connectedBefore) {
+                    onReconnect.run();
+                }
+                connectedBefore = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(onMessage, notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.error("Client change listener failed, reconnecting in {} ms. Error: {}", reconnectDelayMillis, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void deliver(Consumer<String> onMessage, String payload) {
+        try {
+            onMessage.accept(payload);
+        } catch (RuntimeException e) {
+            // A failing subscriber must not tear down the connection
+            logger.error("Failed to apply client change notification. Error: {}", e.getMessage());
+        }
+    }
+}
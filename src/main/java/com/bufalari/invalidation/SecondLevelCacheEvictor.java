@@ -0,0 +1,65 @@
+package com.bufalari.invalidation;
+
+import com.bufalari.entity.AlternativeContactEntity;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.event.ClientInvalidatedEvent;
+import com.bufalari.repository.AlternativeContactRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the clients another node reports as changed from the Hibernate second-level cache (profile
+ * l2cache). Hibernate only keeps the cache current for changes made on this node; without this, the
+ * entity, its contacts collection and its contacts would be served stale until their TTL expires.
+ * Runs before the other listeners, so the caches they drop are reloaded from current state.
+ */
+@Component
+@Profile("l2cache")
+public class SecondLevelCacheEvictor {
+
+    private static final String CONTACTS_ROLE = ClientEntity.class.getName() + ".alternativeContacts";
+
+    private final Cache cache;
+    private final AlternativeContactRepository alternativeContactRepository;
+
+    /**
+     * Constructor for SecondLevelCacheEvictor.
+     *
+     * @param entityManagerFactory         The entity manager factory owning the second-level cache.
+     * @param alternativeContactRepository The repository for finding the contacts of changed clients.
+     */
+    @Autowired
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory,
+                                   AlternativeContactRepository alternativeContactRepository) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.alternativeContactRepository = alternativeContactRepository;
+    }
+
+    /**
+     * Evicts the changed clients, or every region when any client may have changed.
+     *
+     * @param event The clients changed on another node.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onClientsInvalidated(ClientInvalidatedEvent event) {
+        if (event.isAll()) {
+            cache.evictAllRegions();
+            return;
+        }
+        // Contacts edited on the other node keep their IDs, so the reloaded collection would still point at stale entries
+        alternativeContactRepository.findIdsByClientIdIn(event.getClientIds())
+                .forEach(contactId -> cache.evictEntityData(AlternativeContactEntity.class, contactId));
+        for (Long id : event.getClientIds()) {
+            cache.evictEntityData(ClientEntity.class, id);
+            cache.evictCollectionData(CONTACTS_ROLE, id);
+        }
+    }
+}
@@ -2,8 +2,22 @@ package com.bufalari.repository;
 
 import com.bufalari.entity.AlternativeContactEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AlternativeContactRepository extends JpaRepository<AlternativeContactEntity, Long> {
-}
\ No newline at end of file
+
+    // Contacts of the clients returned with ?fields=alternativeContacts; the client rows are not loaded
+    @Query("SELECT a.client.id AS clientId, a.id AS id, a.name AS name, a.DDI AS ddI, a.phoneNumber AS phoneNumber, " +
+            "a.email AS email, a.notes AS notes FROM AlternativeContactEntity a WHERE a.client.id IN :clientIds ORDER BY a.id")
+    List<AlternativeContactView> findViewsByClientIdIn(@Param("clientIds") Collection<Long> clientIds);
+
+    // Contacts to evict from the second-level cache when another node changed their clients
+    @Query("SELECT a.id FROM AlternativeContactEntity a WHERE a.client.id IN :clientIds")
+    List<Long> findIdsByClientIdIn(@Param("clientIds") Collection<Long> clientIds);
+}
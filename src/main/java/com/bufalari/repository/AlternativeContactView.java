@@ -0,0 +1,21 @@
+package com.bufalari.repository;
+
+/**
+ * Projection of an alternative contact with the ID of its client, read without loading the client.
+ */
+public interface AlternativeContactView {
+
+    Long getClientId();
+
+    Long getId();
+
+    String getName();
+
+    String getDdI();
+
+    String getPhoneNumber();
+
+    String getEmail();
+
+    String getNotes();
+}
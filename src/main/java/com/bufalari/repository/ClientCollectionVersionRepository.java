@@ -0,0 +1,27 @@
+package com.bufalari.repository;
+
+import com.bufalari.entity.ClientCollectionVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repository for the version of the client listings, a counter in a single row of the
+ * client_collection_version table.
+ */
+@Repository
+public interface ClientCollectionVersionRepository extends JpaRepository<ClientCollectionVersionEntity, Long> {
+
+    @Query("SELECT v.version FROM ClientCollectionVersionEntity v WHERE v.id = 1")
+    Optional<Long> findVersion();
+
+    // Joins the transaction that changed the clients, so the new version commits together with the change
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClientCollectionVersionEntity v SET v.version = v.version + 1 WHERE v.id = 1")
+    int increment();
+}
@@ -0,0 +1,33 @@
+package com.bufalari.repository;
+
+import com.bufalari.dto.ClientField;
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queries selecting only the columns behind a set of requested client fields.
+ * <p>
+ * Each tuple holds the requested columns under their ClientField names, and always id, name and
+ * updatedAt (for ordering, cursors and ETags). mapLink is read as latitude and longitude; the
+ * alternative contacts are never part of the tuple and are loaded separately when requested.
+ */
+public interface ClientFieldsRepository {
+
+    /**
+     * @param ids    The IDs of the clients.
+     * @param fields The requested fields.
+     * @return The active clients among the IDs, ordered by name and ID.
+     */
+    List<Tuple> findFieldsByIdIn(Collection<Long> ids, Set<ClientField> fields);
+
+    /**
+     * @param name   The text the names must contain (case-insensitive).
+     * @param fields The requested fields.
+     * @param limit  The maximum number of clients to return.
+     * @return The first matching active clients, ordered by name and ID.
+     */
+    List<Tuple> findFieldsByNameContaining(String name, Set<ClientField> fields, int limit);
+}
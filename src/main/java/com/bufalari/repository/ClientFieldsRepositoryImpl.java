@@ -0,0 +1,82 @@
+package com.bufalari.repository;
+
+import com.bufalari.dto.ClientField;
+import com.bufalari.entity.ClientEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Criteria implementation of {@link ClientFieldsRepository}, combined with ClientRepository by Spring Data.
+ * The select list is built per request, which a fixed interface projection cannot express.
+ */
+public class ClientFieldsRepositoryImpl implements ClientFieldsRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findFieldsByIdIn(Collection<Long> ids, Set<ClientField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ClientEntity> client = query.from(ClientEntity.class);
+        return select(cb, query, client, fields, client.get("id").in(ids)).getResultList();
+    }
+
+    @Override
+    public List<Tuple> findFieldsByNameContaining(String name, Set<ClientField> fields, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ClientEntity> client = query.from(ClientEntity.class);
+        Predicate nameMatches = cb.like(cb.lower(client.get("name")),
+                "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE);
+        return select(cb, query, client, fields, nameMatches).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<Tuple> select(CriteriaBuilder cb, CriteriaQuery<Tuple> query,
+                                     Root<ClientEntity> client, Set<ClientField> fields,
+                                     Predicate restriction) {
+        query.multiselect(selections(client, fields))
+                .where(restriction, cb.isFalse(client.get("deleted")))
+                .orderBy(cb.asc(client.get("name")), cb.asc(client.get("id")));
+        return entityManager.createQuery(query);
+    }
+
+    private static List<Selection<?>> selections(Root<ClientEntity> client, Set<ClientField> fields) {
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(client.get("id").alias("id"));
+        selections.add(client.get("name").alias("name"));
+        selections.add(client.get("updatedAt").alias("updatedAt"));
+        for (ClientField field : fields) {
+            switch (field) {
+                case ID, NAME, ALTERNATIVE_CONTACTS -> {
+                    // Already selected, or loaded by a separate query
+                }
+                case MAP_LINK -> {
+                    selections.add(client.get("geoCoordinates").get("latitude").alias("latitude"));
+                    selections.add(client.get("geoCoordinates").get("longitude").alias("longitude"));
+                }
+                default -> selections.add(client.get(field.getName()).alias(field.getName()));
+            }
+        }
+        return selections;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,15 @@
+package com.bufalari.repository;
+
+/**
+ * Projection of the client columns loaded into the in-memory client indexes.
+ */
+public interface ClientIndexView {
+
+    Long getId();
+
+    String getName();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
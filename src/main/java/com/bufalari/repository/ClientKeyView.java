@@ -0,0 +1,11 @@
+package com.bufalari.repository;
+
+/**
+ * Projection of the columns that identify a client, used for bulk duplicate checks.
+ */
+public interface ClientKeyView {
+
+    String getEmail();
+
+    String getSinNumber();
+}
@@ -0,0 +1,19 @@
+package com.bufalari.repository;
+
+/**
+ * Projection of the client columns needed to answer location queries.
+ */
+public interface ClientLocationView {
+
+    Long getId();
+
+    String getName();
+
+    String getAddress();
+
+    String getCity();
+
+    Double getLatitude();
+
+    Double getLongitude();
+}
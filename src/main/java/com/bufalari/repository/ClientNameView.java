@@ -0,0 +1,11 @@
+package com.bufalari.repository;
+
+/**
+ * Projection of the client columns returned as name suggestions.
+ */
+public interface ClientNameView {
+
+    Long getId();
+
+    String getName();
+}
@@ -1,20 +1,127 @@
 package com.bufalari.repository;
 
 import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeocodeStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ClientRepository extends JpaRepository<ClientEntity, Long> {
+public interface ClientRepository extends JpaRepository<ClientEntity, Long>, ClientFieldsRepository {
 
     Optional<ClientEntity> findByEmailAndSinNumberAndDeletedFalse(String email, String sinNumber);
 
     Optional<ClientEntity> findBySinNumberAndDeletedFalse(String sinNumber);
 
+    // Version of one client for conditional GETs; reads a single column by primary key
+    @Query("SELECT c.updatedAt FROM ClientEntity c WHERE c.id = :id AND c.deleted = false")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Duplicate check for a whole batch in one statement instead of one lookup per client
+    @Query("SELECT c.email AS email, c.sinNumber AS sinNumber FROM ClientEntity c " +
+            "WHERE c.deleted = false AND c.email IN :emails")
+    List<ClientKeyView> findKeysByEmailIn(@Param("emails") Collection<String> emails);
+
+    // Contacts are fetched in the same query so converting the results does not trigger one SELECT per client
+    @EntityGraph(attributePaths = "alternativeContacts")
     List<ClientEntity> findByNameContainingIgnoreCaseAndDeletedFalse(String name);
 
-    List<ClientEntity> findAllByDeletedFalse();
-}
\ No newline at end of file
+    // First page of the keyset pagination over (name, id); served by ix_clients_name_id
+    @Query("SELECT c.id FROM ClientEntity c WHERE c.deleted = false ORDER BY c.name ASC, c.id ASC")
+    List<Long> findFirstPageIds(Pageable pageable);
+
+    // Following pages: everything strictly after the (name, id) of the previous page's last row
+    @Query("SELECT c.id FROM ClientEntity c WHERE c.deleted = false " +
+            "AND (c.name > :name OR (c.name = :name AND c.id > :id)) " +
+            "ORDER BY c.name ASC, c.id ASC")
+    List<Long> findPageIdsAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    // Loads a page of clients together with their contacts; the limit is applied to the ID query
+    // because combining a collection fetch with a limit makes Hibernate paginate in memory
+    @EntityGraph(attributePaths = "alternativeContacts")
+    @Query("SELECT c FROM ClientEntity c WHERE c.id IN :ids ORDER BY c.name ASC, c.id ASC")
+    List<ClientEntity> findAllWithContactsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Clients still waiting for the background geocoder, oldest first
+    List<ClientEntity> findByGeocodeStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(GeocodeStatus geocodeStatus,
+                                                                                LocalDateTime updatedBefore,
+                                                                                Pageable pageable);
+
+    // Written by the background geocoder; updatedAt is set explicitly because bulk updates bypass @UpdateTimestamp,
+    // and the geohash is passed in because bulk updates bypass the entity callbacks too
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClientEntity c SET c.geoCoordinates.latitude = :latitude, c.geoCoordinates.longitude = :longitude, " +
+            "c.geoCoordinates.geohash = :geohash, c.geocodeStatus = :status, c.updatedAt = :now WHERE c.id = :id")
+    int updateGeocoding(@Param("id") Long id,
+                        @Param("latitude") Double latitude,
+                        @Param("longitude") Double longitude,
+                        @Param("geohash") String geohash,
+                        @Param("status") GeocodeStatus status,
+                        @Param("now") LocalDateTime now);
+
+    // Active clients located in one geohash cell, closest to the given point first: every geohash in [low, high]
+    // starts with the cell's prefix, so the lookup is a range scan on ix_clients_geohash. The ORDER BY term is the
+    // haversine of the distance, which grows with the distance, so the page holds the cell's closest clients
+    @Query("SELECT c.id AS id, c.name AS name, c.address AS address, c.city AS city, " +
+            "c.geoCoordinates.latitude AS latitude, c.geoCoordinates.longitude AS longitude " +
+            "FROM ClientEntity c WHERE c.deleted = false AND c.geoCoordinates.geohash BETWEEN :low AND :high " +
+            "ORDER BY power(sin(radians(c.geoCoordinates.latitude - :latitude) / 2), 2) " +
+            "+ cos(radians(:latitude)) * cos(radians(c.geoCoordinates.latitude)) " +
+            "* power(sin(radians(c.geoCoordinates.longitude - :longitude) / 2), 2), c.id")
+    List<ClientLocationView> findLocationsByGeohashBetween(@Param("low") String low,
+                                                           @Param("high") String high,
+                                                           @Param("latitude") double latitude,
+                                                           @Param("longitude") double longitude,
+                                                           Pageable pageable);
+
+    // Details of the clients returned by the nearest-neighbour index
+    @Query("SELECT c.id AS id, c.name AS name, c.address AS address, c.city AS city, " +
+            "c.geoCoordinates.latitude AS latitude, c.geoCoordinates.longitude AS longitude " +
+            "FROM ClientEntity c WHERE c.id IN :ids")
+    List<ClientLocationView> findLocationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Clients geocoded before the geohash column existed
+    @Query("SELECT c FROM ClientEntity c WHERE c.geoCoordinates.geohash IS NULL " +
+            "AND c.geoCoordinates.latitude IS NOT NULL AND c.geoCoordinates.longitude IS NOT NULL ORDER BY c.id")
+    List<ClientEntity> findWithoutGeohash(Pageable pageable);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ClientEntity c WHERE c.deleted = false ORDER BY c.id")
+    Stream<ClientEntity> streamAllByDeletedFalse();
+
+    // Autocomplete while the in-memory prefix index is loading
+    List<ClientNameView> findByNameStartingWithIgnoreCaseAndDeletedFalseOrderByNameAscIdAsc(String prefix, Pageable pageable);
+
+    // Initial load of the in-memory client indexes
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.id AS id, c.name AS name, c.geoCoordinates.latitude AS latitude, " +
+            "c.geoCoordinates.longitude AS longitude FROM ClientEntity c WHERE c.deleted = false")
+    Stream<ClientIndexView> streamIndexViews();
+
+    // Current indexed state of clients changed on another node; deleted clients are absent
+    @Query("SELECT c.id AS id, c.name AS name, c.geoCoordinates.latitude AS latitude, " +
+            "c.geoCoordinates.longitude AS longitude FROM ClientEntity c WHERE c.deleted = false AND c.id IN :ids")
+    List<ClientIndexView> findIndexViewsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,40 @@
+package com.bufalari.repository;
+
+import com.bufalari.entity.GeocodeCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for the geocode_cache table. Lookups and writes run in their own transactions: they happen
+ * while a client is being created, and a failed cache statement must not roll back the client.
+ */
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntity, String> {
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    Optional<GeocodeCacheEntity> findByAddressHash(String addressHash);
+
+    // Nodes caching the same address at once update the row instead of failing on the primary key;
+    // an older result never replaces a newer one
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO geocode_cache (address_hash, address, latitude, longitude, status, resolved_at) " +
+            "VALUES (:addressHash, :address, :latitude, :longitude, :status, :resolvedAt) " +
+            "ON CONFLICT (address_hash) DO UPDATE SET address = EXCLUDED.address, latitude = EXCLUDED.latitude, " +
+            "longitude = EXCLUDED.longitude, status = EXCLUDED.status, resolved_at = EXCLUDED.resolved_at " +
+            "WHERE geocode_cache.resolved_at < EXCLUDED.resolved_at", nativeQuery = true)
+    int upsert(@Param("addressHash") String addressHash,
+               @Param("address") String address,
+               @Param("latitude") Double latitude,
+               @Param("longitude") Double longitude,
+               @Param("status") String status,
+               @Param("resolvedAt") LocalDateTime resolvedAt);
+}
@@ -5,7 +5,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(value = "geocodingClient", url = "https://maps.googleapis.com/maps/api/geocode") // Corrigido
+@FeignClient(value = "geocodingClient", url = "${geocoding.api-url:https://maps.googleapis.com/maps/api/geocode}") // Corrigido
 public interface GeocodingClientRepository { // Removido @Repository
 
     @GetMapping("/json")
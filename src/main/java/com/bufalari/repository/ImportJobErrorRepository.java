@@ -0,0 +1,14 @@
+package com.bufalari.repository;
+
+import com.bufalari.entity.ImportJobErrorEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobErrorEntity, Long> {
+
+    List<ImportJobErrorEntity> findByJobIdOrderByRecordNumberAsc(Long jobId, Pageable pageable);
+}
@@ -0,0 +1,15 @@
+package com.bufalari.repository;
+
+import com.bufalari.entity.ImportJobEntity;
+import com.bufalari.entity.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJobEntity, Long> {
+
+    List<ImportJobEntity> findByNodeAndStatusIn(String node, Collection<ImportJobStatus> statuses);
+}
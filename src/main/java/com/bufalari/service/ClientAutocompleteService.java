@@ -0,0 +1,70 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientSearchProperties;
+import com.bufalari.dto.ClientNameDTO;
+import com.bufalari.index.ClientNamePrefixIndex;
+import com.bufalari.repository.ClientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for client name suggestions, called on every keystroke of the search box.
+ * Only IDs and names are returned, so a suggestion never touches contacts or map links.
+ */
+@Service
+public class ClientAutocompleteService {
+
+    private final ClientNamePrefixIndex prefixIndex;
+    private final ClientRepository clientRepository;
+    private final ClientSearchProperties searchProperties;
+
+    /**
+     * Constructor for ClientAutocompleteService.
+     *
+     * @param prefixIndex      The in-memory index of active client names.
+     * @param clientRepository The repository used while the index is loading.
+     * @param searchProperties The configuration for searches and suggestions.
+     */
+    @Autowired
+    public ClientAutocompleteService(ClientNamePrefixIndex prefixIndex,
+                                     ClientRepository clientRepository,
+                                     ClientSearchProperties searchProperties) {
+        this.prefixIndex = prefixIndex;
+        this.clientRepository = clientRepository;
+        this.searchProperties = searchProperties;
+    }
+
+    /**
+     * Suggests active clients whose name starts with the given prefix (case-insensitive).
+     *
+     * @param prefix The text typed so far.
+     * @param limit  The maximum number of suggestions, or null to use the configured default.
+     * @return Up to {@code limit} suggestions ordered by name; empty for a blank prefix.
+     */
+    public List<ClientNameDTO> autocomplete(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int maxResults = resolveLimit(limit);
+        if (!prefixIndex.isReady()) {
+            return clientRepository.findByNameStartingWithIgnoreCaseAndDeletedFalseOrderByNameAscIdAsc(prefix, PageRequest.of(0, maxResults)).stream()
+                    .map(client -> new ClientNameDTO(client.getId(), client.getName()))
+                    .collect(Collectors.toList());
+        }
+        return prefixIndex.complete(prefix, maxResults).stream()
+                .map(match -> new ClientNameDTO(match.getKey(), match.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private int resolveLimit(Integer limit) {
+        ClientSearchProperties.Autocomplete autocomplete = searchProperties.getAutocomplete();
+        if (limit == null || limit <= 0) {
+            return autocomplete.getDefaultLimit();
+        }
+        return Math.min(limit, autocomplete.getMaxLimit());
+    }
+}
@@ -0,0 +1,242 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientBatchProperties;
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientBatchItemResultDTO;
+import com.bufalari.dto.ClientBatchResultDTO;
+import com.bufalari.dto.ClientDTO;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
+import com.bufalari.exception.ClientConstraints;
+import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.repository.ClientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for creating many clients in one request.
+ * <p>
+ * Clients are written in chunks, one transaction per chunk, so Hibernate can send the inserts of a
+ * chunk as JDBC batches. Geocoding is always left to {@link GeocodingWorker}: calling the Geocoding
+ * API inline would dominate the run time of a large batch.
+ */
+@Service
+public class ClientBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientBatchService.class);
+
+    private final ClientRepository clientRepository;
+    private final ClientConverter clientConverter;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClientBatchProperties batchProperties;
+
+    /**
+     * Constructor for ClientBatchService.
+     *
+     * @param clientRepository   The repository for accessing client data.
+     * @param clientConverter    The converter for mapping client DTOs to entities.
+     * @param validator          The validator for validating client data.
+     * @param entityManager      The entity manager used to flush and clear each chunk.
+     * @param transactionManager The transaction manager used for the per-chunk transactions.
+     * @param eventPublisher     The publisher for client events.
+     * @param batchProperties    The bulk creation configuration.
+     */
+    @Autowired
+    public ClientBatchService(ClientRepository clientRepository,
+                              ClientConverter clientConverter,
+                              Validator validator,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              ClientBatchProperties batchProperties) {
+        this.clientRepository = clientRepository;
+        this.clientConverter = clientConverter;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchProperties = batchProperties;
+    }
+
+    /**
+     * Creates the given clients, reporting the outcome of each one.
+     * Invalid clients and duplicates (of an existing client or of an earlier item in the same
+     * request) are rejected individually; they do not prevent the other clients from being created.
+     *
+     * @param clientDTOs The clients to create.
+     * @return A ClientBatchResultDTO with one result per client, in request order.
+     * @throws InvalidClientDataException If the batch is empty or larger than the configured maximum.
+     */
+    public ClientBatchResultDTO createClients(List<ClientDTO> clientDTOs) {
+        String traceId = UUID.randomUUID().toString();
+        if (clientDTOs == null || clientDTOs.isEmpty()) {
+            throw new InvalidClientDataException("Batch must contain at least one client");
+        }
+        if (clientDTOs.size() > batchProperties.getMaxSize()) {
+            throw new InvalidClientDataException("Batch must not contain more than " + batchProperties.getMaxSize() + " clients");
+        }
+        logger.info("[TRACE-ID: {}] - Starting batch creation of {} clients.", traceId, clientDTOs.size());
+        long start = System.nanoTime();
+
+        ClientBatchItemResultDTO[] results = new ClientBatchItemResultDTO[clientDTOs.size()];
+        Set<String> requestKeys = new HashSet<>();
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+        for (int from = 0; from < clientDTOs.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, clientDTOs.size());
+            createChunk(clientDTOs, from, to, requestKeys, results, traceId);
+        }
+
+        ClientBatchResultDTO batchResult = new ClientBatchResultDTO();
+        batchResult.setItems(Arrays.asList(results));
+        for (ClientBatchItemResultDTO result : results) {
+            if (result.getStatus() == ClientBatchItemResultDTO.Status.CREATED) {
+                batchResult.setCreated(batchResult.getCreated() + 1);
+            } else {
+                batchResult.setFailed(batchResult.getFailed() + 1);
+            }
+        }
+
+        logger.info("[TRACE-ID: {}] - Batch creation completed in {} ms. Created: {}, failed: {}", traceId,
+                (System.nanoTime() - start) / 1_000_000, batchResult.getCreated(), batchResult.getFailed());
+        return batchResult;
+    }
+
+    /**
+     * Validates and saves the clients in {@code [from, to)} in a single transaction.
+     */
+    private void createChunk(List<ClientDTO> clientDTOs, int from, int to, Set<String> requestKeys,
+                             ClientBatchItemResultDTO[] results, String traceId) {
+        Map<Integer, ClientDTO> accepted = new LinkedHashMap<>();
+        for (int index = from; index < to; index++) {
+            ClientDTO clientDTO = clientDTOs.get(index);
+            String error = ClientValidation.validate(validator, clientDTO);
+            if (error == null && !requestKeys.add(ClientValidation.key(clientDTO.getEmail(), clientDTO.getSinNumber()))) {
+                error = "Duplicate of an earlier client in this batch.";
+            }
+            if (error != null) {
+                results[index] = failed(index, error);
+            } else {
+                accepted.put(index, clientDTO);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // One query for the whole chunk instead of one per client
+        Set<String> emails = accepted.values().stream().map(ClientDTO::getEmail).collect(Collectors.toSet());
+        Set<String> existingKeys = clientRepository.findKeysByEmailIn(emails).stream()
+                .map(existing -> ClientValidation.key(existing.getEmail(), existing.getSinNumber()))
+                .collect(Collectors.toSet());
+        accepted.entrySet().removeIf(entry -> {
+            ClientDTO clientDTO = entry.getValue();
+            if (existingKeys.contains(ClientValidation.key(clientDTO.getEmail(), clientDTO.getSinNumber()))) {
+                results[entry.getKey()] = failed(entry.getKey(), "Client with this email and SIN number already exists.");
+                return true;
+            }
+            return false;
+        });
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Integer, Long> ids = transactionTemplate.execute(status -> saveChunk(accepted));
+            ids.forEach((index, id) -> results[index] = created(index, id));
+        } catch (DataAccessException e) {
+            if (accepted.size() == 1) {
+                accepted.keySet().forEach(index -> results[index] = saveFailed(index, e, traceId));
+                return;
+            }
+            // One bad row rolls back the whole chunk; retry its clients one at a time so only the offending ones fail
+            logger.warn("[TRACE-ID: {}] - Failed to save clients {} to {} of the batch, retrying them one at a time.", traceId, from, to - 1);
+            accepted.forEach((index, clientDTO) -> {
+                try {
+                    Long id = transactionTemplate.execute(status -> saveChunk(Map.of(index, clientDTO))).get(index);
+                    results[index] = created(index, id);
+                } catch (DataAccessException itemException) {
+                    results[index] = saveFailed(index, itemException, traceId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reports a client that could not be saved. The database message is only logged: it can contain
+     * the values of the failing row, such as the SIN number, and SQL details.
+     */
+    private ClientBatchItemResultDTO saveFailed(int index, DataAccessException e, String traceId) {
+        logger.error("[TRACE-ID: {}] - Failed to save client {} of the batch: {}", traceId, index, e.getMostSpecificCause().getMessage());
+        if (e instanceof DataIntegrityViolationException violation && ClientConstraints.isDuplicateClient(violation)) {
+            return failed(index, "Client with this email and SIN number already exists.");
+        }
+        return failed(index, "Could not save client.");
+    }
+
+    /**
+     * Persists the accepted clients with their contacts. Contacts are cascaded from the client, so
+     * all rows of the chunk are inserted at flush time and grouped into batches per table.
+     */
+    private Map<Integer, Long> saveChunk(Map<Integer, ClientDTO> accepted) {
+        Map<Integer, ClientEntity> entities = new LinkedHashMap<>();
+        accepted.forEach((index, clientDTO) -> {
+            ClientEntity clientEntity = clientConverter.convertDTOToEntity(clientDTO);
+            clientEntity.setId(null); // Always insert; an ID from the request would turn persist into a merge
+            clientEntity.setGeoCoordinates(null);
+            clientEntity.setGeocodeStatus(GeocodeStatus.PENDING);
+            clientEntity.getAlternativeContacts().forEach(contact -> contact.setId(null));
+            clientEntity.getAlternativeContacts().add(clientConverter.createMainContact(clientEntity, clientDTO));
+            entities.put(index, clientEntity);
+        });
+
+        clientRepository.saveAll(new ArrayList<>(entities.values()));
+        entityManager.flush();
+
+        Map<Integer, Long> ids = new LinkedHashMap<>();
+        entities.forEach((index, clientEntity) -> {
+            ids.put(index, clientEntity.getId());
+            eventPublisher.publishEvent(ClientChangedEvent.of(clientEntity, ClientChangedEvent.ChangeType.CREATED));
+            ClientDTO clientDTO = accepted.get(index);
+            String address = GeocodingService.formatAddress(
+                    clientDTO.getAddress(), clientDTO.getCity(), clientDTO.getProvince(), clientDTO.getPostalCode());
+            // Delivered to GeocodingWorker once the chunk commits
+            eventPublisher.publishEvent(new ClientGeocodingRequestedEvent(clientEntity.getId(), address));
+        });
+        // Keep the persistence context from growing across chunks
+        entityManager.clear();
+        return ids;
+    }
+
+    private static ClientBatchItemResultDTO created(int index, Long id) {
+        ClientBatchItemResultDTO result = new ClientBatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(ClientBatchItemResultDTO.Status.CREATED);
+        result.setId(id);
+        return result;
+    }
+
+    private static ClientBatchItemResultDTO failed(int index, String error) {
+        ClientBatchItemResultDTO result = new ClientBatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(ClientBatchItemResultDTO.Status.FAILED);
+        result.setError(error);
+        return result;
+    }
+}
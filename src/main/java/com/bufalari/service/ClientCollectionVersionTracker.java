@@ -0,0 +1,102 @@
+package com.bufalari.service;
+
+import com.bufalari.entity.ClientCollectionVersionEntity;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.repository.ClientCollectionVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Maintains the version behind the ETag of the client listings.
+ * <p>
+ * Every transaction that changes a client increments the version once, just before it commits, so the
+ * new version becomes visible together with the change. Reading the version before a listing therefore
+ * never pairs a new tag with an older body, whatever order concurrent transactions commit in. The row
+ * lock is only held while committing, which keeps writers from queueing behind each other for longer.
+ */
+@Component
+public class ClientCollectionVersionTracker {
+
+    private final ClientCollectionVersionRepository versionRepository;
+
+    /**
+     * Constructor for ClientCollectionVersionTracker.
+     *
+     * @param versionRepository The repository of the listings' version.
+     */
+    @Autowired
+    public ClientCollectionVersionTracker(ClientCollectionVersionRepository versionRepository) {
+        this.versionRepository = versionRepository;
+    }
+
+    /**
+     * Creates the version row on databases without schema-postgresql.sql, before clients are changed
+     * concurrently: creating it with the first change would let concurrent first changes collide on it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createVersionRow() {
+        if (versionRepository.findVersion().isPresent()) {
+            return;
+        }
+        try {
+            versionRepository.save(newVersionRow(0));
+        } catch (DataIntegrityViolationException e) {
+            // Created by another node in the meantime
+        }
+    }
+
+    /**
+     * @return The current version of the client listings.
+     */
+    public long currentVersion() {
+        return versionRepository.findVersion().orElse(0L);
+    }
+
+    /**
+     * Schedules the increment for the commit of the transaction publishing the change, or increments
+     * now when the change was made outside a transaction.
+     *
+     * @param event The change.
+     */
+    @EventListener
+    public void onClientChanged(ClientChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return; // Already scheduled for this transaction
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                increment();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ClientCollectionVersionTracker.this);
+            }
+        });
+    }
+
+    private void increment() {
+        if (versionRepository.increment() == 0) {
+            // Changed before createVersionRow ran
+            versionRepository.save(newVersionRow(1));
+        }
+    }
+
+    private static ClientCollectionVersionEntity newVersionRow(long version) {
+        ClientCollectionVersionEntity row = new ClientCollectionVersionEntity();
+        row.setId(1L);
+        row.setVersion(version);
+        return row;
+    }
+}
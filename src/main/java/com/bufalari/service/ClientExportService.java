@@ -0,0 +1,255 @@
+package com.bufalari.service;
+
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientFileFormat;
+import com.bufalari.dto.ClientResponseDTO;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.repository.AlternativeContactRepository;
+import com.bufalari.repository.AlternativeContactView;
+import com.bufalari.repository.ClientRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service class for streaming the full client book to an output stream.
+ */
+@Service
+public class ClientExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Rows converted together, with one contact query per batch; matches the cursor's fetch size
+    private static final int BATCH_SIZE = 500;
+
+    private static final String[] CSV_HEADER = {
+            "id", "name", "address", "city", "province", "postalCode", "country",
+            "ddI1", "phoneNumber1", "ddI2", "phoneNumber2", "email", "notes"
+    };
+
+    private final ClientRepository clientRepository;
+    private final AlternativeContactRepository alternativeContactRepository;
+    private final ClientConverter clientConverter;
+    private final EntityManager entityManager;
+    private final ObjectWriter ndjsonWriter;
+
+    /**
+     * Constructor for ClientExportService.
+     *
+     * @param clientRepository             The repository for accessing client data.
+     * @param alternativeContactRepository The repository the contacts of each batch of clients are read from.
+     * @param clientConverter              The converter for mapping client entities to response DTOs.
+     * @param entityManager                The entity manager used to detach rows once they are written.
+     * @param objectMapper                 The application's JSON mapper.
+     */
+    @Autowired
+    public ClientExportService(ClientRepository clientRepository,
+                               AlternativeContactRepository alternativeContactRepository,
+                               ClientConverter clientConverter,
+                               EntityManager entityManager,
+                               ObjectMapper objectMapper) {
+        this.clientRepository = clientRepository;
+        this.alternativeContactRepository = alternativeContactRepository;
+        this.clientConverter = clientConverter;
+        this.entityManager = entityManager;
+        // Flushing after every value would push each row to the socket on its own
+        this.ndjsonWriter = objectMapper.writerFor(ClientResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes every active client to the given stream, one row at a time.
+     * Rows are read through a forward-only cursor in batches, the contacts of each batch in one query,
+     * and detached once written, so heap use does not depend on the number of clients.
+     *
+     * @param outputStream The stream to write to; it is not closed by this method.
+     * @param format       The output format.
+     * @param gzip         Whether to gzip-compress the output.
+     * @return The number of clients written.
+     * @throws IOException If writing to the stream fails.
+     */
+    @Transactional(readOnly = true)
+    public long exportClients(OutputStream outputStream, ClientFileFormat format, boolean gzip) throws IOException {
+        String traceId = generateTraceId();
+        logger.info("[TRACE-ID: {}] - Starting client export. Format: {}, gzip: {}", traceId, format, gzip);
+
+        // syncFlush lets the first rows reach the client before the deflater fills its buffer
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipStream : outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        long count = 0;
+        try (Stream<ClientEntity> clients = clientRepository.streamAllByDeletedFalse()) {
+            RowWriter rowWriter = format == ClientFileFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            rowWriter.writeHeader();
+
+            Iterator<ClientEntity> iterator = clients.iterator();
+            List<ClientEntity> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    writeBatch(rowWriter, batch, format != ClientFileFormat.CSV);
+                    if (count == 0) {
+                        rowWriter.flush(); // Get the first rows out as soon as possible
+                    }
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+            rowWriter.flush();
+        }
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+
+        logger.info("[TRACE-ID: {}] - Client export completed successfully. Number of clients exported: {}", traceId, count);
+        return count;
+    }
+
+    /**
+     * Converts and writes a batch of clients, then detaches them.
+     * Their contacts are read in one query instead of by initializing each client's lazy collection,
+     * and not at all when the format omits them.
+     */
+    private void writeBatch(RowWriter rowWriter, List<ClientEntity> batch, boolean withContacts) throws IOException {
+        Map<Long, List<AlternativeContactView>> contactsByClient = withContacts
+                ? alternativeContactRepository
+                .findViewsByClientIdIn(batch.stream().map(ClientEntity::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(AlternativeContactView::getClientId))
+                : Map.of();
+        for (ClientEntity client : batch) {
+            rowWriter.writeRow(clientConverter.convertEntityWithContactsToResponseDTO(client,
+                    contactsByClient.getOrDefault(client.getId(), List.of())));
+            entityManager.detach(client);
+        }
+    }
+
+    /**
+     * Writes export rows in a specific format.
+     */
+    private interface RowWriter {
+
+        void writeHeader() throws IOException;
+
+        void writeRow(ClientResponseDTO client) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    /**
+     * Writes one JSON document per line.
+     */
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = ndjsonWriter.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+            // NDJSON has no header
+        }
+
+        @Override
+        public void writeRow(ClientResponseDTO client) throws IOException {
+            ndjsonWriter.writeValue(generator, client);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * Writes RFC 4180 CSV with the scalar client fields; contacts and map links are omitted.
+     */
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writeLine((Object[]) CSV_HEADER);
+        }
+
+        @Override
+        public void writeRow(ClientResponseDTO client) throws IOException {
+            writeLine(client.getId(), client.getName(), client.getAddress(), client.getCity(),
+                    client.getProvince(), client.getPostalCode(), client.getCountry(),
+                    client.getDdI1(), client.getPhoneNumber1(), client.getDdI2(), client.getPhoneNumber2(),
+                    client.getEmail(), client.getNotes());
+        }
+
+        private void writeLine(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * Generates a unique trace ID for the request.
+     *
+     * @return A UUID string representing the trace ID.
+     */
+    private String generateTraceId() {
+        return UUID.randomUUID().toString();
+    }
+}
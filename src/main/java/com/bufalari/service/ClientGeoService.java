@@ -0,0 +1,198 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientGeoProperties;
+import com.bufalari.dto.GeoClusterDTO;
+import com.bufalari.dto.NearbyClientDTO;
+import com.bufalari.exception.IndexNotReadyException;
+import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.index.ClientGeoClusterIndex;
+import com.bufalari.index.ClientLocationKdTree;
+import com.bufalari.repository.ClientLocationView;
+import com.bufalari.repository.ClientRepository;
+import com.bufalari.util.GeoHash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for location queries over geocoded clients.
+ * <p>
+ * The search circle is covered by a small set of geohash cells, each read with a range scan on the
+ * indexed geohash column that returns at most the requested number of clients, closest first. The
+ * database still reads and scores every client in a cell before sorting, so a dense cell costs as many
+ * rows as it holds; the limit only bounds what is returned. Cells are rectangles, so their corners hold
+ * clients outside the circle; those are dropped by the exact great-circle distance before sorting.
+ * Nearest-neighbour queries are answered by {@link ClientLocationKdTree} and map clusters by
+ * {@link ClientGeoClusterIndex}.
+ */
+@Service
+public class ClientGeoService {
+
+    private static final double INITIAL_FALLBACK_RADIUS_KM = 50;
+
+    private final ClientRepository clientRepository;
+    private final ClientLocationKdTree kdTree;
+    private final ClientGeoClusterIndex clusterIndex;
+    private final ClientGeoProperties geoProperties;
+
+    /**
+     * Constructor for ClientGeoService.
+     *
+     * @param clientRepository The repository for accessing client data.
+     * @param kdTree           The in-memory nearest-neighbour index of geocoded clients.
+     * @param clusterIndex     The in-memory per-zoom cluster counts of geocoded clients.
+     * @param geoProperties    The configuration for location queries.
+     */
+    @Autowired
+    public ClientGeoService(ClientRepository clientRepository,
+                            ClientLocationKdTree kdTree,
+                            ClientGeoClusterIndex clusterIndex,
+                            ClientGeoProperties geoProperties) {
+        this.clientRepository = clientRepository;
+        this.kdTree = kdTree;
+        this.clusterIndex = clusterIndex;
+        this.geoProperties = geoProperties;
+    }
+
+    /**
+     * Finds the active clients within a radius of a point.
+     *
+     * @param latitude  Latitude of the centre in degrees.
+     * @param longitude Longitude of the centre in degrees.
+     * @param radiusKm  Search radius in kilometres.
+     * @param limit     The maximum number of clients, or null to use the configured default.
+     * @return The closest clients within the radius, nearest first.
+     * @throws InvalidClientDataException if the point or radius is out of range.
+     */
+    public List<NearbyClientDTO> nearby(double latitude, double longitude, double radiusKm, Integer limit) {
+        validateCoordinates(latitude, longitude);
+        if (!(radiusKm > 0) || radiusKm > geoProperties.getMaxRadiusKm()) {
+            throw new InvalidClientDataException("Radius must be greater than 0 and at most " + geoProperties.getMaxRadiusKm() + " km");
+        }
+        return withinRadius(latitude, longitude, radiusKm, resolveLimit(limit));
+    }
+
+    /**
+     * Finds the active clients closest to a point, however far away they are. Until the
+     * nearest-neighbour index is loaded, only clients within the configured maximum radius are found.
+     *
+     * @param latitude  Latitude of the point in degrees.
+     * @param longitude Longitude of the point in degrees.
+     * @param k         The number of clients, or null to use the configured default.
+     * @return The {@code k} closest geocoded clients, nearest first.
+     * @throws InvalidClientDataException if the point is out of range.
+     */
+    public List<NearbyClientDTO> nearest(double latitude, double longitude, Integer k) {
+        validateCoordinates(latitude, longitude);
+        ClientGeoProperties.Nearest nearest = geoProperties.getNearest();
+        int count = k == null || k <= 0 ? nearest.getDefaultK() : Math.min(k, nearest.getMaxK());
+
+        if (!kdTree.isReady()) {
+            // Until the tree is loaded, widen a radius search until it finds enough clients, up to the
+            // radius a /nearby request may use: wider circles scan too many rows
+            double maxRadiusKm = geoProperties.getMaxRadiusKm();
+            double radiusKm = Math.min(INITIAL_FALLBACK_RADIUS_KM, maxRadiusKm);
+            List<NearbyClientDTO> matches = withinRadius(latitude, longitude, radiusKm, count);
+            while (matches.size() < count && radiusKm < maxRadiusKm) {
+                radiusKm = Math.min(radiusKm * 4, maxRadiusKm);
+                matches = withinRadius(latitude, longitude, radiusKm, count);
+            }
+            return matches;
+        }
+
+        List<Map.Entry<Long, Double>> neighbours = kdTree.nearest(latitude, longitude, count);
+        Map<Long, ClientLocationView> clients = new HashMap<>();
+        clientRepository.findLocationsByIdIn(neighbours.stream().map(Map.Entry::getKey).toList())
+                .forEach(client -> clients.put(client.getId(), client));
+
+        List<NearbyClientDTO> result = new ArrayList<>(neighbours.size());
+        for (Map.Entry<Long, Double> neighbour : neighbours) {
+            ClientLocationView client = clients.get(neighbour.getKey());
+            if (client != null) { // Deleted since the tree was read
+                result.add(new NearbyClientDTO(client.getId(), client.getName(), client.getAddress(), client.getCity(),
+                        client.getLatitude(), client.getLongitude(), neighbour.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the geocoded active clients per map cell inside a box.
+     *
+     * @param bbox The box as "west,south,east,north" in degrees; west is greater than east when the box
+     *             crosses the antimeridian.
+     * @param zoom The map zoom level.
+     * @return One cluster per non-empty cell, with the centroid and number of its clients.
+     * @throws InvalidClientDataException if the box is malformed.
+     * @throws IndexNotReadyException     if the clusters are still being loaded.
+     */
+    public List<GeoClusterDTO> clusters(String bbox, int zoom) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new InvalidClientDataException("Bounding box must be west,south,east,north: " + bbox);
+        }
+        double[] bounds = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                bounds[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidClientDataException("Bounding box must be west,south,east,north: " + bbox);
+        }
+        double west = bounds[0], south = bounds[1], east = bounds[2], north = bounds[3];
+        validateCoordinates(south, west);
+        validateCoordinates(north, east);
+        if (south > north) {
+            throw new InvalidClientDataException("Bounding box south must not be greater than north: " + bbox);
+        }
+        if (zoom < 0) {
+            throw new InvalidClientDataException("Zoom must not be negative: " + zoom);
+        }
+        if (!clusterIndex.isReady()) {
+            throw new IndexNotReadyException("Client clusters are still loading.");
+        }
+
+        return clusterIndex.clusters(south, west, north, east, zoom).stream()
+                .map(cluster -> new GeoClusterDTO(cluster.getLatitude(), cluster.getLongitude(), cluster.getCount()))
+                .toList();
+    }
+
+    private List<NearbyClientDTO> withinRadius(double latitude, double longitude, double radiusKm, int maxResults) {
+        List<NearbyClientDTO> matches = new ArrayList<>();
+        for (String cell : GeoHash.coveringCells(latitude, longitude, radiusKm, geoProperties.getMaxCells())) {
+            // 'z' is the last base-32 digit, so this bound is above every geohash starting with the cell
+            String high = cell + "z".repeat(GeoHash.MAX_PRECISION - cell.length());
+            // The closest maxResults of each cell include every client of the overall closest maxResults
+            for (ClientLocationView client : clientRepository.findLocationsByGeohashBetween(cell, high, latitude, longitude,
+                    PageRequest.of(0, maxResults))) {
+                double distance = GeoHash.haversineKm(latitude, longitude, client.getLatitude(), client.getLongitude());
+                if (distance <= radiusKm) {
+                    matches.add(new NearbyClientDTO(client.getId(), client.getName(), client.getAddress(), client.getCity(),
+                            client.getLatitude(), client.getLongitude(), distance));
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble(NearbyClientDTO::getDistanceKm).thenComparing(NearbyClientDTO::getId));
+        return matches.size() > maxResults ? new ArrayList<>(matches.subList(0, maxResults)) : matches;
+    }
+
+    private static void validateCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new InvalidClientDataException("Coordinates out of range: " + latitude + ", " + longitude);
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return geoProperties.getDefaultLimit();
+        }
+        return Math.min(limit, geoProperties.getMaxLimit());
+    }
+}
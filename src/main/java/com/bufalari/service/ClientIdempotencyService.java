@@ -0,0 +1,187 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientIdempotencyProperties;
+import com.bufalari.dto.ClientDTO;
+import com.bufalari.dto.ClientResponseDTO;
+import com.bufalari.entity.IdempotencyKeyEntity;
+import com.bufalari.exception.IdempotencyKeyReusedException;
+import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service class making POST /clients safe to retry with an Idempotency-Key header.
+ * <p>
+ * The response to a key is stored in the idempotency_keys table in the same transaction that creates
+ * the client, so either both are committed or neither is. A retry is answered from that row by primary
+ * key, without validation, the duplicate check or geocoding. When two requests with the same key race,
+ * the key's primary key lets only one of them commit; the other is rolled back and replays the winner's
+ * response.
+ */
+@Service
+public class ClientIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientIdempotencyService.class);
+
+    private final ClientService clientService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ClientIdempotencyProperties idempotencyProperties;
+    private final Counter replays;
+
+    /**
+     * Constructor for ClientIdempotencyService.
+     *
+     * @param clientService            The service creating the clients.
+     * @param idempotencyKeyRepository The repository of stored responses.
+     * @param transactionManager       The transaction manager shared by the client and its key.
+     * @param objectMapper             The application's JSON mapper.
+     * @param idempotencyProperties    The idempotency configuration.
+     * @param meterRegistry            The registry for the replay counter.
+     */
+    @Autowired
+    public ClientIdempotencyService(ClientService clientService,
+                                    IdempotencyKeyRepository idempotencyKeyRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    ClientIdempotencyProperties idempotencyProperties,
+                                    MeterRegistry meterRegistry) {
+        this.clientService = clientService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.idempotencyProperties = idempotencyProperties;
+        this.replays = Counter.builder("clients.idempotency.replays")
+                .description("POST /clients retries answered from a stored response")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates a client once per key. A request repeating a key already used for the same body gets the
+     * stored response instead of creating the client again.
+     *
+     * @param idempotencyKey The Idempotency-Key header, or null to create the client unconditionally.
+     * @param clientDTO      The ClientDTO representing the client to create.
+     * @return A ClientResponseDTO representing the created client.
+     * @throws InvalidClientDataException    If the key is blank or too long, or the client data is invalid.
+     * @throws IdempotencyKeyReusedException If the key was already used for a different request body.
+     */
+    public ClientResponseDTO createClient(String idempotencyKey, ClientDTO clientDTO) {
+        if (idempotencyKey == null) {
+            return clientService.createClient(clientDTO);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > idempotencyProperties.getMaxKeyLength()) {
+            throw new InvalidClientDataException("Idempotency-Key must be between 1 and "
+                    + idempotencyProperties.getMaxKeyLength() + " characters");
+        }
+        String traceId = UUID.randomUUID().toString();
+        String requestHash = hashRequest(clientDTO);
+
+        Optional<ClientResponseDTO> stored = findResponse(idempotencyKey, requestHash, traceId);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                ClientResponseDTO response = clientService.createClient(clientDTO);
+                LocalDateTime now = LocalDateTime.now();
+                IdempotencyKeyEntity entity = new IdempotencyKeyEntity();
+                entity.setKey(idempotencyKey);
+                entity.setRequestHash(requestHash);
+                entity.setClientId(response.getId());
+                entity.setResponseBody(writeResponse(response));
+                entity.setCreatedAt(now);
+                entity.setExpiresAt(now.plus(idempotencyProperties.getTtl()));
+                // Flushed here so a concurrent request holding the same key fails now and rolls the client back
+                idempotencyKeyRepository.saveAndFlush(entity);
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Also raised for the client's own constraints; only a stored key means another request won the race
+            Optional<ClientResponseDTO> winner = findResponse(idempotencyKey, requestHash, traceId);
+            if (winner.isEmpty()) {
+                throw e;
+            }
+            logger.info("[TRACE-ID: {}] - Idempotency-Key {} was stored by a concurrent request.", traceId, idempotencyKey);
+            return winner.get();
+        }
+    }
+
+    /**
+     * Deletes the keys whose responses are no longer replayed.
+     */
+    @Scheduled(fixedDelayString = "#{@clientIdempotencyProperties.purgeInterval.toMillis()}")
+    public void purgeExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired idempotency keys.", deleted);
+        }
+    }
+
+    private Optional<ClientResponseDTO> findResponse(String idempotencyKey, String requestHash, String traceId) {
+        Optional<IdempotencyKeyEntity> found = idempotencyKeyRepository.findById(idempotencyKey);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyKeyEntity entity = found.get();
+        if (entity.getExpiresAt().isBefore(LocalDateTime.now())) {
+            // Not purged yet; free the key so it can be stored again
+            idempotencyKeyRepository.delete(entity);
+            return Optional.empty();
+        }
+        if (!entity.getRequestHash().equals(requestHash)) {
+            logger.warn("[TRACE-ID: {}] - Idempotency-Key {} reused with a different request body.", traceId, idempotencyKey);
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+        }
+        logger.info("[TRACE-ID: {}] - Replaying stored response for Idempotency-Key {} (client ID: {}).", traceId, idempotencyKey, entity.getClientId());
+        replays.increment();
+        return Optional.of(readResponse(entity.getResponseBody()));
+    }
+
+    private String hashRequest(ClientDTO clientDTO) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(clientDTO)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Client could not be serialized", e);
+        }
+    }
+
+    private String writeResponse(ClientResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be serialized", e);
+        }
+    }
+
+    private ClientResponseDTO readResponse(String responseBody) {
+        try {
+            return objectMapper.readValue(responseBody, ClientResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response could not be read", e);
+        }
+    }
+}
@@ -0,0 +1,719 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientImportProperties;
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.AlternativeContactDTO;
+import com.bufalari.dto.ClientDTO;
+import com.bufalari.dto.ClientFileFormat;
+import com.bufalari.dto.ImportJobDTO;
+import com.bufalari.dto.ImportJobErrorDTO;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeoCoordinatesEntity;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.entity.ImportJobEntity;
+import com.bufalari.entity.ImportJobErrorEntity;
+import com.bufalari.entity.ImportJobStatus;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
+import com.bufalari.exception.ClientConstraints;
+import com.bufalari.exception.ImportJobNotFoundException;
+import com.bufalari.exception.ImportJobOnOtherNodeException;
+import com.bufalari.repository.ClientRepository;
+import com.bufalari.repository.ImportJobErrorRepository;
+import com.bufalari.repository.ImportJobRepository;
+import com.bufalari.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for importing clients from uploaded CSV or NDJSON files.
+ * <p>
+ * A job reads its file as a stream and processes it one chunk of records at a time: the records are
+ * validated, their addresses geocoded on a bounded pool, and the chunk is written in one transaction
+ * together with the job's progress. Only one chunk is in memory at a time, and the file is not read
+ * further until the chunk has been written, so memory use does not depend on the file size.
+ * Because progress is committed with the data, a job that stops resumes after its last committed chunk.
+ * The file is stored on the local disk of the node that accepted the upload, so a job is only run
+ * and resumed by that node.
+ */
+@Service
+public class ClientImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientImportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ClientRepository clientRepository;
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final ClientConverter clientConverter;
+    private final GeocodingService geocodingService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader clientReader;
+    private final ClientImportProperties importProperties;
+    private final Executor jobExecutor;
+    private final Executor geocodingExecutor;
+    private final String node;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for ClientImportService.
+     *
+     * @param clientRepository         The repository for accessing client data.
+     * @param importJobRepository      The repository for accessing import jobs.
+     * @param importJobErrorRepository The repository for the rejected records of import jobs.
+     * @param clientConverter          The converter for mapping client DTOs to entities.
+     * @param geocodingService         The service for resolving addresses to coordinates.
+     * @param validator                The validator for validating client data.
+     * @param entityManager            The entity manager used to flush and clear each chunk.
+     * @param transactionManager       The transaction manager used for the per-chunk transactions.
+     * @param eventPublisher           The publisher for client events.
+     * @param objectMapper             The application's JSON mapper, used to read NDJSON records.
+     * @param importProperties         The import configuration.
+     * @param jobExecutor              The executor running import jobs.
+     * @param geocodingExecutor        The executor geocoding the records of a chunk.
+     */
+    @Autowired
+    public ClientImportService(ClientRepository clientRepository,
+                               ImportJobRepository importJobRepository,
+                               ImportJobErrorRepository importJobErrorRepository,
+                               ClientConverter clientConverter,
+                               GeocodingService geocodingService,
+                               Validator validator,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               ObjectMapper objectMapper,
+                               ClientImportProperties importProperties,
+                               @Qualifier("clientImportExecutor") Executor jobExecutor,
+                               @Qualifier("importGeocodingExecutor") Executor geocodingExecutor) {
+        this.clientRepository = clientRepository;
+        this.importJobRepository = importJobRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.clientConverter = clientConverter;
+        this.geocodingService = geocodingService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.clientReader = objectMapper.readerFor(ClientDTO.class);
+        this.importProperties = importProperties;
+        this.jobExecutor = jobExecutor;
+        this.geocodingExecutor = geocodingExecutor;
+        this.node = importProperties.getNode() != null ? importProperties.getNode() : localHostName();
+    }
+
+    /**
+     * Stores an uploaded file and queues an import job for it.
+     *
+     * @param inputStream The file contents; read to the end but not closed.
+     * @param format      The format of the file.
+     * @return An ImportJobDTO describing the queued job.
+     * @throws IOException If the file cannot be stored.
+     */
+    public ImportJobDTO createJob(InputStream inputStream, ClientFileFormat format) throws IOException {
+        String traceId = generateTraceId();
+        Path directory = Paths.get(importProperties.getDirectory());
+        Files.createDirectories(directory);
+        Path file = directory.resolve(UUID.randomUUID() + "." + format.getFileExtension());
+        long size = Files.copy(inputStream, file);
+
+        ImportJobEntity job = new ImportJobEntity();
+        job.setFormat(format);
+        job.setFilePath(file.toString());
+        job.setNode(node);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setTotalBytes(size);
+        job = importJobRepository.save(job);
+        logger.info("[TRACE-ID: {}] - Import job {} queued. Format: {}, size: {} bytes", traceId, job.getId(), format, size);
+
+        submit(job.getId());
+        return convertToDTO(job);
+    }
+
+    /**
+     * Retrieves the state and progress of an import job.
+     *
+     * @param id The ID of the job.
+     * @return An ImportJobDTO describing the job.
+     * @throws ImportJobNotFoundException If no job with the given ID exists.
+     */
+    public ImportJobDTO getJob(Long id) {
+        return convertToDTO(findJob(id));
+    }
+
+    /**
+     * Retrieves the rejected records of an import job, in file order.
+     *
+     * @param id    The ID of the job.
+     * @param limit The maximum number of errors to return.
+     * @return The recorded errors; at most the configured number of errors is kept per job.
+     * @throws ImportJobNotFoundException If no job with the given ID exists.
+     */
+    public List<ImportJobErrorDTO> getErrors(Long id, int limit) {
+        findJob(id);
+        return importJobErrorRepository.findByJobIdOrderByRecordNumberAsc(id, PageRequest.of(0, Math.max(1, limit))).stream()
+                .map(error -> {
+                    ImportJobErrorDTO dto = new ImportJobErrorDTO();
+                    dto.setRecordNumber(error.getRecordNumber());
+                    dto.setMessage(error.getMessage());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resumes a job from its last committed chunk. Completed and currently running jobs are left alone.
+     *
+     * @param id The ID of the job.
+     * @return An ImportJobDTO describing the job.
+     * @throws ImportJobNotFoundException    If no job with the given ID exists.
+     * @throws ImportJobOnOtherNodeException If the job's file was uploaded to another node.
+     */
+    public ImportJobDTO resumeJob(Long id) {
+        ImportJobEntity job = findJob(id);
+        if (job.getNode() != null && !job.getNode().equals(node)) {
+            throw new ImportJobOnOtherNodeException("Import job " + id + " can only be resumed on node " + job.getNode());
+        }
+        if (job.getStatus() != ImportJobStatus.COMPLETED) {
+            submit(id);
+        }
+        return convertToDTO(job);
+    }
+
+    /**
+     * Resumes the jobs of this node that were queued or running when the application last stopped.
+     * Jobs of other nodes are left to them: their files are not on this node's disk.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!importProperties.isResumeOnStartup()) {
+            return;
+        }
+        importJobRepository.findByNodeAndStatusIn(node, List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING))
+                .forEach(job -> {
+                    logger.info("Resuming import job {} after {} records.", job.getId(), job.getRecordsProcessed());
+                    submit(job.getId());
+                });
+    }
+
+    private void submit(Long id) {
+        if (running.add(id)) {
+            jobExecutor.execute(() -> {
+                try {
+                    runJob(id);
+                } finally {
+                    running.remove(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a job to completion, starting after the records already committed.
+     */
+    void runJob(Long id) {
+        String traceId = generateTraceId();
+        ImportJobEntity job = updateJob(id, j -> {
+            j.setStatus(ImportJobStatus.RUNNING);
+            j.setRunStartedAt(LocalDateTime.now());
+            j.setRunStartRecords(j.getRecordsProcessed());
+            j.setError(null);
+            j.setFinishedAt(null);
+        });
+        logger.info("[TRACE-ID: {}] - Starting import job {} after {} records.", traceId, id, job.getRecordsProcessed());
+
+        try (CountingInputStream input = new CountingInputStream(Files.newInputStream(Paths.get(job.getFilePath())));
+             RecordReader records = openReader(job.getFormat(), input)) {
+            long recordNumber = 0;
+            while (recordNumber < job.getRecordsProcessed() && records.next(recordNumber + 1) != null) {
+                recordNumber++;
+            }
+
+            int chunkSize = Math.max(1, importProperties.getChunkSize());
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                ImportRecord record;
+                while (chunk.size() < chunkSize && (record = records.next(recordNumber + 1)) != null) {
+                    chunk.add(record);
+                    recordNumber++;
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                job = processChunk(job, chunk, input.getCount(), traceId);
+                chunk.clear();
+                logger.info("[TRACE-ID: {}] - Import job {}: {} records processed ({} created, {} failed), {}% of the file, {} records/s",
+                        traceId, id, job.getRecordsProcessed(), job.getRecordsCreated(), job.getRecordsFailed(),
+                        String.format("%.1f", progressPercent(job)), String.format("%.0f", recordsPerSecond(job)));
+            }
+        } catch (Exception e) {
+            logger.error("[TRACE-ID: {}] - Import job {} failed after {} records. Error: {}", traceId, id, job.getRecordsProcessed(), e.getMessage());
+            updateJob(id, j -> {
+                j.setStatus(ImportJobStatus.FAILED);
+                j.setError(truncate(String.valueOf(e.getMessage())));
+                j.setFinishedAt(LocalDateTime.now());
+            });
+            return;
+        }
+
+        job = updateJob(id, j -> {
+            j.setStatus(ImportJobStatus.COMPLETED);
+            j.setBytesRead(j.getTotalBytes());
+            j.setFinishedAt(LocalDateTime.now());
+        });
+        try {
+            Files.deleteIfExists(Paths.get(job.getFilePath()));
+        } catch (IOException e) {
+            logger.warn("[TRACE-ID: {}] - Could not delete the file of import job {}: {}", traceId, id, e.getMessage());
+        }
+        logger.info("[TRACE-ID: {}] - Import job {} completed. Created: {}, failed: {}", traceId, id, job.getRecordsCreated(), job.getRecordsFailed());
+    }
+
+    /**
+     * Validates, geocodes and writes one chunk, committing the job's progress in the same transaction. If the
+     * database rejects the chunk, its records are saved one at a time and the ones it still rejects are failed.
+     */
+    private ImportJobEntity processChunk(ImportJobEntity job, List<ImportRecord> chunk, long bytesRead, String traceId) {
+        Set<String> chunkKeys = new HashSet<>();
+        for (ImportRecord record : chunk) {
+            if (record.error == null) {
+                record.error = ClientValidation.validate(validator, record.client);
+            }
+            if (record.error == null && !chunkKeys.add(ClientValidation.key(record.client.getEmail(), record.client.getSinNumber()))) {
+                record.error = "Duplicate of an earlier client in this file.";
+            }
+        }
+
+        // Earlier chunks are committed, so this also catches duplicates across chunks
+        Set<String> emails = accepted(chunk).stream().map(record -> record.client.getEmail()).collect(Collectors.toSet());
+        if (!emails.isEmpty()) {
+            Set<String> existingKeys = clientRepository.findKeysByEmailIn(emails).stream()
+                    .map(existing -> ClientValidation.key(existing.getEmail(), existing.getSinNumber()))
+                    .collect(Collectors.toSet());
+            accepted(chunk).stream()
+                    .filter(record -> existingKeys.contains(ClientValidation.key(record.client.getEmail(), record.client.getSinNumber())))
+                    .forEach(record -> record.error = "Client with this email and SIN number already exists.");
+        }
+
+        // Bounded by the executor's pool size; the next chunk is not read until this one is written
+        CompletableFuture.allOf(accepted(chunk).stream()
+                .map(record -> CompletableFuture.runAsync(() -> geocode(record, traceId), geocodingExecutor))
+                .toArray(CompletableFuture[]::new)).join();
+
+        List<ImportRecord> accepted = accepted(chunk);
+        try {
+            return transactionTemplate.execute(status -> {
+                int created = saveRecords(accepted);
+                return recordProgress(job, chunk, created, bytesRead);
+            });
+        } catch (DataAccessException e) {
+            if (accepted.isEmpty()) {
+                throw e; // Not caused by a record: the progress could not be written
+            }
+            if (accepted.size() == 1) {
+                accepted.get(0).error = saveFailed(accepted.get(0), e, traceId);
+            } else {
+                // One bad row rolls back the whole chunk; retry its records one at a time so only the offending ones fail
+                logger.warn("[TRACE-ID: {}] - Failed to save records {} to {} of import job {}, retrying them one at a time.",
+                        traceId, chunk.get(0).number, chunk.get(chunk.size() - 1).number, job.getId());
+                for (ImportRecord record : accepted) {
+                    try {
+                        transactionTemplate.execute(status -> saveRecords(List.of(record)));
+                    } catch (DataAccessException recordException) {
+                        record.error = saveFailed(record, recordException, traceId);
+                    }
+                }
+            }
+            // The records above are committed one by one. Should the job stop before the progress is, the
+            // resumed job reads them again and reports them as existing clients instead of creating them twice
+            int created = (int) accepted.stream().filter(record -> record.error == null).count();
+            return transactionTemplate.execute(status -> recordProgress(job, chunk, created, bytesRead));
+        }
+    }
+
+    /**
+     * Inserts the clients of the given records and publishes their events.
+     *
+     * @return The number of clients inserted.
+     */
+    private int saveRecords(List<ImportRecord> records) {
+        List<ClientEntity> entities = records.stream().map(this::toEntity).collect(Collectors.toList());
+        clientRepository.saveAll(entities);
+        entityManager.flush();
+
+        for (int i = 0; i < records.size(); i++) {
+            eventPublisher.publishEvent(ClientChangedEvent.of(entities.get(i), ClientChangedEvent.ChangeType.CREATED));
+            if (records.get(i).deferred) {
+                // Delivered to GeocodingWorker once the chunk commits
+                eventPublisher.publishEvent(new ClientGeocodingRequestedEvent(entities.get(i).getId(), records.get(i).address()));
+            }
+        }
+        return entities.size();
+    }
+
+    /**
+     * Stores the rejected records of a chunk and advances the job past it.
+     */
+    private ImportJobEntity recordProgress(ImportJobEntity job, List<ImportRecord> chunk, int created, long bytesRead) {
+        List<ImportRecord> rejected = chunk.stream().filter(record -> record.error != null).toList();
+        long remainingErrors = Math.max(0, importProperties.getMaxRecordedErrors() - job.getRecordsFailed());
+        importJobErrorRepository.saveAll(rejected.stream()
+                .limit(remainingErrors)
+                .map(record -> {
+                    ImportJobErrorEntity error = new ImportJobErrorEntity();
+                    error.setJobId(job.getId());
+                    error.setRecordNumber(record.number);
+                    error.setMessage(truncate(record.error));
+                    return error;
+                })
+                .collect(Collectors.toList()));
+
+        ImportJobEntity managedJob = importJobRepository.findById(job.getId())
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job not found with ID: " + job.getId()));
+        managedJob.setRecordsProcessed(managedJob.getRecordsProcessed() + chunk.size());
+        managedJob.setRecordsCreated(managedJob.getRecordsCreated() + created);
+        managedJob.setRecordsFailed(managedJob.getRecordsFailed() + rejected.size());
+        managedJob.setBytesRead(Math.min(bytesRead, managedJob.getTotalBytes()));
+        entityManager.flush();
+        // Keep the persistence context from growing across chunks
+        entityManager.clear();
+        return managedJob;
+    }
+
+    /**
+     * Reports a record that could not be saved. The database message is only logged: it can contain
+     * the values of the failing row, such as the SIN number, and SQL details.
+     */
+    private String saveFailed(ImportRecord record, DataAccessException e, String traceId) {
+        logger.error("[TRACE-ID: {}] - Failed to save record {} of the import: {}", traceId, record.number, e.getMostSpecificCause().getMessage());
+        if (e instanceof DataIntegrityViolationException violation && ClientConstraints.isDuplicateClient(violation)) {
+            return "Client with this email and SIN number already exists.";
+        }
+        return "Could not save client.";
+    }
+
+    private void geocode(ImportRecord record, String traceId) {
+        try {
+            GeocodeResult result = geocodingService.resolve(record.address(), traceId);
+            if (result.isFound()) {
+                record.geocode = result;
+            } else {
+                record.error = "Address could not be geocoded: " + record.address();
+            }
+        } catch (RuntimeException e) {
+            // Unavailable or transient failure: import the client and let GeocodingWorker retry
+            record.deferred = true;
+        }
+    }
+
+    private ClientEntity toEntity(ImportRecord record) {
+        ClientEntity clientEntity = clientConverter.convertDTOToEntity(record.client);
+        clientEntity.setId(null);
+        clientEntity.getAlternativeContacts().forEach(contact -> contact.setId(null));
+        clientEntity.getAlternativeContacts().add(clientConverter.createMainContact(clientEntity, record.client));
+        if (record.geocode != null) {
+            GeoCoordinatesEntity geoCoordinates = new GeoCoordinatesEntity();
+            geoCoordinates.setLatitude(record.geocode.getLatitude());
+            geoCoordinates.setLongitude(record.geocode.getLongitude());
+            clientEntity.setGeoCoordinates(geoCoordinates);
+            clientEntity.setGeocodeStatus(GeocodeStatus.RESOLVED);
+        } else {
+            clientEntity.setGeoCoordinates(null);
+            clientEntity.setGeocodeStatus(GeocodeStatus.PENDING);
+        }
+        return clientEntity;
+    }
+
+    private static List<ImportRecord> accepted(List<ImportRecord> chunk) {
+        return chunk.stream().filter(record -> record.error == null).collect(Collectors.toList());
+    }
+
+    private ImportJobEntity updateJob(Long id, Consumer<ImportJobEntity> update) {
+        return transactionTemplate.execute(status -> {
+            ImportJobEntity job = findJob(id);
+            update.accept(job);
+            return importJobRepository.save(job);
+        });
+    }
+
+    private ImportJobEntity findJob(Long id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job not found with ID: " + id));
+    }
+
+    private ImportJobDTO convertToDTO(ImportJobEntity job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setFormat(job.getFormat());
+        dto.setStatus(job.getStatus());
+        dto.setRecordsProcessed(job.getRecordsProcessed());
+        dto.setRecordsCreated(job.getRecordsCreated());
+        dto.setRecordsFailed(job.getRecordsFailed());
+        dto.setProgressPercent(progressPercent(job));
+        dto.setRecordsPerSecond(recordsPerSecond(job));
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+
+    private static double progressPercent(ImportJobEntity job) {
+        if (job.getStatus() == ImportJobStatus.COMPLETED || job.getTotalBytes() == 0) {
+            return job.getStatus() == ImportJobStatus.COMPLETED ? 100.0 : 0.0;
+        }
+        return Math.min(100.0, job.getBytesRead() * 100.0 / job.getTotalBytes());
+    }
+
+    private static double recordsPerSecond(ImportJobEntity job) {
+        if (job.getRunStartedAt() == null) {
+            return 0.0;
+        }
+        LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+        long millis = Duration.between(job.getRunStartedAt(), end).toMillis();
+        return millis <= 0 ? 0.0 : (job.getRecordsProcessed() - job.getRunStartRecords()) * 1000.0 / millis;
+    }
+
+    private RecordReader openReader(ClientFileFormat format, InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return format == ClientFileFormat.CSV ? new CsvReader(reader) : new NdjsonReader(reader);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine the host name; set clients.import.node", e);
+        }
+    }
+
+    /**
+     * Generates a unique trace ID for the job run.
+     *
+     * @return A UUID string representing the trace ID.
+     */
+    private String generateTraceId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * A record of the file and what happened to it.
+     */
+    private static class ImportRecord {
+
+        final long number;
+        final ClientDTO client;
+        volatile String error;
+        volatile GeocodeResult geocode;
+        volatile boolean deferred;
+
+        ImportRecord(long number, ClientDTO client, String error) {
+            this.number = number;
+            this.client = client;
+            this.error = error;
+        }
+
+        String address() {
+            return GeocodingService.formatAddress(client.getAddress(), client.getCity(), client.getProvince(), client.getPostalCode());
+        }
+    }
+
+    /**
+     * Reads the records of a file one at a time.
+     */
+    private interface RecordReader extends Closeable {
+
+        /**
+         * @param number The number to give the record.
+         * @return The next record, or null at the end of the file. Records that cannot be parsed
+         * are returned with an error.
+         */
+        ImportRecord next(long number) throws IOException;
+    }
+
+    /**
+     * Reads one ClientDTO JSON document per line; blank lines are skipped.
+     */
+    private class NdjsonReader implements RecordReader {
+
+        private final BufferedReader reader;
+
+        NdjsonReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRecord next(long number) throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            try {
+                return new ImportRecord(number, clientReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new ImportRecord(number, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads CSV with a header row naming the ClientDTO fields. One alternative contact can be given
+     * in the contactName, contactDdI, contactPhoneNumber, contactEmail and contactNotes columns;
+     * other columns (such as the id column of an export) are ignored.
+     */
+    private static class CsvReader implements RecordReader {
+
+        private final CsvRecordReader reader;
+        private List<String> header;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader);
+        }
+
+        @Override
+        public ImportRecord next(long number) throws IOException {
+            if (header == null) {
+                header = reader.readRecord();
+                if (header == null) {
+                    return null;
+                }
+            }
+            List<String> fields;
+            do {
+                fields = reader.readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isEmpty());
+            if (fields.size() != header.size()) {
+                return new ImportRecord(number, null, "Expected " + header.size() + " fields but found " + fields.size());
+            }
+
+            ClientDTO client = new ClientDTO();
+            AlternativeContactDTO contact = new AlternativeContactDTO();
+            for (int i = 0; i < header.size(); i++) {
+                String value = fields.get(i).isEmpty() ? null : fields.get(i);
+                switch (header.get(i).trim()) {
+                    case "name" -> client.setName(value);
+                    case "address" -> client.setAddress(value);
+                    case "city" -> client.setCity(value);
+                    case "province" -> client.setProvince(value);
+                    case "postalCode" -> client.setPostalCode(value);
+                    case "country" -> client.setCountry(value);
+                    case "ddI1" -> client.setDdI1(value);
+                    case "phoneNumber1" -> client.setPhoneNumber1(value);
+                    case "ddI2" -> client.setDdI2(value);
+                    case "phoneNumber2" -> client.setPhoneNumber2(value);
+                    case "email" -> client.setEmail(value);
+                    case "sinNumber" -> client.setSinNumber(value);
+                    case "notes" -> client.setNotes(value);
+                    case "contactName" -> contact.setName(value);
+                    case "contactDdI" -> contact.setDdI(value);
+                    case "contactPhoneNumber" -> contact.setPhoneNumber(value);
+                    case "contactEmail" -> contact.setEmail(value);
+                    case "contactNotes" -> contact.setNotes(value);
+                    default -> {
+                        // Unknown column
+                    }
+                }
+            }
+            if (contact.getName() != null || contact.getPhoneNumber() != null) {
+                client.setAlternativeContacts(new ArrayList<>(List.of(contact)));
+            }
+            return new ImportRecord(number, client, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Counts the bytes read from the file, for progress reporting.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
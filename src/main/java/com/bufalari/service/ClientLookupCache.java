@@ -0,0 +1,205 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientCacheProperties;
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientResponseDTO;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientInvalidatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of active clients by ID, with SIN and email as secondary keys pointing at the ID.
+ * <p>
+ * Entries are invalidated once a transaction changing the client commits, on this node or, through
+ * {@link com.bufalari.invalidation.ClientInvalidationBus}, on another one. A load that overlaps an
+ * invalidation may have read the old row, so its result is returned but not cached. Cached DTOs are
+ * shared between callers and must be treated as read-only.
+ * <p>
+ * Hits, misses and evictions are exposed under /actuator/metrics/cache.* with cache=clients, and
+ * database load times under clients.cache.load.
+ */
+@Component
+public class ClientLookupCache {
+
+    private final ClientConverter clientConverter;
+    private final Cache<Long, Entry> byId;
+    private final Map<String, Long> idsBySin = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Timer idLoads;
+    private final Timer sinLoads;
+    private final Timer emailLoads;
+
+    /**
+     * Constructor for ClientLookupCache.
+     *
+     * @param clientConverter The converter building the cached DTOs.
+     * @param cacheProperties The cache configuration.
+     * @param meterRegistry   The registry for the cache metrics.
+     */
+    @Autowired
+    public ClientLookupCache(ClientConverter clientConverter,
+                             ClientCacheProperties cacheProperties,
+                             MeterRegistry meterRegistry) {
+        this.clientConverter = clientConverter;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTtl())
+                // Runs atomically with the eviction, so secondary keys never outlive their entry
+                .evictionListener((Long id, Entry entry, RemovalCause cause) -> removeKeys(id, entry))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "clients");
+        this.idLoads = loadTimer(meterRegistry, "id");
+        this.sinLoads = loadTimer(meterRegistry, "sin");
+        this.emailLoads = loadTimer(meterRegistry, "email");
+    }
+
+    /**
+     * @param id     The client ID.
+     * @param loader Loads the active client from the database on a miss.
+     * @return The client, or empty if the loader finds none.
+     */
+    public Optional<ClientResponseDTO> getById(Long id, Supplier<Optional<ClientEntity>> loader) {
+        Entry entry = byId.getIfPresent(id);
+        return entry != null ? Optional.of(entry.client) : load(idLoads, loader, false);
+    }
+
+    /**
+     * @param sinNumber The client's SIN number.
+     * @param loader    Loads the active client from the database on a miss.
+     * @return The client, or empty if the loader finds none.
+     */
+    public Optional<ClientResponseDTO> getBySinNumber(String sinNumber, Supplier<Optional<ClientEntity>> loader) {
+        return lookup(idsBySin.get(sinNumber)).or(() -> load(sinLoads, loader, false));
+    }
+
+    /**
+     * @param email  The client's email.
+     * @param loader Loads the active client from the database on a miss.
+     * @return The client, or empty if the loader finds none.
+     */
+    public Optional<ClientResponseDTO> getByEmail(String email, Supplier<Optional<ClientEntity>> loader) {
+        return lookup(idsByEmail.get(email)).or(() -> load(emailLoads, loader, true));
+    }
+
+    /**
+     * Drops a client once the transaction that changed it has committed, or immediately when the
+     * change was made outside a transaction.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        invalidate(event.getClientId());
+    }
+
+    /**
+     * Drops the clients another node reports as changed.
+     *
+     * @param event The clients changed on another node.
+     */
+    @EventListener
+    public void onClientsInvalidated(ClientInvalidatedEvent event) {
+        if (event.isAll()) {
+            invalidations.incrementAndGet();
+            byId.invalidateAll();
+            idsBySin.clear();
+            idsByEmail.clear();
+        } else {
+            event.getClientIds().forEach(this::invalidate);
+        }
+    }
+
+    /**
+     * Drops a client and its secondary keys.
+     *
+     * @param id The client ID.
+     */
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        Entry entry = byId.asMap().remove(id);
+        if (entry != null) {
+            removeKeys(id, entry);
+        }
+    }
+
+    private Optional<ClientResponseDTO> lookup(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Entry entry = byId.getIfPresent(id);
+        return entry != null ? Optional.of(entry.client) : Optional.empty();
+    }
+
+    private Optional<ClientResponseDTO> load(Timer timer, Supplier<Optional<ClientEntity>> loader, boolean byEmail) {
+        long generation = invalidations.get();
+        Optional<ClientEntity> loaded = timer.record(loader);
+        if (loaded.isEmpty() || loaded.get().isDeleted()) {
+            return Optional.empty();
+        }
+        ClientEntity client = loaded.get();
+        Entry entry = new Entry(clientConverter.convertEntityToResponseDTO(client), client.getSinNumber(),
+                // The email lookup also matches on SIN, so only its own loads may answer it
+                byEmail ? client.getEmail() : null);
+        if (invalidations.get() == generation) {
+            byId.put(client.getId(), entry);
+            if (entry.sinNumber != null) {
+                idsBySin.put(entry.sinNumber, client.getId());
+            }
+            if (entry.email != null) {
+                idsByEmail.put(entry.email, client.getId());
+            }
+            // An invalidation may have removed the entry between the check and the put
+            if (invalidations.get() != generation) {
+                invalidate(client.getId());
+            }
+        }
+        return Optional.of(entry.client);
+    }
+
+    private void removeKeys(Long id, Entry entry) {
+        if (entry.sinNumber != null) {
+            idsBySin.remove(entry.sinNumber, id);
+        }
+        if (entry.email != null) {
+            idsByEmail.remove(entry.email, id);
+        }
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String key) {
+        return Timer.builder("clients.cache.load")
+                .description("Database loads on client cache misses")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    private static final class Entry {
+
+        private final ClientResponseDTO client;
+        private final String sinNumber;
+        private final String email;
+
+        Entry(ClientResponseDTO client, String sinNumber, String email) {
+            this.client = client;
+            this.sinNumber = sinNumber;
+            this.email = email;
+        }
+    }
+}
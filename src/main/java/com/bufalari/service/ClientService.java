@@ -1,28 +1,46 @@
 package com.bufalari.service;
 
+import com.bufalari.config.ClientPageProperties;
+import com.bufalari.config.ClientSearchProperties;
+import com.bufalari.config.GeocodingProperties;
 import com.bufalari.convert.ClientConverter;
 import com.bufalari.dto.AlternativeContactDTO;
 import com.bufalari.dto.ClientDTO;
+import com.bufalari.dto.ClientField;
+import com.bufalari.dto.ClientFieldsDTO;
+import com.bufalari.dto.ClientFieldsPageDTO;
+import com.bufalari.dto.ClientPageDTO;
 import com.bufalari.dto.ClientResponseDTO;
-import com.bufalari.dto.GeocodingResponseDTO;
 import com.bufalari.entity.AlternativeContactEntity;
 import com.bufalari.entity.ClientEntity;
 import com.bufalari.entity.GeoCoordinatesEntity;
-import com.bufalari.exception.ClientAlreadyExistsException;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
 import com.bufalari.exception.ClientNotFoundException;
 import com.bufalari.exception.GeocodingApiException;
+import com.bufalari.exception.GeocodingUnavailableException;
 import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.index.ClientNameTrigramIndex;
 import com.bufalari.repository.AlternativeContactRepository;
+import com.bufalari.repository.AlternativeContactView;
 import com.bufalari.repository.ClientRepository;
-import com.bufalari.repository.GeocodingClientRepository;
+import com.bufalari.util.ClientCursor;
+import com.bufalari.util.ClientETag;
+import jakarta.persistence.Tuple;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -37,52 +55,130 @@ public class ClientService {
     private final ClientRepository clientRepository;
     private final AlternativeContactService alternativeContactService;
     private final ClientConverter clientConverter;
-    private final GeocodingClientRepository geocodingClientRepository;
+    private final GeocodingService geocodingService;
     private final Validator validator;
     private final AlternativeContactRepository alternativeContactRepository;
+    private final ClientPageProperties pageProperties;
+    private final GeocodingProperties geocodingProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClientNameTrigramIndex nameIndex;
+    private final ClientSearchProperties searchProperties;
+    private final ClientLookupCache lookupCache;
+    private final ClientCollectionVersionTracker versionTracker;
 
     /**
      * Constructor for ClientService.
      *
      * @param clientRepository          The repository for accessing client data.
      * @param clientConverter           The converter for mapping between client entities and DTOs.
-     * @param geocodingClientRepository The repository for accessing the Google Maps Geocoding API.
+     * @param geocodingService          The service for resolving addresses to coordinates.
      * @param alternativeContactService The service for managing alternative contacts.
      * @param validator                 The validator for validating client data.
+     * @param pageProperties            The configuration for paginated client listings.
+     * @param geocodingProperties       The geocoding configuration.
+     * @param eventPublisher            The publisher for client events.
+     * @param nameIndex                 The in-memory index answering name searches.
+     * @param searchProperties          The configuration for name searches.
+     * @param lookupCache               The cache answering lookups by ID, SIN and email.
+     * @param versionTracker            The version of the client listings, for their ETag.
      */
     @Autowired
     public ClientService(ClientRepository clientRepository,
                          ClientConverter clientConverter,
-                         GeocodingClientRepository geocodingClientRepository,
+                         GeocodingService geocodingService,
                          AlternativeContactRepository alternativeContactRepository,
                          AlternativeContactService alternativeContactService,
-                         Validator validator) {
+                         Validator validator,
+                         ClientPageProperties pageProperties,
+                         GeocodingProperties geocodingProperties,
+                         ApplicationEventPublisher eventPublisher,
+                         ClientNameTrigramIndex nameIndex,
+                         ClientSearchProperties searchProperties,
+                         ClientLookupCache lookupCache,
+                         ClientCollectionVersionTracker versionTracker) {
         this.clientRepository = clientRepository;
         this.alternativeContactRepository = alternativeContactRepository;
         this.clientConverter = clientConverter;
-        this.geocodingClientRepository = geocodingClientRepository;
+        this.geocodingService = geocodingService;
         this.alternativeContactService = alternativeContactService;
         this.validator = validator;
+        this.pageProperties = pageProperties;
+        this.geocodingProperties = geocodingProperties;
+        this.eventPublisher = eventPublisher;
+        this.nameIndex = nameIndex;
+        this.searchProperties = searchProperties;
+        this.lookupCache = lookupCache;
+        this.versionTracker = versionTracker;
     }
 
     /**
-     * Retrieves a list of all clients.
+     * Retrieves one page of active clients, ordered by name and ID.
      *
-     * @return A sorted list of ClientResponseDTOs representing all clients.
+     * @param cursor The opaque cursor returned with the previous page, or null for the first page.
+     * @param size   The requested page size, or null to use the configured default.
+     * @return A ClientPageDTO with the clients of the page and the cursor for the next one.
+     * @throws InvalidClientDataException If the cursor is malformed.
      */
-    public List<ClientResponseDTO> getAllClients() {
+    public ClientPageDTO getAllClients(String cursor, Integer size) {
         String traceId = generateTraceId();
-        logger.info("[TRACE-ID: {}] - Starting retrieval of all clients.", traceId);
+        int pageSize = resolvePageSize(size);
+        logger.info("[TRACE-ID: {}] - Starting retrieval of clients page. Size: {}", traceId, pageSize);
+
+        List<Long> ids = findPageIds(cursor, pageSize);
+        boolean hasNext = ids.size() > pageSize;
+        List<ClientEntity> pageClients = ids.isEmpty()
+                ? List.of()
+                : clientRepository.findAllWithContactsByIdIn(hasNext ? ids.subList(0, pageSize) : ids);
 
-        List<ClientEntity> clients = clientRepository.findAllByDeletedFalse();
         // Use clientConverter for conversion
-        List<ClientResponseDTO> clientResponseDTOs = clients.stream()
+        List<ClientResponseDTO> clientResponseDTOs = pageClients.stream()
                 .map(clientConverter::convertEntityToResponseDTO)
-                .sorted(Comparator.comparing(ClientResponseDTO::getName))
                 .collect(Collectors.toList());
 
-        logger.info("[TRACE-ID: {}] - Retrieval of all clients completed successfully. Number of clients found: {}", traceId, clientResponseDTOs.size());
-        return clientResponseDTOs;
+        ClientPageDTO page = new ClientPageDTO();
+        page.setItems(clientResponseDTOs);
+        page.setSize(clientResponseDTOs.size());
+        if (hasNext) {
+            ClientEntity last = pageClients.get(pageClients.size() - 1);
+            page.setNext(ClientCursor.encode(last.getName(), last.getId()));
+        }
+
+        logger.info("[TRACE-ID: {}] - Retrieval of clients page completed successfully. Number of clients found: {}", traceId, clientResponseDTOs.size());
+        return page;
+    }
+
+    /**
+     * Retrieves one page of active clients with only the requested fields, ordered by name and ID.
+     * Only the columns behind the fields are selected; contacts are loaded, and map links generated,
+     * only when requested.
+     *
+     * @param cursor The opaque cursor returned with the previous page, or null for the first page.
+     * @param size   The requested page size, or null to use the configured default.
+     * @param fields The requested fields.
+     * @return A ClientFieldsPageDTO with the clients of the page and the cursor for the next one.
+     * @throws InvalidClientDataException If the cursor is malformed.
+     */
+    public ClientFieldsPageDTO getAllClients(String cursor, Integer size, Set<ClientField> fields) {
+        String traceId = generateTraceId();
+        int pageSize = resolvePageSize(size);
+        logger.info("[TRACE-ID: {}] - Starting retrieval of clients page. Size: {}, fields: {}", traceId, pageSize, fields);
+
+        List<Long> ids = findPageIds(cursor, pageSize);
+        boolean hasNext = ids.size() > pageSize;
+        List<Tuple> pageClients = ids.isEmpty()
+                ? List.of()
+                : clientRepository.findFieldsByIdIn(hasNext ? ids.subList(0, pageSize) : ids, fields);
+
+        ClientFieldsPageDTO page = new ClientFieldsPageDTO();
+        page.setItems(convertToFieldsDTOs(pageClients, fields));
+        page.setSize(pageClients.size());
+        if (hasNext) {
+            Tuple last = pageClients.get(pageClients.size() - 1);
+            page.setNext(ClientCursor.encode(last.get("name", String.class), last.get("id", Long.class)));
+        }
+
+        logger.info("[TRACE-ID: {}] - Retrieval of clients page completed successfully. Number of clients found: {}", traceId, pageClients.size());
+        return page;
     }
 
     /**
@@ -96,11 +192,9 @@ public class ClientService {
         String traceId = generateTraceId();
         logger.info("[TRACE-ID: {}] - Retrieving client with ID: {}", traceId, id);
 
-        Optional<ClientEntity> optionalClient = clientRepository.findById(id)
-                .filter(client -> !client.isDeleted());
-
-        // Use clientConverter for conversion
-        ClientResponseDTO clientResponseDTO = optionalClient.map(clientConverter::convertEntityToResponseDTO)
+        // Answered from the lookup cache when possible; the database is only read on a miss
+        ClientResponseDTO clientResponseDTO = lookupCache.getById(id, () -> clientRepository.findById(id)
+                        .filter(client -> !client.isDeleted()))
                 .orElseThrow(() -> {
                     logger.error("[TRACE-ID: {}] - Client with ID: {} not found.", traceId, id);
                     return new ClientNotFoundException("Client not found with ID: " + id);
@@ -110,13 +204,56 @@ public class ClientService {
         return clientResponseDTO;
     }
 
+    /**
+     * Retrieves a client by ID with only the requested fields, selecting only the columns behind them.
+     *
+     * @param id     The ID of the client to retrieve.
+     * @param fields The requested fields.
+     * @return A ClientFieldsDTO holding the requested fields of the client.
+     * @throws ClientNotFoundException If no client with the given ID is found.
+     */
+    public ClientFieldsDTO getClientById(Long id, Set<ClientField> fields) {
+        String traceId = generateTraceId();
+        logger.info("[TRACE-ID: {}] - Retrieving fields {} of client with ID: {}", traceId, fields, id);
+
+        List<ClientFieldsDTO> clients = convertToFieldsDTOs(clientRepository.findFieldsByIdIn(List.of(id), fields), fields);
+        if (clients.isEmpty()) {
+            logger.error("[TRACE-ID: {}] - Client with ID: {} not found.", traceId, id);
+            throw new ClientNotFoundException("Client not found with ID: " + id);
+        }
+
+        logger.info("[TRACE-ID: {}] - Client with ID: {} retrieved successfully.", traceId, id);
+        return clients.get(0);
+    }
+
+    /**
+     * Looks up the entity tag of a client without loading it, to answer conditional GETs.
+     *
+     * @param id The ID of the client.
+     * @return The current tag, or empty if the client does not exist, is deleted or has no modification time.
+     */
+    public Optional<String> getClientETag(Long id) {
+        return clientRepository.findUpdatedAtById(id).map(updatedAt -> ClientETag.forClient(id, updatedAt));
+    }
+
+    /**
+     * Looks up the entity tag shared by the client listings, to answer conditional GETs.
+     * Read it before the listing itself, so a change made in between gives an older tag, not a stale body.
+     *
+     * @return The current tag of the listings.
+     */
+    public String getCollectionETag() {
+        return ClientETag.forCollection(versionTracker.currentVersion());
+    }
+
     /**
      * Creates a new client.
      *
      * @param clientDTO The ClientDTO representing the client to create.
      * @return A ClientResponseDTO representing the created client.
-     * @throws ClientAlreadyExistsException If a client with the same email and SIN number already exists.
-     * @throws InvalidClientDataException   If the provided client data is invalid.
+     * @throws DataIntegrityViolationException If an active client with the same email and SIN number
+     *                                         already exists; raised when the transaction is flushed.
+     * @throws InvalidClientDataException      If the provided client data is invalid.
      */
     @Transactional
     public ClientResponseDTO createClient(ClientDTO clientDTO) {
@@ -126,22 +263,42 @@ public class ClientService {
         // Validate client data
         validateClientDTO(clientDTO, traceId);
 
-        if (clientRepository.findByEmailAndSinNumberAndDeletedFalse(clientDTO.getEmail(), clientDTO.getSinNumber()).isPresent()) {
-            logger.error("[TRACE-ID: {}] - A client with email: {} and SIN number: {} already exists.", traceId, clientDTO.getEmail(), clientDTO.getSinNumber());
-            throw new ClientAlreadyExistsException("Client with this email and SIN number already exists.");
-        }
+        // Duplicates are rejected by the ux_clients_email_sin_active index when the insert is flushed;
+        // GlobalExceptionHandler translates the violation into a ClientAlreadyExistsException response
 
-        String address = String.format("%s, %s, %s, %s",
+        String address = GeocodingService.formatAddress(
                 clientDTO.getAddress(), clientDTO.getCity(), clientDTO.getProvince(), clientDTO.getPostalCode());
-
-        double[] coordinates = getCoordinatesFromAddress(address, traceId);
-        GeoCoordinatesEntity geoCoordinates = new GeoCoordinatesEntity();
-        geoCoordinates.setLatitude(coordinates[0]);
-        geoCoordinates.setLongitude(coordinates[1]);
+        boolean asyncGeocoding = geocodingProperties.getMode() == GeocodingProperties.Mode.ASYNC;
 
         ClientEntity clientEntity = clientConverter.convertDTOToEntity(clientDTO);
-        clientEntity.setGeoCoordinates(geoCoordinates);
+        if (asyncGeocoding) {
+            // Do not hold the transaction open for the API call; GeocodingWorker fills in the coordinates
+            clientEntity.setGeoCoordinates(null);
+            clientEntity.setGeocodeStatus(GeocodeStatus.PENDING);
+        } else {
+            try {
+                double[] coordinates = getCoordinatesFromAddress(address, traceId);
+                GeoCoordinatesEntity geoCoordinates = new GeoCoordinatesEntity();
+                geoCoordinates.setLatitude(coordinates[0]);
+                geoCoordinates.setLongitude(coordinates[1]);
+                clientEntity.setGeoCoordinates(geoCoordinates);
+                clientEntity.setGeocodeStatus(GeocodeStatus.RESOLVED);
+            } catch (GeocodingUnavailableException e) {
+                if (!geocodingProperties.isDeferWhenUnavailable()) {
+                    throw e;
+                }
+                // Save without coordinates rather than failing; GeocodingWorker retries later
+                logger.warn("[TRACE-ID: {}] - Geocoding unavailable, deferring geocoding of the new client.", traceId);
+                asyncGeocoding = true;
+                clientEntity.setGeoCoordinates(null);
+                clientEntity.setGeocodeStatus(GeocodeStatus.PENDING);
+            }
+        }
         ClientEntity savedClient = clientRepository.save(clientEntity);
+        eventPublisher.publishEvent(ClientChangedEvent.of(savedClient, ClientChangedEvent.ChangeType.CREATED));
+        if (asyncGeocoding) {
+            eventPublisher.publishEvent(new ClientGeocodingRequestedEvent(savedClient.getId(), address));
+        }
 
         // Save alternative contacts using AlternativeContactService
         alternativeContactService.saveAlternativeContacts(savedClient, clientDTO.getAlternativeContacts(), traceId);
@@ -225,8 +382,10 @@ public class ClientService {
             alternativeContactRepository.saveAll(existingClient.getAlternativeContacts());
         }
 
-        // Atualizar o cliente principal
+        // Atualizar o cliente principal; updatedAt is set explicitly so contact-only changes also change the ETag
+        existingClient.setUpdatedAt(LocalDateTime.now());
         clientRepository.save(existingClient);
+        eventPublisher.publishEvent(ClientChangedEvent.of(existingClient, ClientChangedEvent.ChangeType.UPDATED));
 
         // Retornar o cliente atualizado como ClientResponseDTO
         return clientConverter.convertEntityToResponseDTO(existingClient);
@@ -250,6 +409,7 @@ public class ClientService {
                 });
         client.setDeleted(true);
         clientRepository.save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(client, ClientChangedEvent.ChangeType.DELETED));
         logger.info("[TRACE-ID: {}] - Client with ID: {} soft deleted successfully.", traceId, id);
     }
 
@@ -271,30 +431,69 @@ public class ClientService {
                 });
         client.setDeleted(false);
         clientRepository.save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(client, ClientChangedEvent.ChangeType.ACTIVATED));
         logger.info("[TRACE-ID: {}] - Client with ID: {} activated successfully.", traceId, id);
     }
 
     /**
      * Searches for clients by name, returning a sorted list of matches.
+     * Answered by the in-memory name index once it is loaded, and by the database until then.
      *
-     * @param name The name to search for (case-insensitive).
+     * @param name  The name to search for (case-insensitive).
+     * @param limit The maximum number of matches to return, or null to use the configured default.
      * @return A sorted list of ClientResponseDTOs matching the search criteria.
      */
-    public List<ClientResponseDTO> searchClientsByName(String name) {
+    public List<ClientResponseDTO> searchClientsByName(String name, Integer limit) {
         String traceId = generateTraceId();
+        int maxResults = resolveSearchLimit(limit);
         logger.info("[TRACE-ID: {}] - Searching for clients by name: {}", traceId, name);
 
-        List<ClientEntity> clients = clientRepository.findByNameContainingIgnoreCaseAndDeletedFalse(name);
+        List<ClientEntity> clients;
+        if (nameIndex.isReady()) {
+            List<Long> ids = nameIndex.search(name, maxResults);
+            clients = ids.isEmpty() ? List.of() : clientRepository.findAllWithContactsByIdIn(ids);
+        } else {
+            clients = clientRepository.findByNameContainingIgnoreCaseAndDeletedFalse(name);
+        }
         // Use clientConverter for conversion
         List<ClientResponseDTO> clientResponseDTOs = clients.stream()
                 .map(clientConverter::convertEntityToResponseDTO)
                 .sorted(Comparator.comparing(ClientResponseDTO::getName)) // Sorting by name (A-Z)
+                .limit(maxResults)
                 .collect(Collectors.toList());
 
         logger.info("[TRACE-ID: {}] - Search completed successfully. {} clients found for name: {}", traceId, clientResponseDTOs.size(), name);
         return clientResponseDTOs;
     }
 
+    /**
+     * Searches for clients by name with only the requested fields, returning a list sorted by name.
+     * Only the columns behind the fields are selected; contacts are loaded, and map links generated,
+     * only when requested.
+     *
+     * @param name   The name to search for (case-insensitive).
+     * @param limit  The maximum number of matches to return, or null to use the configured default.
+     * @param fields The requested fields.
+     * @return A sorted list of ClientFieldsDTOs matching the search criteria.
+     */
+    public List<ClientFieldsDTO> searchClientsByName(String name, Integer limit, Set<ClientField> fields) {
+        String traceId = generateTraceId();
+        int maxResults = resolveSearchLimit(limit);
+        logger.info("[TRACE-ID: {}] - Searching for clients by name: {}, fields: {}", traceId, name, fields);
+
+        List<Tuple> clients;
+        if (nameIndex.isReady()) {
+            List<Long> ids = nameIndex.search(name, maxResults);
+            clients = ids.isEmpty() ? List.of() : clientRepository.findFieldsByIdIn(ids, fields);
+        } else {
+            clients = clientRepository.findFieldsByNameContaining(name, fields, maxResults);
+        }
+        List<ClientFieldsDTO> clientFieldsDTOs = convertToFieldsDTOs(clients, fields);
+
+        logger.info("[TRACE-ID: {}] - Search completed successfully. {} clients found for name: {}", traceId, clientFieldsDTOs.size(), name);
+        return clientFieldsDTOs;
+    }
+
     /**
      * Retrieves a client by email.
      *
@@ -306,9 +505,8 @@ public class ClientService {
         String traceId = generateTraceId();
         logger.info("[TRACE-ID: {}] - Retrieving client by email: {}", traceId, email);
 
-        Optional<ClientEntity> optionalClient = clientRepository.findByEmailAndSinNumberAndDeletedFalse(email, "");
-        // Use clientConverter for conversion
-        ClientResponseDTO clientResponseDTO = optionalClient.map(clientConverter::convertEntityToResponseDTO)
+        ClientResponseDTO clientResponseDTO = lookupCache.getByEmail(email,
+                        () -> clientRepository.findByEmailAndSinNumberAndDeletedFalse(email, ""))
                 .orElseThrow(() -> {
                     logger.error("[TRACE-ID: {}] - Client with email: {} not found.", traceId, email);
                     return new ClientNotFoundException("Client not found with email: " + email);
@@ -329,9 +527,8 @@ public class ClientService {
         String traceId = generateTraceId();
         logger.info("[TRACE-ID: {}] - Retrieving client by SIN number: {}", traceId, sinNumber);
 
-        Optional<ClientEntity> optionalClient = clientRepository.findBySinNumberAndDeletedFalse(sinNumber);
-        // Use clientConverter for conversion
-        ClientResponseDTO clientResponseDTO = optionalClient.map(clientConverter::convertEntityToResponseDTO)
+        ClientResponseDTO clientResponseDTO = lookupCache.getBySinNumber(sinNumber,
+                        () -> clientRepository.findBySinNumberAndDeletedFalse(sinNumber))
                 .orElseThrow(() -> {
                     logger.error("[TRACE-ID: {}] - Client with SIN number: {} not found.", traceId, sinNumber);
                     return new ClientNotFoundException("Client not found with SIN: " + sinNumber);
@@ -343,28 +540,19 @@ public class ClientService {
 
     /**
      * Retrieves geographic coordinates for a given address using the Google Maps Geocoding API.
+     * Recently resolved addresses are answered by the GeocodingService cache.
      *
      * @param address The address to geocode.
      * @param traceId A unique identifier for tracking the request.
      * @return An array of doubles containing the latitude and longitude.
-     * @throws GeocodingApiException If the geocoding request fails or returns an error.
+     * @throws GeocodingUnavailableException If the API is isolated by the circuit breaker or bulkhead.
+     * @throws GeocodingApiException         If the geocoding request fails or returns an error.
      */
     public double[] getCoordinatesFromAddress(String address, String traceId) {
         try {
-            logger.debug("[TRACE-ID: {}] - Getting coordinates for address: {}", traceId, address);
-            String accessToken = GeocodingClientRepository.getAccessToken();
-            GeocodingResponseDTO response = geocodingClientRepository.getCoordinates(address, accessToken);
-
-            if ("OK".equals(response.getStatus())) {
-                double latitude = response.getResults().get(0).getGeometry().getLocation().getLat();
-                double longitude = response.getResults().get(0).getGeometry().getLocation().getLng();
-                logger.debug("[TRACE-ID: {}] - Coordinates retrieved successfully. Latitude: {}, Longitude: {}", traceId, latitude, longitude);
-                return new double[]{latitude, longitude};
-            } else {
-                String errorMessage = String.format("Geocoding API request failed with status: %s for address: %s", response.getStatus(), address);
-                logger.error("[TRACE-ID: {}] - {}", traceId, errorMessage);
-                throw new GeocodingApiException(errorMessage, null);
-            }
+            return geocodingService.getCoordinates(address, traceId);
+        } catch (GeocodingUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             String errorMessage = String.format("Failed to retrieve coordinates from address: %s", address);
             logger.error("[TRACE-ID: {}] - {}. Error: {}", traceId, errorMessage, e.getMessage());
@@ -390,6 +578,71 @@ public class ClientService {
         }
     }
 
+    /**
+     * Finds the IDs of one page of active clients, plus one to tell whether another page follows.
+     *
+     * @param cursor   The cursor of the page, or null for the first page.
+     * @param pageSize The page size.
+     * @return Up to pageSize + 1 IDs, ordered by name and ID.
+     * @throws InvalidClientDataException If the cursor is malformed.
+     */
+    private List<Long> findPageIds(String cursor, int pageSize) {
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return clientRepository.findFirstPageIds(limit);
+        }
+        ClientCursor position = ClientCursor.decode(cursor);
+        return clientRepository.findPageIdsAfter(position.getName(), position.getId(), limit);
+    }
+
+    /**
+     * Converts selected client rows, loading the contacts of all of them in one query if requested.
+     *
+     * @param clients The selected client rows.
+     * @param fields  The requested fields.
+     * @return The ClientFieldsDTOs, in the order of the rows.
+     */
+    private List<ClientFieldsDTO> convertToFieldsDTOs(List<Tuple> clients, Set<ClientField> fields) {
+        boolean withContacts = fields.contains(ClientField.ALTERNATIVE_CONTACTS) && !clients.isEmpty();
+        Map<Long, List<AlternativeContactView>> contactsByClient = withContacts
+                ? alternativeContactRepository.findViewsByClientIdIn(clients.stream()
+                        .map(client -> client.get("id", Long.class))
+                        .collect(Collectors.toList())).stream()
+                        .collect(Collectors.groupingBy(AlternativeContactView::getClientId))
+                : Map.of();
+        return clients.stream()
+                .map(client -> clientConverter.convertTupleToFieldsDTO(client, fields, withContacts
+                        ? contactsByClient.getOrDefault(client.get("id", Long.class), List.of())
+                        : null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves the effective page size, applying the configured default and upper bound.
+     *
+     * @param size The requested page size, may be null.
+     * @return The page size to use.
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return pageProperties.getDefaultSize();
+        }
+        return Math.min(size, pageProperties.getMaxSize());
+    }
+
+    /**
+     * Resolves the effective search limit, applying the configured default and upper bound.
+     *
+     * @param limit The requested limit, may be null.
+     * @return The limit to use.
+     */
+    private int resolveSearchLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return searchProperties.getDefaultLimit();
+        }
+        return Math.min(limit, searchProperties.getMaxLimit());
+    }
+
     /**
      * Generates a unique trace ID for the request.
      *
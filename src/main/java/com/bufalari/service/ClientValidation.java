@@ -0,0 +1,46 @@
+package com.bufalari.service;
+
+import com.bufalari.dto.ClientDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validates clients created in bulk, where each client is reported on instead of failing the request.
+ * Shared by ClientBatchService and ClientImportService.
+ */
+final class ClientValidation {
+
+    private ClientValidation() {
+    }
+
+    /**
+     * @param validator The validator for validating client data.
+     * @param clientDTO The client to validate.
+     * @return The constraint violation messages, sorted and comma separated, or null if the client is valid.
+     */
+    static String validate(Validator validator, ClientDTO clientDTO) {
+        if (clientDTO == null) {
+            return "Client must not be null";
+        }
+        Set<ConstraintViolation<ClientDTO>> violations = validator.validate(clientDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * @param email     The client's email.
+     * @param sinNumber The client's SIN number.
+     * @return The key identifying an active client, matching the unique index on (email, sin_number).
+     */
+    static String key(String email, String sinNumber) {
+        return email + '\u0000' + sinNumber;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bufalari.service;
+
+import lombok.Value;
+
+/**
+ * Outcome of geocoding one address: either coordinates or a definitive "no results" answer.
+ */
+@Value
+public class GeocodeResult {
+
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_ZERO_RESULTS = "ZERO_RESULTS";
+
+    String status;
+    Double latitude;
+    Double longitude;
+
+    public static GeocodeResult found(double latitude, double longitude) {
+        return new GeocodeResult(STATUS_OK, latitude, longitude);
+    }
+
+    public static GeocodeResult notFound() {
+        return new GeocodeResult(STATUS_ZERO_RESULTS, null, null);
+    }
+
+    public boolean isFound() {
+        return STATUS_OK.equals(status);
+    }
+}
@@ -0,0 +1,357 @@
+package com.bufalari.service;
+
+import com.bufalari.config.GeocodingProperties;
+import com.bufalari.dto.GeocodingResponseDTO;
+import com.bufalari.dto.LocationDTO;
+import com.bufalari.entity.GeocodeCacheEntity;
+import com.bufalari.exception.GeocodingApiException;
+import com.bufalari.exception.GeocodingUnavailableException;
+import com.bufalari.repository.GeocodeCacheRepository;
+import com.bufalari.repository.GeocodingClientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Service class for resolving addresses to coordinates through the Google Maps Geocoding API.
+ * Lookups go through a bounded in-memory cache, then the geocode_cache table shared by all nodes,
+ * and only then to the API, which is guarded by a circuit breaker and a bulkhead.
+ */
+@Service
+public class GeocodingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingService.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern COMMA = Pattern.compile("\\s*,\\s*");
+
+    // Name of the circuit breaker and bulkhead configured under resilience4j.*.instances
+    private static final String RESILIENCE_INSTANCE = "geocoding";
+
+    private final GeocodingClientRepository geocodingClientRepository;
+    private final GeocodeCacheRepository geocodeCacheRepository;
+    private final GeocodingProperties.Store storeProperties;
+    private final Executor refreshExecutor;
+    private final Cache<String, GeocodeResult> cache;
+    private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+
+    /**
+     * Constructor for GeocodingService.
+     *
+     * @param geocodingClientRepository The repository for accessing the Google Maps Geocoding API.
+     * @param geocodeCacheRepository    The repository for the persistent geocode cache.
+     * @param geocodingProperties       The geocoding configuration.
+     * @param meterRegistry             The registry the cache statistics are published to.
+     * @param refreshExecutor           The executor refreshing stale persistent cache entries.
+     * @param circuitBreakerRegistry    The registry holding the "geocoding" circuit breaker.
+     * @param bulkheadRegistry          The registry holding the "geocoding" bulkhead.
+     */
+    @Autowired
+    public GeocodingService(GeocodingClientRepository geocodingClientRepository,
+                            GeocodeCacheRepository geocodeCacheRepository,
+                            GeocodingProperties geocodingProperties,
+                            MeterRegistry meterRegistry,
+                            @Qualifier("geocodingRefreshExecutor") Executor refreshExecutor,
+                            CircuitBreakerRegistry circuitBreakerRegistry,
+                            BulkheadRegistry bulkheadRegistry) {
+        this.geocodingClientRepository = geocodingClientRepository;
+        this.geocodeCacheRepository = geocodeCacheRepository;
+        this.storeProperties = geocodingProperties.getStore();
+        this.refreshExecutor = refreshExecutor;
+        GeocodingProperties.Cache cacheProperties = geocodingProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfter(new ResultExpiry(cacheProperties))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "geocoding");
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        this.circuitOpenRejections = Counter.builder("geocoding.calls.rejected")
+                .description("Geocoding API calls rejected without being attempted")
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        this.bulkheadFullRejections = Counter.builder("geocoding.calls.rejected")
+                .description("Geocoding API calls rejected without being attempted")
+                .tag("reason", "bulkhead_full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolves an address to coordinates, answering from the in-memory cache or the geocode_cache
+     * table when the same address (after normalization) was resolved before.
+     *
+     * @param address The address to geocode.
+     * @param traceId A unique identifier for tracking the request.
+     * @return An array of doubles containing the latitude and longitude.
+     * @throws GeocodingApiException If the address cannot be resolved or the request fails.
+     */
+    public double[] getCoordinates(String address, String traceId) {
+        GeocodeResult result = resolve(address, traceId);
+        if (!result.isFound()) {
+            String errorMessage = String.format("Geocoding API request failed with status: %s for address: %s", result.getStatus(), address);
+            logger.error("[TRACE-ID: {}] - {}", traceId, errorMessage);
+            throw new GeocodingApiException(errorMessage, null);
+        }
+        return new double[]{result.getLatitude(), result.getLongitude()};
+    }
+
+    /**
+     * Resolves an address to a definitive result, which may be "not found". Unlike
+     * {@link #getCoordinates(String, String)} this lets callers tell an unknown address
+     * (not worth retrying) from a failed request (worth retrying).
+     *
+     * @param address The address to geocode.
+     * @param traceId A unique identifier for tracking the request.
+     * @return The geocoding result.
+     * @throws GeocodingApiException If the request fails or the API answers with a transient error.
+     */
+    public GeocodeResult resolve(String address, String traceId) {
+        String key = normalizeAddress(address);
+        GeocodeResult result = cache.getIfPresent(key);
+        if (result != null) {
+            logger.debug("[TRACE-ID: {}] - Geocoding cache hit for address: {}", traceId, address);
+            return result;
+        }
+        result = loadStoredResult(key, traceId);
+        if (result == null) {
+            result = requestCoordinates(address, traceId);
+            storeResult(key, result, traceId);
+            cache.put(key, result);
+        } else {
+            // A background refresh may already have cached a newer result
+            cache.asMap().putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Looks up an address in the geocode_cache table. Entries past the TTL are ignored; entries past
+     * the refresh age are returned and re-geocoded in the background.
+     *
+     * @param key     The normalized address.
+     * @param traceId A unique identifier for tracking the request.
+     * @return The stored result, or null if there is no usable entry.
+     */
+    private GeocodeResult loadStoredResult(String key, String traceId) {
+        if (!storeProperties.isEnabled()) {
+            return null;
+        }
+        try {
+            Optional<GeocodeCacheEntity> stored = geocodeCacheRepository.findByAddressHash(hashAddress(key));
+            if (stored.isEmpty()) {
+                return null;
+            }
+            GeocodeCacheEntity entry = stored.get();
+            LocalDateTime now = LocalDateTime.now();
+            if (entry.getResolvedAt().isBefore(now.minus(storeProperties.getTtl()))) {
+                return null;
+            }
+            if (entry.getResolvedAt().isBefore(now.minus(storeProperties.getRefreshAfter()))) {
+                scheduleRefresh(key);
+            }
+            logger.debug("[TRACE-ID: {}] - Geocode cache table hit for address: {}", traceId, key);
+            return new GeocodeResult(entry.getStatus(), entry.getLatitude(), entry.getLongitude());
+        } catch (RuntimeException e) {
+            // The table is an optimization; geocoding must keep working without it. The lookup runs in its
+            // own transaction, so a failure does not affect the caller's
+            logger.warn("[TRACE-ID: {}] - Failed to read geocode cache table: {}", traceId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Persists a definitive geocoding result to the geocode_cache table, replacing an older entry.
+     *
+     * @param key     The normalized address.
+     * @param result  The result returned by the API.
+     * @param traceId A unique identifier for tracking the request.
+     */
+    private void storeResult(String key, GeocodeResult result, String traceId) {
+        if (!storeProperties.isEnabled()) {
+            return;
+        }
+        try {
+            // Upserted in its own transaction, so that neither a concurrent write of the same address
+            // nor any other failure here can roll back the client being created
+            geocodeCacheRepository.upsert(hashAddress(key), key, result.getLatitude(), result.getLongitude(),
+                    result.getStatus(), LocalDateTime.now());
+        } catch (RuntimeException e) {
+            logger.warn("[TRACE-ID: {}] - Failed to write geocode cache table: {}", traceId, e.getMessage());
+        }
+    }
+
+    /**
+     * Re-geocodes a stale entry in the background, at most once at a time per address.
+     *
+     * @param key The normalized address.
+     */
+    private void scheduleRefresh(String key) {
+        if (!refreshesInFlight.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                String traceId = UUID.randomUUID().toString();
+                try {
+                    GeocodeResult result = requestCoordinates(key, traceId);
+                    storeResult(key, result, traceId);
+                    cache.put(key, result);
+                    logger.debug("[TRACE-ID: {}] - Refreshed stale geocode cache entry for address: {}", traceId, key);
+                } catch (RuntimeException e) {
+                    logger.warn("[TRACE-ID: {}] - Failed to refresh geocode cache entry for address: {}. Error: {}", traceId, key, e.getMessage());
+                } finally {
+                    refreshesInFlight.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Rejected while the executor is saturated; a later lookup of the address schedules it again
+            refreshesInFlight.remove(key);
+        }
+    }
+
+    /**
+     * Calls the Geocoding API through the circuit breaker and the bulkhead. Only definitive answers
+     * (OK and ZERO_RESULTS) are returned; any other status is raised as an error so that it is not
+     * cached and counts as a failure for the circuit breaker.
+     *
+     * @param address The address to geocode.
+     * @param traceId A unique identifier for tracking the request.
+     * @return The geocoding result.
+     * @throws GeocodingUnavailableException If the circuit is open or too many calls are in flight.
+     * @throws GeocodingApiException         If the API answers with a transient or request error.
+     */
+    private GeocodeResult requestCoordinates(String address, String traceId) {
+        // The breaker is outermost so that an open circuit rejects without taking a bulkhead permit
+        Supplier<GeocodeResult> call = CircuitBreaker.decorateSupplier(circuitBreaker,
+                Bulkhead.decorateSupplier(bulkhead, () -> callGeocodingApi(address, traceId)));
+        try {
+            return call.get();
+        } catch (CallNotPermittedException e) {
+            circuitOpenRejections.increment();
+            logger.warn("[TRACE-ID: {}] - Geocoding circuit breaker is open, not calling the API for address: {}", traceId, address);
+            throw new GeocodingUnavailableException("Geocoding API is temporarily unavailable", e);
+        } catch (BulkheadFullException e) {
+            bulkheadFullRejections.increment();
+            logger.warn("[TRACE-ID: {}] - Too many concurrent geocoding calls, rejecting address: {}", traceId, address);
+            throw new GeocodingUnavailableException("Too many concurrent geocoding requests", e);
+        }
+    }
+
+    private GeocodeResult callGeocodingApi(String address, String traceId) {
+        logger.debug("[TRACE-ID: {}] - Getting coordinates for address: {}", traceId, address);
+        String accessToken = GeocodingClientRepository.getAccessToken();
+        GeocodingResponseDTO response = geocodingClientRepository.getCoordinates(address, accessToken);
+
+        if (GeocodeResult.STATUS_OK.equals(response.getStatus())) {
+            LocationDTO location = response.getResults().get(0).getGeometry().getLocation();
+            logger.debug("[TRACE-ID: {}] - Coordinates retrieved successfully. Latitude: {}, Longitude: {}", traceId, location.getLat(), location.getLng());
+            return GeocodeResult.found(location.getLat(), location.getLng());
+        }
+        if (GeocodeResult.STATUS_ZERO_RESULTS.equals(response.getStatus())) {
+            return GeocodeResult.notFound();
+        }
+        String errorMessage = String.format("Geocoding API request failed with status: %s for address: %s", response.getStatus(), address);
+        throw new GeocodingApiException(errorMessage, null);
+    }
+
+    /**
+     * Expires resolved addresses after the TTL and unresolvable ones after the shorter negative TTL.
+     */
+    private static class ResultExpiry implements Expiry<String, GeocodeResult> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        ResultExpiry(GeocodingProperties.Cache cacheProperties) {
+            this.ttlNanos = cacheProperties.getTtl().toNanos();
+            this.negativeTtlNanos = cacheProperties.getNegativeTtl().toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String address, GeocodeResult result, long currentTime) {
+            return result.isFound() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String address, GeocodeResult result, long currentTime, long currentDuration) {
+            return expireAfterCreate(address, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String address, GeocodeResult result, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Builds the single-line address sent to the Geocoding API from a client's address fields.
+     *
+     * @param address    The street address.
+     * @param city       The city.
+     * @param province   The province.
+     * @param postalCode The postal code.
+     * @return The address to geocode.
+     */
+    public static String formatAddress(String address, String city, String province, String postalCode) {
+        return String.format("%s, %s, %s, %s", address, city, province, postalCode);
+    }
+
+    /**
+     * Hashes a normalized address into the geocode_cache primary key.
+     *
+     * @param key The normalized address.
+     * @return The hex-encoded SHA-256 of the address.
+     */
+    static String hashAddress(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Normalizes an address so that trivially different spellings share one cache entry.
+     *
+     * @param address The address as built from the client data.
+     * @return The lower-cased address with collapsed whitespace and uniform comma spacing.
+     */
+    static String normalizeAddress(String address) {
+        String normalized = WHITESPACE.matcher(address.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return COMMA.matcher(normalized).replaceAll(", ");
+    }
+}
@@ -0,0 +1,163 @@
+package com.bufalari.service;
+
+import com.bufalari.config.GeocodingProperties;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
+import com.bufalari.repository.ClientRepository;
+import com.bufalari.util.GeoHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Background worker that geocodes clients saved as PENDING, either in ASYNC geocoding mode or
+ * because the API was unavailable when they were created.
+ * Attempts are retried with exponential backoff; clients left PENDING (for instance by a restart)
+ * are picked up again by a periodic sweep.
+ */
+@Component
+public class GeocodingWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingWorker.class);
+
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    private final GeocodingService geocodingService;
+    private final ClientRepository clientRepository;
+    private final GeocodingProperties geocodingProperties;
+    private final TaskScheduler scheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for GeocodingWorker.
+     *
+     * @param geocodingService    The service for resolving addresses to coordinates.
+     * @param clientRepository    The repository for accessing client data.
+     * @param geocodingProperties The geocoding configuration.
+     * @param scheduler           The scheduler running geocoding attempts.
+     * @param eventPublisher      The publisher for client change events.
+     */
+    @Autowired
+    public GeocodingWorker(GeocodingService geocodingService,
+                           ClientRepository clientRepository,
+                           GeocodingProperties geocodingProperties,
+                           @Qualifier("geocodingWorkerScheduler") TaskScheduler scheduler,
+                           ApplicationEventPublisher eventPublisher) {
+        this.geocodingService = geocodingService;
+        this.clientRepository = clientRepository;
+        this.geocodingProperties = geocodingProperties;
+        this.scheduler = scheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Queues a client for geocoding once the transaction that saved it has committed,
+     * so the worker never sees a client that does not exist yet.
+     *
+     * @param event The geocoding request.
+     */
+    @TransactionalEventListener
+    public void onGeocodingRequested(ClientGeocodingRequestedEvent event) {
+        submit(event.getClientId(), event.getAddress());
+    }
+
+    /**
+     * Re-queues clients that have been PENDING for longer than a sweep interval. Runs in both modes,
+     * since SYNC mode also defers geocoding while the API is unavailable.
+     */
+    // Bound as a Duration, so the interval takes the same forms ("5m", "PT5M") as the other properties
+    @Scheduled(fixedDelayString = "#{@geocodingProperties.async.sweepInterval.toMillis()}")
+    public void resubmitPendingClients() {
+        LocalDateTime updatedBefore = LocalDateTime.now().minus(geocodingProperties.getAsync().getSweepInterval());
+        List<ClientEntity> pending = clientRepository.findByGeocodeStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                GeocodeStatus.PENDING, updatedBefore, PageRequest.of(0, SWEEP_BATCH_SIZE));
+        for (ClientEntity client : pending) {
+            submit(client.getId(), GeocodingService.formatAddress(
+                    client.getAddress(), client.getCity(), client.getProvince(), client.getPostalCode()));
+        }
+    }
+
+    private void submit(Long clientId, String address) {
+        if (inFlight.add(clientId)) {
+            scheduler.schedule(() -> attempt(clientId, address, 1), Instant.now());
+        }
+    }
+
+    private void attempt(Long clientId, String address, int attempt) {
+        String traceId = UUID.randomUUID().toString();
+        try {
+            GeocodeResult result = geocodingService.resolve(address, traceId);
+            if (result.isFound()) {
+                String geohash = GeoHash.encode(result.getLatitude(), result.getLongitude(), GeoHash.MAX_PRECISION);
+                clientRepository.updateGeocoding(clientId, result.getLatitude(), result.getLongitude(), geohash, GeocodeStatus.RESOLVED, LocalDateTime.now());
+                publishUpdated(clientId);
+                logger.info("[TRACE-ID: {}] - Client with ID: {} geocoded successfully on attempt {}.", traceId, clientId, attempt);
+            } else {
+                clientRepository.updateGeocoding(clientId, null, null, null, GeocodeStatus.FAILED, LocalDateTime.now());
+                publishUpdated(clientId);
+                logger.warn("[TRACE-ID: {}] - Address of client with ID: {} could not be resolved: {}", traceId, clientId, result.getStatus());
+            }
+            inFlight.remove(clientId);
+        } catch (RuntimeException e) {
+            GeocodingProperties.Async async = geocodingProperties.getAsync();
+            if (attempt >= async.getMaxAttempts()) {
+                logger.error("[TRACE-ID: {}] - Geocoding of client with ID: {} failed after {} attempts. Error: {}", traceId, clientId, attempt, e.getMessage());
+                markFailed(clientId, traceId);
+                inFlight.remove(clientId);
+                return;
+            }
+            Duration delay = backoff(async, attempt);
+            logger.warn("[TRACE-ID: {}] - Geocoding attempt {} for client with ID: {} failed, retrying in {}. Error: {}", traceId, attempt, clientId, delay, e.getMessage());
+            scheduler.schedule(() -> attempt(clientId, address, attempt + 1), Instant.now().plus(delay));
+        }
+    }
+
+    private void markFailed(Long clientId, String traceId) {
+        try {
+            clientRepository.updateGeocoding(clientId, null, null, null, GeocodeStatus.FAILED, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // Left PENDING; the sweep will pick it up again
+            logger.error("[TRACE-ID: {}] - Failed to mark client with ID: {} as FAILED. Error: {}", traceId, clientId, e.getMessage());
+            return;
+        }
+        publishUpdated(clientId);
+    }
+
+    /**
+     * The bulk updates bypass the service, so the lookup cache, the indexes and the other nodes are told here.
+     */
+    private void publishUpdated(Long clientId) {
+        clientRepository.findById(clientId)
+                .ifPresent(client -> eventPublisher.publishEvent(ClientChangedEvent.of(client, ClientChangedEvent.ChangeType.UPDATED)));
+    }
+
+    /**
+     * Exponential backoff with jitter, so that retries after an outage do not arrive in lockstep.
+     */
+    static Duration backoff(GeocodingProperties.Async async, int attempt) {
+        long initial = async.getInitialBackoff().toMillis();
+        long max = async.getMaxBackoff().toMillis();
+        long exponential = initial << Math.min(attempt - 1, 30);
+        long ceiling = exponential <= 0 ? max : Math.min(exponential, max);
+        return Duration.ofMillis(ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1));
+    }
+}
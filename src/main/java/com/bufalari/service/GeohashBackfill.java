@@ -0,0 +1,73 @@
+package com.bufalari.service;
+
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeoCoordinatesEntity;
+import com.bufalari.repository.ClientRepository;
+import com.bufalari.util.GeoHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the geohash of clients geocoded before the column existed, so location queries can find them.
+ * New and updated clients get their geohash from {@link ClientEntity}, and the background geocoder
+ * writes it along with the coordinates.
+ */
+@Component
+public class GeohashBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeohashBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ClientRepository clientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor for GeohashBackfill.
+     *
+     * @param clientRepository   The repository for accessing client data.
+     * @param transactionManager The transaction manager used for each batch.
+     */
+    @Autowired
+    public GeohashBackfill(ClientRepository clientRepository, PlatformTransactionManager transactionManager) {
+        this.clientRepository = clientRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Updates the clients without a geohash in batches, one transaction per batch.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long updated = 0;
+        try {
+            Integer count;
+            do {
+                count = transactionTemplate.execute(status -> {
+                    List<ClientEntity> clients = clientRepository.findWithoutGeohash(PageRequest.of(0, BATCH_SIZE));
+                    for (ClientEntity client : clients) {
+                        GeoCoordinatesEntity coordinates = client.getGeoCoordinates();
+                        coordinates.setGeohash(GeoHash.encode(coordinates.getLatitude(), coordinates.getLongitude(), GeoHash.MAX_PRECISION));
+                    }
+                    return clients.size();
+                });
+                updated += count;
+            } while (count == BATCH_SIZE);
+        } catch (RuntimeException e) {
+            logger.error("Geohash backfill stopped after {} clients. Error: {}", updated, e.getMessage());
+            return;
+        }
+        if (updated > 0) {
+            logger.info("Backfilled the geohash of {} clients.", updated);
+        }
+    }
+}
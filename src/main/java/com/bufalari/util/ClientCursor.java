@@ -0,0 +1,62 @@
+package com.bufalari.util;
+
+import com.bufalari.exception.InvalidClientDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over the (name, id) ordering of clients.
+ */
+public final class ClientCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final String name;
+    private final Long id;
+
+    private ClientCursor(String name, Long id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Encodes the position of the last client on a page into an opaque cursor.
+     *
+     * @param name The name of the last client returned.
+     * @param id   The ID of the last client returned.
+     * @return A URL-safe cursor string.
+     */
+    public static String encode(String name, Long id) {
+        String raw = id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode(String, Long)}.
+     *
+     * @param cursor The opaque cursor string.
+     * @return The decoded cursor.
+     * @throws InvalidClientDataException If the cursor is malformed.
+     */
+    public static ClientCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new InvalidClientDataException("Invalid page cursor");
+            }
+            return new ClientCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidClientDataException("Invalid page cursor");
+        }
+    }
+}
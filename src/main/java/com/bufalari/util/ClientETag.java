@@ -0,0 +1,71 @@
+package com.bufalari.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Weak entity tags for client resources, derived from {@code ClientEntity.updatedAt} for one client and
+ * from the version kept by {@code ClientCollectionVersionTracker} for the listings.
+ * <p>
+ * Timestamps are truncated to microseconds, the precision the database stores, so a tag built from an
+ * entity still in memory after a save equals the tag built from the row read back later.
+ */
+public final class ClientETag {
+
+    private ClientETag() {
+    }
+
+    /**
+     * @param id        The client ID.
+     * @param updatedAt When the client was last changed.
+     * @return The tag of the client, or null if the client has no modification time.
+     */
+    public static String forClient(Long id, LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return null;
+        }
+        return "W/\"" + id + "-" + toMicros(updatedAt) + "\"";
+    }
+
+    /**
+     * Builds the tag of the client listings from their version, which every change to a client
+     * increments when it commits.
+     *
+     * @param version The current version of the listings.
+     * @return The tag of the collection.
+     */
+    public static String forCollection(long version) {
+        return "W/\"c" + version + "\"";
+    }
+
+    /**
+     * Compares an If-None-Match header with the current tag using the weak comparison GET requires.
+     *
+     * @param ifNoneMatch The If-None-Match header, may be null.
+     * @param etag        The current tag, may be null.
+     * @return True if the header lists the tag or is {@code *}.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaqueTag = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.MICROS);
+        return truncated.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + truncated.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,149 @@
+package com.bufalari.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Geohash encoding and the geometry helpers used by the location queries.
+ * <p>
+ * A geohash interleaves longitude and latitude bits and writes them in base 32, so every prefix
+ * names a rectangular cell and all points inside a cell share that prefix. Cells are therefore
+ * contiguous ranges of an index on the geohash column.
+ */
+public final class GeoHash {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private GeoHash() {
+    }
+
+    /**
+     * Encodes a point.
+     *
+     * @param latitude  Latitude in degrees, -90 to 90.
+     * @param longitude Longitude in degrees, -180 to 180.
+     * @param precision Number of characters, 1 to {@link #MAX_PRECISION}.
+     * @return The geohash of the cell of the given precision containing the point.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean lngBit = true;
+        int bits = 0;
+        int value = 0;
+        while (hash.length() < precision) {
+            if (lngBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLng = mid;
+                } else {
+                    value <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLat = mid;
+                } else {
+                    value <<= 1;
+                    maxLat = mid;
+                }
+            }
+            lngBit = !lngBit;
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(value));
+                bits = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * @return The height in degrees of a cell of the given precision.
+     */
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << (precision * 5 / 2));
+    }
+
+    /**
+     * @return The width in degrees of a cell of the given precision.
+     */
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((precision * 5 + 1) / 2));
+    }
+
+    /**
+     * Finds the smallest set of same-precision cells covering a circle, using the finest precision
+     * that needs at most {@code maxCells} cells.
+     *
+     * @param latitude  Latitude of the centre in degrees.
+     * @param longitude Longitude of the centre in degrees.
+     * @param radiusKm  Radius in kilometres.
+     * @param maxCells  Upper bound for the number of cells returned (at least 4).
+     * @return The geohashes of the covering cells.
+     */
+    public static Set<String> coveringCells(double latitude, double longitude, double radiusKm, int maxCells) {
+        double deltaLat = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double minLat = Math.max(-90, latitude - deltaLat);
+        double maxLat = Math.min(90, latitude + deltaLat);
+        double cosLat = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        // Near a pole the circle spans every longitude
+        double deltaLng = cosLat < 1e-9 ? 180 : Math.min(180, deltaLat / cosLat);
+        double minLng = longitude - deltaLng;
+        double maxLng = longitude + deltaLng;
+
+        int precision = MAX_PRECISION;
+        while (precision > 1 && cellCount(minLat, maxLat, minLng, maxLng, precision) > maxCells) {
+            precision--;
+        }
+
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = minLat; ; lat = Math.min(lat + height, maxLat)) {
+            for (double lng = minLng; ; lng = Math.min(lng + width, maxLng)) {
+                cells.add(encode(lat, normalizeLongitude(lng), precision));
+                if (lng >= maxLng) {
+                    break;
+                }
+            }
+            if (lat >= maxLat) {
+                break;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Great-circle distance between two points.
+     *
+     * @return The distance in kilometres.
+     */
+    public static double haversineKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLng = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellCount(double minLat, double maxLat, double minLng, double maxLng, int precision) {
+        long rows = (long) Math.ceil((maxLat - minLat) / cellHeight(precision)) + 1;
+        long columns = (long) Math.ceil((maxLng - minLng) / cellWidth(precision)) + 1;
+        return rows * columns;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        double normalized = ((longitude + 180) % 360 + 360) % 360 - 180;
+        return normalized == -180 && longitude > 0 ? 180 : normalized;
+    }
+}
@@ -1,85 +1,244 @@
 package com.bufalari.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Utility class for generating map links for different GPS applications.
+ * <p>
+ * Link templates are parsed once, when the generator is created, into literal text and {lat}/{lng}
+ * placeholders. The links of a location are returned as {@link MapLinks}, which only holds the
+ * coordinates and renders the links when they are read or serialized.
  */
 public class MapLinkGenerator {
 
+    public static final String LATITUDE = "{lat}";
+    public static final String LONGITUDE = "{lng}";
+
     /**
-     * Generates map links for various GPS applications based on latitude and longitude.
-     *
-     * @param latitude  The latitude of the location.
-     * @param longitude The longitude of the location.
-     * @return A map of GPS application names to their corresponding links.
+     * Templates of the supported GPS applications, in the order their links are returned.
      */
-    public static Map<String, String> generateMapLinks(double latitude, double longitude) {
-        Map<String, String> mapLinks = new LinkedHashMap<>();
+    public static final Map<String, String> DEFAULT_TEMPLATES = defaultTemplates();
 
-        mapLinks.put("googleMaps", generateGoogleMapsLink(latitude, longitude));
-        mapLinks.put("waze", generateWazeLink(latitude, longitude));
-        mapLinks.put("appleMaps", generateAppleMapsLink(latitude, longitude));
-        mapLinks.put("sygic", generateSygicLink(latitude, longitude));
-        mapLinks.put("hereWeGo", generateHereWeGoLink(latitude, longitude));
+    /**
+     * Generator for all supported GPS applications.
+     */
+    public static final MapLinkGenerator DEFAULT = new MapLinkGenerator(DEFAULT_TEMPLATES);
 
-        return mapLinks;
-    }
+    private static final long COORDINATE_SCALE = 10_000_000L; // 7 decimal places, about 1 cm
+    private static final int COORDINATE_DECIMALS = 7;
+    private static final double MAX_FIXED_POINT = 1e9;
+
+    private final String[] names;
+    private final LinkTemplate[] templates;
+    private final int maxLiteralLength;
 
     /**
-     * Generates a Google Maps link.
+     * Creates a generator for the given GPS applications.
      *
-     * @param latitude  The latitude of the location.
-     * @param longitude The longitude of the location.
-     * @return The Google Maps link.
+     * @param templates Link templates by GPS application name, with {lat} and {lng} placeholders,
+     *                  in the order the links should be returned.
+     * @throws IllegalArgumentException If a template contains neither placeholder.
      */
-    private static String generateGoogleMapsLink(double latitude, double longitude) {
-        return String.format("https://www.google.com/maps/search/?api=1&query=%s,%s", latitude, longitude);
+    public MapLinkGenerator(Map<String, String> templates) {
+        this.names = new String[templates.size()];
+        this.templates = new LinkTemplate[templates.size()];
+        int index = 0;
+        int longest = 0;
+        for (Map.Entry<String, String> entry : templates.entrySet()) {
+            names[index] = entry.getKey();
+            this.templates[index] = LinkTemplate.parse(entry.getKey(), entry.getValue());
+            longest = Math.max(longest, this.templates[index].literalLength);
+            index++;
+        }
+        this.maxLiteralLength = longest;
     }
 
     /**
-     * Generates a Waze link.
+     * Generates map links for all supported GPS applications based on latitude and longitude.
      *
      * @param latitude  The latitude of the location.
      * @param longitude The longitude of the location.
-     * @return The Waze link.
+     * @return A map of GPS application names to their corresponding links.
      */
-    private static String generateWazeLink(double latitude, double longitude) {
-        return String.format("https://waze.com/ul?ll=%s,%s&navigate=yes", latitude, longitude);
+    public static Map<String, String> generateMapLinks(double latitude, double longitude) {
+        return DEFAULT.links(latitude, longitude);
     }
 
     /**
-     * Generates an Apple Maps link.
+     * Creates the links of a location. Nothing is rendered until the links are read or serialized.
      *
      * @param latitude  The latitude of the location.
      * @param longitude The longitude of the location.
-     * @return The Apple Maps link.
+     * @return An immutable map of GPS application names to their corresponding links.
      */
-    private static String generateAppleMapsLink(double latitude, double longitude) {
-        return String.format("http://maps.apple.com/?daddr=%s,%s", latitude, longitude);
+    public MapLinks links(double latitude, double longitude) {
+        return new MapLinks(this, latitude, longitude);
     }
 
     /**
-     * Generates a Sygic link.
+     * Formats a coordinate with up to 7 decimal places and without an exponent, e.g. 43.6532 or -79.0.
+     * Integer arithmetic only; for coordinates this is what Double.toString returns, minus rounding noise
+     * beyond the 7th decimal.
      *
-     * @param latitude  The latitude of the location.
-     * @param longitude The longitude of the location.
-     * @return The Sygic link.
+     * @param value The coordinate.
+     * @return The coordinate as text.
      */
-    private static String generateSygicLink(double latitude, double longitude) {
-        return String.format("com.sygic.aura://coordinate|%s|%s", latitude, longitude);
+    public static String formatCoordinate(double value) {
+        if (!(Math.abs(value) < MAX_FIXED_POINT)) {
+            return Double.toString(value); // NaN, infinite or not a coordinate
+        }
+        long scaled = Math.round(value * COORDINATE_SCALE);
+        boolean negative = scaled < 0;
+        if (negative) {
+            scaled = -scaled;
+        }
+        long integer = scaled / COORDINATE_SCALE;
+        long fraction = scaled % COORDINATE_SCALE;
+        int decimals = COORDINATE_DECIMALS;
+        while (decimals > 1 && fraction % 10 == 0) {
+            fraction /= 10;
+            decimals--;
+        }
+
+        char[] buffer = new char[24];
+        int position = buffer.length;
+        for (int i = 0; i < decimals; i++) {
+            buffer[--position] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + integer % 10);
+            integer /= 10;
+        } while (integer > 0);
+        if (negative) {
+            buffer[--position] = '-';
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String name(int index) {
+        return names[index];
+    }
+
+    int indexOf(Object name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return A buffer large enough to render any of the links with the given coordinate texts.
+     */
+    char[] newBuffer(String latitude, String longitude) {
+        return new char[maxLiteralLength + LinkTemplate.MAX_PLACEHOLDERS * Math.max(latitude.length(), longitude.length())];
     }
 
     /**
-     * Generates a HERE WeGo link.
+     * Renders a link into the buffer.
      *
-     * @param latitude  The latitude of the location.
-     * @param longitude The longitude of the location.
-     * @return The HERE WeGo link.
+     * @return The length of the link.
      */
-    private static String generateHereWeGoLink(double latitude, double longitude) {
-        return String.format("https://wego.here.com/directions/mix//%s,%s", latitude, longitude);
+    int render(int index, char[] buffer, String latitude, String longitude) {
+        return templates[index].render(buffer, latitude, longitude);
+    }
+
+    String render(int index, String latitude, String longitude) {
+        char[] buffer = new char[templates[index].length(latitude, longitude)];
+        templates[index].render(buffer, latitude, longitude);
+        return new String(buffer);
+    }
+
+    private static Map<String, String> defaultTemplates() {
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put("googleMaps", "https://www.google.com/maps/search/?api=1&query={lat},{lng}");
+        templates.put("waze", "https://waze.com/ul?ll={lat},{lng}&navigate=yes");
+        templates.put("appleMaps", "http://maps.apple.com/?daddr={lat},{lng}");
+        templates.put("sygic", "com.sygic.aura://coordinate|{lat}|{lng}");
+        templates.put("hereWeGo", "https://wego.here.com/directions/mix//{lat},{lng}");
+        return Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * A template split into literal segments, with a coordinate placeholder between consecutive segments.
+     */
+    private static final class LinkTemplate {
+
+        private static final int MAX_PLACEHOLDERS = 4;
+
+        private final char[][] literals;
+        private final boolean[] latitudeAfter; // Placeholder following each literal but the last
+        private final int literalLength;
+
+        private LinkTemplate(char[][] literals, boolean[] latitudeAfter) {
+            this.literals = literals;
+            this.latitudeAfter = latitudeAfter;
+            int length = 0;
+            for (char[] literal : literals) {
+                length += literal.length;
+            }
+            this.literalLength = length;
+        }
+
+        static LinkTemplate parse(String name, String template) {
+            List<char[]> literals = new ArrayList<>();
+            List<Boolean> placeholders = new ArrayList<>();
+            int start = 0;
+            while (true) {
+                int latitude = template.indexOf(LATITUDE, start);
+                int longitude = template.indexOf(LONGITUDE, start);
+                int next = latitude < 0 ? longitude : longitude < 0 ? latitude : Math.min(latitude, longitude);
+                if (next < 0) {
+                    break;
+                }
+                literals.add(template.substring(start, next).toCharArray());
+                placeholders.add(next == latitude);
+                start = next + (next == latitude ? LATITUDE.length() : LONGITUDE.length());
+            }
+            literals.add(template.substring(start).toCharArray());
+            if (placeholders.isEmpty() || placeholders.size() > MAX_PLACEHOLDERS) {
+                throw new IllegalArgumentException("Map link template for " + name + " must contain between 1 and "
+                        + MAX_PLACEHOLDERS + " " + LATITUDE + "/" + LONGITUDE + " placeholders: " + template);
+            }
+            boolean[] latitudeAfter = new boolean[placeholders.size()];
+            for (int i = 0; i < latitudeAfter.length; i++) {
+                latitudeAfter[i] = placeholders.get(i);
+            }
+            return new LinkTemplate(literals.toArray(new char[0][]), latitudeAfter);
+        }
+
+        int length(String latitude, String longitude) {
+            int length = literalLength;
+            for (boolean isLatitude : latitudeAfter) {
+                length += isLatitude ? latitude.length() : longitude.length();
+            }
+            return length;
+        }
+
+        int render(char[] buffer, String latitude, String longitude) {
+            int position = 0;
+            for (int i = 0; i < literals.length; i++) {
+                char[] literal = literals[i];
+                System.arraycopy(literal, 0, buffer, position, literal.length);
+                position += literal.length;
+                if (i < latitudeAfter.length) {
+                    String coordinate = latitudeAfter[i] ? latitude : longitude;
+                    coordinate.getChars(0, coordinate.length(), buffer, position);
+                    position += coordinate.length();
+                }
+            }
+            return position;
+        }
     }
-}
\ No newline at end of file
+}
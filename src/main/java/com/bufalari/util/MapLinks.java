@@ -0,0 +1,139 @@
+package com.bufalari.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map of GPS application names to the map links of one location, created by {@link MapLinkGenerator}.
+ * <p>
+ * Only the coordinates are stored. Links are rendered each time they are read, and when serialized to
+ * JSON they are written straight from a reusable buffer, without creating a String per link.
+ */
+@JsonSerialize(using = MapLinks.Serializer.class)
+public final class MapLinks extends AbstractMap<String, String> {
+
+    private final MapLinkGenerator generator;
+    private final double latitude;
+    private final double longitude;
+    // Formatted on first use; a race only formats them twice
+    private String latitudeText;
+    private String longitudeText;
+
+    MapLinks(MapLinkGenerator generator, double latitude, double longitude) {
+        this.generator = generator;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    @Override
+    public int size() {
+        return generator.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return generator.indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = generator.indexOf(key);
+        return index < 0 ? null : generator.render(index, latitudeText(), longitudeText());
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < generator.size();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(generator.name(index),
+                                generator.render(index, latitudeText(), longitudeText()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return generator.size();
+            }
+        };
+    }
+
+    private String latitudeText() {
+        String text = latitudeText;
+        if (text == null) {
+            text = MapLinkGenerator.formatCoordinate(latitude);
+            latitudeText = text;
+        }
+        return text;
+    }
+
+    private String longitudeText() {
+        String text = longitudeText;
+        if (text == null) {
+            text = MapLinkGenerator.formatCoordinate(longitude);
+            longitudeText = text;
+        }
+        return text;
+    }
+
+    /**
+     * Writes the links as a JSON object, rendering each one into a buffer shared by all links.
+     */
+    static final class Serializer extends StdSerializer<MapLinks> {
+
+        Serializer() {
+            super(MapLinks.class);
+        }
+
+        @Override
+        public void serialize(MapLinks links, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            String latitude = links.latitudeText();
+            String longitude = links.longitudeText();
+            MapLinkGenerator linkGenerator = links.generator;
+            char[] buffer = linkGenerator.newBuffer(latitude, longitude);
+            generator.writeStartObject(links);
+            for (int i = 0; i < linkGenerator.size(); i++) {
+                generator.writeFieldName(linkGenerator.name(i));
+                generator.writeString(buffer, 0, linkGenerator.render(i, buffer, latitude, longitude));
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, MapLinks links) {
+            return links.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization=true).
+
+-- Tables created before the switch from IDENTITY to pooled sequences already hold IDs the new
+-- sequences know nothing about. Move each sequence past the highest existing ID plus one
+-- allocation block; GREATEST keeps this a no-op once the sequence is ahead.
+SELECT setval('clients_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM clients) + 50, (SELECT last_value FROM clients_seq)));
+SELECT setval('alternative_contacts_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM alternative_contacts) + 50, (SELECT last_value FROM alternative_contacts_seq)));
+
+-- At most one active client per email and SIN number. Creating a client relies on this index instead of
+-- looking for a duplicate first, so the check cannot race with a concurrent insert. Soft-deleted rows are
+-- excluded so a client can be re-created after deletion. GlobalExceptionHandler matches the index name.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_clients_email_sin_active ON clients (email, sin_number) WHERE NOT deleted;
+
+-- Version of the client listings (ClientCollectionVersionTracker), a single row incremented by every
+-- transaction that changes a client.
+INSERT INTO client_collection_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Replaced by ix_clients_geocode_status_updated_at; Hibernate's schema update does not drop indexes.
+DROP INDEX IF EXISTS ix_clients_updated_at;
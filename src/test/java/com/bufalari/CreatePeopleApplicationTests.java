@@ -2,8 +2,18 @@ package com.bufalari;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:contextloads;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.sql.init.mode=never", // schema-postgresql.sql only applies to Postgres
+		"clients.invalidation.transport=local" // LISTEN/NOTIFY needs Postgres
+})
 class CreatePeopleApplicationTests {
 
 	@Test
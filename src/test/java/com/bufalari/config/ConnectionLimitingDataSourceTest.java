@@ -0,0 +1,47 @@
+package com.bufalari.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+
+    private final ConnectionLimitingDataSource dataSource =
+            new ConnectionLimitingDataSource(pool, 2, Duration.ofMillis(50));
+
+    @Test
+    void testPermitIsHeldUntilConnectionIsClosed() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close(); // A second close must not release another permit
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(pooled, times(2)).close();
+
+        second.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testPermitIsReleasedWhenThePoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+}
@@ -0,0 +1,47 @@
+package com.bufalari.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private final ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("POST", "/clients"));
+
+    @Test
+    void testDuplicateEmailAndSinIsReportedAsExistingClient() {
+        DataIntegrityViolationException ex = violation("ux_clients_email_sin_active");
+
+        ResponseEntity<ErrorResponse> response = handler.handleDataIntegrityViolationException(ex, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Client with this email and SIN number already exists.", response.getBody().getMessage());
+        assertEquals("Please use a different email or SIN number.", response.getBody().getSuggestion());
+    }
+
+    @Test
+    void testOtherViolationsAreReportedAsConflict() {
+        DataIntegrityViolationException ex = violation("fk_alternative_contacts_client");
+
+        ResponseEntity<ErrorResponse> response = handler.handleDataIntegrityViolationException(ex, request);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNull(response.getBody().getSuggestion());
+    }
+
+    private DataIntegrityViolationException violation(String constraintName) {
+        ConstraintViolationException cause = new ConstraintViolationException("could not execute statement",
+                new SQLException("duplicate key value violates unique constraint", "23505"), constraintName);
+        return new DataIntegrityViolationException("could not execute statement", cause);
+    }
+}
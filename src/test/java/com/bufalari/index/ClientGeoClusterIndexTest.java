@@ -0,0 +1,69 @@
+package com.bufalari.index;
+
+import com.bufalari.config.ClientGeoProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientGeoClusterIndexTest {
+
+    private ClientGeoClusterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientGeoClusterIndex(new ClientGeoProperties());
+        index.put(new ClientIndexEntry(1L, "Toronto 1", 43.65, -79.38));
+        index.put(new ClientIndexEntry(2L, "Toronto 2", 43.67, -79.40));
+        index.put(new ClientIndexEntry(3L, "Montreal", 45.50, -73.57));
+        index.put(new ClientIndexEntry(4L, "Sydney", -33.87, 151.21));
+        index.put(new ClientIndexEntry(5L, "Not geocoded"));
+        index.markReady();
+    }
+
+    @Test
+    void testClusters_CountAndCentroidPerCell() {
+        // Zoom 6: Toronto and Montreal fall in different cells
+        List<ClientGeoClusterIndex.Cluster> clusters = index.clusters(40, -85, 50, -70, 6);
+
+        assertEquals(2, clusters.size());
+        ClientGeoClusterIndex.Cluster toronto = clusters.stream().filter(c -> c.getCount() == 2).findFirst().orElseThrow();
+        assertEquals(43.66, toronto.getLatitude(), 1e-9);
+        assertEquals(-79.39, toronto.getLongitude(), 1e-9);
+
+        // Zoom 0: the whole world is 2 x 2 cells
+        assertEquals(List.of(3, 1), index.clusters(-85, -180, 85, 180, 0).stream().map(ClientGeoClusterIndex.Cluster::getCount).toList());
+    }
+
+    @Test
+    void testClusters_AreUpdatedIncrementally() {
+        index.put(new ClientIndexEntry(2L, "Toronto 2", 45.51, -73.58)); // Moved to Montreal
+        index.remove(3L);
+        index.put(new ClientIndexEntry(1L, "Toronto 1")); // Coordinates cleared
+
+        List<ClientGeoClusterIndex.Cluster> clusters = index.clusters(40, -85, 50, -70, 6);
+
+        assertEquals(1, clusters.size());
+        assertEquals(1, clusters.get(0).getCount());
+        assertEquals(45.51, clusters.get(0).getLatitude(), 1e-9);
+    }
+
+    @Test
+    void testClusters_AcrossTheAntimeridian() {
+        index.put(new ClientIndexEntry(6L, "Fiji", -17.7, 178.0));
+        index.put(new ClientIndexEntry(7L, "Samoa", -13.8, -172.1));
+
+        assertEquals(2, index.clusters(-20, 170, -10, -170, 4).size());
+    }
+
+    @Test
+    void testClusters_CoarsenLargeBoxesToBoundThePayload() {
+        // The whole world at zoom 14 would span billions of cells
+        List<ClientGeoClusterIndex.Cluster> clusters = index.clusters(-85, -180, 85, 180, 14);
+
+        assertTrue(clusters.size() <= new ClientGeoProperties().getClusters().getMaxCells());
+        assertEquals(4, clusters.stream().mapToInt(ClientGeoClusterIndex.Cluster::getCount).sum());
+    }
+}
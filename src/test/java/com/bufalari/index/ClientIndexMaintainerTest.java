@@ -0,0 +1,117 @@
+package com.bufalari.index;
+
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientInvalidatedEvent;
+import com.bufalari.repository.ClientIndexView;
+import com.bufalari.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClientIndexMaintainerTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ClientNamePrefixIndex prefixIndex = new ClientNamePrefixIndex();
+
+    private final ClientLocationKdTree kdTree = new ClientLocationKdTree();
+
+    private final List<Runnable> rebuilds = new ArrayList<>();
+
+    private ClientIndexMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Rebuilds are queued and run by the test, to observe the indexes while one is in progress
+        maintainer = new ClientIndexMaintainer(clientRepository, List.of(prefixIndex, kdTree), transactionManager, rebuilds::add);
+    }
+
+    @Test
+    void testLoadIndexes_AppliesChangesHeldBackDuringTheLoad() {
+        when(clientRepository.streamIndexViews()).thenAnswer(invocation -> {
+            // Committed while the load is streaming the clients
+            maintainer.onClientChanged(changed(2L, "Bravo", 44.0, -80.0));
+            return List.of(view(1L, "Alpha", 43.0, -79.0)).stream();
+        });
+
+        maintainer.loadIndexes();
+
+        assertTrue(prefixIndex.isReady());
+        assertEquals(List.of(Map.entry(1L, "Alpha"), Map.entry(2L, "Bravo")), prefixIndex.complete("", 10));
+        assertEquals(2, kdTree.size());
+    }
+
+    @Test
+    void testInvalidateAll_RebuildsInTheBackgroundAndSwapsIn() {
+        when(clientRepository.streamIndexViews()).thenReturn(
+                List.of(view(1L, "Alpha", 43.0, -79.0), view(2L, "Bravo", 44.0, -80.0)).stream());
+        maintainer.loadIndexes();
+
+        // Client 2 was deleted and client 1 renamed on another node, and those notifications were missed
+        when(clientRepository.streamIndexViews()).thenAnswer(invocation -> {
+            maintainer.onClientChanged(changed(3L, "Charlie", 45.0, -81.0));
+            return List.of(view(1L, "Alpha Prime", 43.0, -79.0)).stream();
+        });
+        maintainer.onClientsInvalidated(ClientInvalidatedEvent.all());
+        // A second notice while the rebuild is pending does not start another one alongside it
+        maintainer.onClientsInvalidated(ClientInvalidatedEvent.all());
+        assertEquals(1, rebuilds.size());
+
+        // Until the rebuild runs, the current indexes keep serving and still receive changes
+        maintainer.onClientChanged(changed(4L, "Delta", 46.0, -82.0));
+        assertEquals(List.of(Map.entry(1L, "Alpha"), Map.entry(2L, "Bravo"), Map.entry(4L, "Delta")), prefixIndex.complete("", 10));
+
+        rebuilds.remove(0).run();
+
+        // Changes made before and during the rebuild are kept
+        assertTrue(prefixIndex.isReady());
+        assertEquals(List.of(Map.entry(1L, "Alpha Prime"), Map.entry(3L, "Charlie"), Map.entry(4L, "Delta")), prefixIndex.complete("", 10));
+        assertEquals(3, kdTree.size());
+        assertEquals(3L, kdTree.nearest(45.0, -81.0, 1).get(0).getKey());
+
+        // The second notice arrived during the first rebuild, so a new one follows it
+        assertEquals(1, rebuilds.size());
+    }
+
+    private static ClientChangedEvent changed(Long id, String name, Double latitude, Double longitude) {
+        return new ClientChangedEvent(id, ClientChangedEvent.ChangeType.UPDATED, name, true, latitude, longitude);
+    }
+
+    private static ClientIndexView view(Long id, String name, Double latitude, Double longitude) {
+        return new ClientIndexView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Double getLatitude() {
+                return latitude;
+            }
+
+            @Override
+            public Double getLongitude() {
+                return longitude;
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.bufalari.index;
+
+import com.bufalari.util.GeoHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientLocationKdTreeTest {
+
+    private final ClientLocationKdTree index = new ClientLocationKdTree();
+
+    @Test
+    void testNearest_MatchesBruteForce() {
+        Random random = new Random(42);
+        Map<Long, double[]> points = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            put(points, id, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+        }
+        index.markReady();
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            assertEquals(bruteForce(points, latitude, longitude, 20), ids(index.nearest(latitude, longitude, 20)));
+        }
+    }
+
+    @Test
+    void testNearest_AppliesChangesMadeAfterTheBuild() {
+        Random random = new Random(7);
+        Map<Long, double[]> points = new HashMap<>();
+        for (long id = 1; id <= 1000; id++) {
+            put(points, id, random.nextDouble() * 10 + 40, random.nextDouble() * 10 - 80);
+        }
+        index.markReady();
+
+        // Enough changes to trigger at least one rebuild, mixing moves, removals and additions
+        for (int change = 0; change < 600; change++) {
+            long id = 1 + random.nextInt(1200);
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                points.remove(id);
+            } else {
+                put(points, id, random.nextDouble() * 10 + 40, random.nextDouble() * 10 - 80);
+            }
+        }
+
+        assertEquals(points.size(), index.size());
+        for (int query = 0; query < 20; query++) {
+            double latitude = random.nextDouble() * 10 + 40;
+            double longitude = random.nextDouble() * 10 - 80;
+            assertEquals(bruteForce(points, latitude, longitude, 10), ids(index.nearest(latitude, longitude, 10)));
+        }
+    }
+
+    @Test
+    void testNearest_AcrossTheAntimeridianAndWithoutCoordinates() {
+        index.put(new ClientIndexEntry(1L, "West", 0.0, -179.9));
+        index.put(new ClientIndexEntry(2L, "Far", 0.0, 170.0));
+        index.put(new ClientIndexEntry(3L, "Not geocoded"));
+        index.markReady();
+
+        List<Map.Entry<Long, Double>> nearest = index.nearest(0, 179.9, 5);
+
+        assertEquals(List.of(1L, 2L), ids(nearest));
+        assertEquals(GeoHash.haversineKm(0, 179.9, 0, -179.9), nearest.get(0).getValue(), 1e-9);
+
+        index.put(new ClientIndexEntry(1L, "West")); // Coordinates cleared
+        assertEquals(List.of(2L), ids(index.nearest(0, 179.9, 5)));
+    }
+
+    private void put(Map<Long, double[]> points, long id, double latitude, double longitude) {
+        index.put(new ClientIndexEntry(id, "Client " + id, latitude, longitude));
+        points.put(id, new double[]{latitude, longitude});
+    }
+
+    private static List<Long> bruteForce(Map<Long, double[]> points, double latitude, double longitude, int k) {
+        return points.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Long, double[]>>comparingDouble(
+                        entry -> GeoHash.haversineKm(latitude, longitude, entry.getValue()[0], entry.getValue()[1])))
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static List<Long> ids(List<Map.Entry<Long, Double>> neighbours) {
+        return neighbours.stream().map(Map.Entry::getKey).toList();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bufalari.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientNamePrefixIndexTest {
+
+    private ClientNamePrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientNamePrefixIndex();
+        index.put(new ClientIndexEntry(1L, "John Doe"));
+        index.put(new ClientIndexEntry(2L, "Jane Doe"));
+        index.put(new ClientIndexEntry(3L, "joanna Smith"));
+        index.put(new ClientIndexEntry(4L, "Mary Smith"));
+        index.put(new ClientIndexEntry(5L, "John Doe"));
+    }
+
+    @Test
+    void testComplete_IsCaseInsensitiveAndOrdered() {
+        assertEquals(List.of(Map.entry(2L, "Jane Doe"), Map.entry(3L, "joanna Smith"), Map.entry(1L, "John Doe"), Map.entry(5L, "John Doe")),
+                index.complete("J", 10));
+        assertEquals(List.of(Map.entry(1L, "John Doe"), Map.entry(5L, "John Doe")), index.complete("john d", 10));
+        assertEquals(List.of(), index.complete("Smith", 10));
+    }
+
+    @Test
+    void testComplete_ReturnsTopK() {
+        assertEquals(List.of(2L, 3L), index.complete("j", 2).stream().map(Map.Entry::getKey).toList());
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        index.put(new ClientIndexEntry(1L, "Mark Doe"));
+        index.remove(2L);
+
+        assertEquals(List.of(3L, 5L), index.complete("jo", 10).stream().map(Map.Entry::getKey).toList());
+        assertEquals(List.of(1L, 4L), index.complete("ma", 10).stream().map(Map.Entry::getKey).toList());
+    }
+}
@@ -0,0 +1,60 @@
+package com.bufalari.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientNameTrigramIndexTest {
+
+    private ClientNameTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientNameTrigramIndex();
+        index.put(new ClientIndexEntry(1L, "John Doe"));
+        index.put(new ClientIndexEntry(2L, "Jane Doe"));
+        index.put(new ClientIndexEntry(3L, "Adam Doerr"));
+        index.put(new ClientIndexEntry(4L, "Mary Smith"));
+        index.put(new ClientIndexEntry(5L, "Odessa Smithers"));
+    }
+
+    @Test
+    void testSearch_IsCaseInsensitiveSubstring() {
+        assertEquals(List.of(3L, 2L, 1L), index.search("DOE", 10));
+        assertEquals(List.of(4L, 5L), index.search("smith", 10));
+        assertEquals(List.of(3L), index.search("am doe", 10));
+    }
+
+    @Test
+    void testSearch_VerifiesTrigramOrder() {
+        // "ohn" and "doe" both occur in "John Doe", but not as "ohndoe"
+        assertEquals(List.of(), index.search("ohndoe", 10));
+    }
+
+    @Test
+    void testSearch_ShortQueriesScanNames() {
+        assertEquals(List.of(3L, 2L, 1L), index.search("do", 10));
+        assertEquals(List.of(3L, 2L, 4L), index.search("A", 3));
+    }
+
+    @Test
+    void testSearch_LimitKeepsFirstByName() {
+        assertEquals(List.of(3L, 2L), index.search("doe", 2));
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        index.put(new ClientIndexEntry(1L, "John Roe"));
+        index.remove(2L);
+
+        assertEquals(List.of(3L), index.search("doe", 10));
+        assertEquals(List.of(1L), index.search("roe", 10));
+        assertEquals(4, index.size());
+
+        index.remove(2L); // Removing twice is harmless
+        assertEquals(4, index.size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.bufalari.invalidation;
+
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientInvalidatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClientInvalidationBusTest {
+
+    @Mock
+    private ApplicationEventPublisher publisherA;
+
+    @Mock
+    private ApplicationEventPublisher publisherB;
+
+    private LocalInvalidationTransport transport;
+
+    private ClientInvalidationBus nodeA;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Two nodes sharing one channel
+        transport = spy(new LocalInvalidationTransport());
+        nodeA = new ClientInvalidationBus(transport, publisherA);
+        new ClientInvalidationBus(transport, publisherB);
+    }
+
+    @Test
+    void testChangesAreCoalescedAndDeliveredToOtherNodes() {
+        for (long id : List.of(1L, 2L, 1L, 1L, 3L)) {
+            nodeA.onClientChanged(ClientChangedEvent.of(client(id), ClientChangedEvent.ChangeType.UPDATED));
+        }
+
+        nodeA.flush();
+        nodeA.flush(); // Nothing left to send
+
+        verify(transport, times(1)).send(anyString());
+        verify(publisherB).publishEvent(ClientInvalidatedEvent.of(Set.of(1L, 2L, 3L)));
+        verify(publisherA, never()).publishEvent(any(ClientInvalidatedEvent.class));
+    }
+
+    @Test
+    void testFailedSendIsRetriedOnTheNextFlush() {
+        doThrow(new IllegalStateException("Connection refused")).doCallRealMethod().when(transport).send(anyString());
+        nodeA.onClientChanged(ClientChangedEvent.of(client(1L), ClientChangedEvent.ChangeType.DELETED));
+
+        nodeA.flush();
+        verify(publisherB, never()).publishEvent(any(ClientInvalidatedEvent.class));
+
+        nodeA.flush();
+        verify(publisherB).publishEvent(ClientInvalidatedEvent.of(Set.of(1L)));
+    }
+
+    @Test
+    void testLargeBurstsAreSplitIntoSeveralMessages() {
+        for (long id = 1; id <= 2000; id++) {
+            nodeA.onClientChanged(ClientChangedEvent.of(client(id), ClientChangedEvent.ChangeType.CREATED));
+        }
+
+        nodeA.flush();
+
+        verify(transport, atLeast(2)).send(argThat(payload -> payload.length() <= 8000));
+        verify(publisherB, atLeast(2)).publishEvent(any(ClientInvalidatedEvent.class));
+    }
+
+    private static ClientEntity client(long id) {
+        ClientEntity client = new ClientEntity();
+        client.setId(id);
+        client.setName("Client " + id);
+        return client;
+    }
+}
@@ -0,0 +1,373 @@
+package com.bufalari.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mix of client creations, reads, searches, updates and deletions at a fixed request rate and
+ * reports throughput, p50/p99/p999 latency and error rate per {@code ClientController} endpoint.
+ * <p>
+ * The application runs against an in-memory H2 database and a {@link StubGeocoder}, so creations wait on
+ * a geocoder with a known latency instead of Google. Requests are sent open loop: each one is due at a
+ * fixed time and its latency is measured from that time, so a slow server delays the measurement of the
+ * requests queued behind it instead of lowering the rate they are sent at. Excluded from the default
+ * build; run with {@code mvn -Pload-test test -Dtest=ClientWorkloadLoadTest}. Tuned with -Dloadtest.rps,
+ * -Dloadtest.seconds, -Dloadtest.warmup-seconds, -Dloadtest.geocoder-latency-ms and -Dloadtest.mix
+ * (weights such as {@code create:15,get:35,list:10,search:15,update:15,delete:10}); the report is also
+ * written as JSON to -Dloadtest.report.
+ */
+@Tag("load")
+class ClientWorkloadLoadTest {
+
+    private static final int RPS = Integer.getInteger("loadtest.rps", 100);
+
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+
+    private static final Duration GEOCODER_LATENCY = Duration.ofMillis(Long.getLong("loadtest.geocoder-latency-ms", 50));
+
+    private static final String MIX = System.getProperty("loadtest.mix", "create:15,get:35,list:10,search:15,update:15,delete:10");
+
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.report", "target/client-workload-report.json"));
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int SEEDED_CLIENTS = 200;
+
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newCachedThreadPool())
+            .build();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Clients created before the run; read, searched and updated, never deleted.
+     */
+    private final List<SeededClient> seeded = new ArrayList<>();
+
+    /**
+     * Clients created during the run, which the deletions take from.
+     */
+    private final ConcurrentLinkedQueue<Long> deletable = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        int[] weights = parseMix(MIX);
+
+        try (StubGeocoder geocoder = StubGeocoder.start(GEOCODER_LATENCY);
+             ConfigurableApplicationContext context = LoadTestApplication.start(geocoder, "workload", Map.of())) {
+            String baseUrl = LoadTestApplication.clientsUrl(context);
+            seed(baseUrl);
+
+            drive(baseUrl, weights, WARM_UP);
+            Map<Operation, Recorder> results = drive(baseUrl, weights, DURATION);
+
+            System.out.printf("%n%d requests/s for %d s, geocoder latency %d ms, mix %s%n",
+                    RPS, DURATION.toSeconds(), GEOCODER_LATENCY.toMillis(), MIX);
+            System.out.printf("%-22s %9s %10s %9s %9s %9s %8s %8s%n",
+                    "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors", "error %");
+            long requests = 0;
+            long errors = 0;
+            for (Recorder recorder : results.values()) {
+                System.out.println(recorder.format(DURATION));
+                requests += recorder.count();
+                errors += recorder.errors();
+            }
+            writeReport(results);
+
+            assertTrue(requests > 0, "No requests were sent");
+            double errorRate = (double) errors / requests;
+            assertTrue(errorRate < MAX_ERROR_RATE, "Error rate: " + errorRate);
+        }
+    }
+
+    private void seed(String baseUrl) throws Exception {
+        for (int i = 0; i < SEEDED_CLIENTS; i++) {
+            long n = sequence.incrementAndGet();
+            HttpResponse<String> response = httpClient.send(createRequest(baseUrl, n), HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode(), "Seeding failed: " + response.body());
+            JsonNode client = objectMapper.readTree(response.body());
+            seeded.add(new SeededClient(client.get("id").asLong(), n, (ArrayNode) client.get("alternativeContacts")));
+        }
+    }
+
+    /**
+     * Sends requests at {@link #RPS} for the given time, then waits for the ones still in flight.
+     */
+    private Map<Operation, Recorder> drive(String baseUrl, int[] weights, Duration duration) throws Exception {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            if (weights[operation.ordinal()] > 0) {
+                recorders.put(operation, new Recorder(operation));
+            }
+        }
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long interval = TimeUnit.SECONDS.toNanos(1) / RPS;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long due = start; due < end; due += interval) {
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(weights);
+            Long deleted = operation == Operation.DELETE ? deletable.poll() : null;
+            if (operation == Operation.DELETE && deleted == null) {
+                operation = Operation.GET; // Nothing created yet to delete
+            }
+            Recorder recorder = recorders.computeIfAbsent(operation, Recorder::new);
+            inFlight.add(send(baseUrl, operation, deleted, recorder, due));
+        }
+
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                .get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        return recorders;
+    }
+
+    private CompletableFuture<?> send(String baseUrl, Operation operation, Long deleted, Recorder recorder, long due) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededClient client = seeded.get(random.nextInt(seeded.size()));
+        HttpRequest request = switch (operation) {
+            case CREATE -> createRequest(baseUrl, sequence.incrementAndGet());
+            case GET -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + client.id())).GET().build();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "?size=20")).GET().build();
+            case SEARCH -> HttpRequest.newBuilder(URI.create(baseUrl + "/search?name="
+                    + URLEncoder.encode("Client " + (1 + random.nextInt(SEEDED_CLIENTS)), StandardCharsets.UTF_8))).GET().build();
+            case UPDATE -> updateRequest(baseUrl, client);
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + deleted))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+        };
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    long latency = System.nanoTime() - due;
+                    boolean success = failure == null && response.statusCode() < 400;
+                    recorder.record(latency, success);
+                    if (success && operation == Operation.CREATE) {
+                        rememberCreated(response.body());
+                    }
+                    return null;
+                });
+    }
+
+    private void rememberCreated(String body) {
+        try {
+            deletable.add(objectMapper.readTree(body).get("id").asLong());
+        } catch (Exception e) {
+            // Not counted as an error: the creation itself succeeded
+        }
+    }
+
+    private HttpRequest createRequest(String baseUrl, long n) {
+        ObjectNode body = clientBody(n);
+        ObjectNode contact = body.putArray("alternativeContacts").addObject();
+        contact.put("name", "Contact");
+        contact.put("ddI", "+1");
+        contact.put("phoneNumber", "(416) 111-2222");
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    /**
+     * Changes the address and notes of a seeded client. Its contacts are sent with their ids, so they are
+     * updated in place rather than added again on every update.
+     */
+    private HttpRequest updateRequest(String baseUrl, SeededClient client) {
+        ObjectNode body = clientBody(client.n());
+        body.put("address", ThreadLocalRandom.current().nextInt(1, 10_000) + " Queen St");
+        body.put("notes", "Updated under load");
+        body.set("alternativeContacts", client.contacts());
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + client.id()))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private ObjectNode clientBody(long n) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("name", "Load Client " + n);
+        body.put("city", "Toronto");
+        body.put("country", "Canada");
+        body.put("province", "ON");
+        body.put("postalCode", "M5V 2H5");
+        body.put("address", n + " Yonge St");
+        body.put("ddI1", "+1");
+        body.put("phoneNumber1", "(416) 555-1212");
+        body.put("email", "load" + n + "@example.com");
+        body.put("sinNumber", String.valueOf(n));
+        return body;
+    }
+
+    private void writeReport(Map<Operation, Recorder> results) throws Exception {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("rps", RPS);
+        report.put("seconds", DURATION.toSeconds());
+        report.put("geocoderLatencyMs", GEOCODER_LATENCY.toMillis());
+        report.put("mix", MIX);
+        ArrayNode endpoints = report.putArray("endpoints");
+        for (Recorder recorder : results.values()) {
+            endpoints.add(recorder.toJson(objectMapper, DURATION));
+        }
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+        System.out.println("Report written to " + REPORT.toAbsolutePath());
+    }
+
+    private static Operation pick(int[] weights) {
+        int total = Arrays.stream(weights).sum();
+        int choice = ThreadLocalRandom.current().nextInt(total);
+        for (Operation operation : Operation.values()) {
+            choice -= weights[operation.ordinal()];
+            if (choice < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    /**
+     * Parses weights such as {@code create:15,get:35}; operations left out are not sent.
+     */
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            weights[Operation.valueOf(parts[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(parts[1].trim());
+        }
+        if (Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("loadtest.mix has no positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private enum Operation {
+        CREATE("POST /clients"),
+        GET("GET /clients/{id}"),
+        LIST("GET /clients"),
+        SEARCH("GET /clients/search"),
+        UPDATE("PUT /clients/{id}"),
+        DELETE("PATCH /clients/{id}");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private record SeededClient(long id, long n, ArrayNode contacts) {
+    }
+
+    /**
+     * Latencies and errors of one endpoint, recorded from the HTTP client's completion threads.
+     */
+    private static final class Recorder {
+
+        private final Operation operation;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Recorder(Operation operation) {
+            this.operation = operation;
+        }
+
+        synchronized void record(long latency, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized String format(Duration duration) {
+            long[] sorted = sorted();
+            return String.format("%-22s %9d %10.1f %9.1f %9.1f %9.1f %8d %8.2f", operation.endpoint, count,
+                    count / (duration.toMillis() / 1000.0), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), errors, errorPercent());
+        }
+
+        synchronized ObjectNode toJson(ObjectMapper objectMapper, Duration duration) {
+            long[] sorted = sorted();
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("endpoint", operation.endpoint);
+            node.put("requests", count);
+            node.put("requestsPerSecond", count / (duration.toMillis() / 1000.0));
+            node.put("p50Ms", percentile(sorted, 0.50));
+            node.put("p99Ms", percentile(sorted, 0.99));
+            node.put("p999Ms", percentile(sorted, 0.999));
+            node.put("errors", errors);
+            node.put("errorPercent", errorPercent());
+            return node;
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private double errorPercent() {
+            return count == 0 ? 0 : 100.0 * errors / count;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.bufalari.loadtest;
+
+import com.bufalari.CreatePeopleApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The application as configured by {@link CreatePeopleApplication}, except that the scan skips the
+ * configurations nested in test classes, which are on the classpath here, and that application class.
+ * As a {@link TestComponent} it is in turn skipped by the scan of {@code @SpringBootTest} contexts.
+ */
+@SpringBootConfiguration
+@TestComponent
+@EnableAutoConfiguration
+@AutoConfigurationPackage(basePackageClasses = CreatePeopleApplication.class)
+@EnableFeignClients(basePackageClasses = CreatePeopleApplication.class)
+@EnableScheduling
+@ComponentScan(basePackageClasses = CreatePeopleApplication.class,
+        excludeFilters = {
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CreatePeopleApplication.class),
+                @ComponentScan.Filter(type = FilterType.CUSTOM, classes = LoadTestApplication.TestClassExcludeFilter.class)})
+class LoadTestApplication {
+
+    /**
+     * Starts the application on a free port, against a new in-memory H2 database and the given geocoder.
+     *
+     * @param geocoder  The stub to use as the Geocoding API.
+     * @param database  Name of the in-memory database; each run should use its own.
+     * @param overrides Further properties, taking precedence over the defaults above.
+     * @return The running application.
+     */
+    static ConfigurableApplicationContext start(StubGeocoder geocoder, String database, Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("clients.invalidation.transport", "local");
+        properties.put("geocoding.api-url", geocoder.url());
+        // The geocode_cache upsert is Postgres SQL; the in-memory geocoding cache still applies
+        properties.put("geocoding.store.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.bufalari", "WARN");
+        properties.putAll(overrides);
+
+        // Passed as arguments so they take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(LoadTestApplication.class).run(args);
+    }
+
+    /**
+     * @return The URL of the client endpoints of a running application.
+     */
+    static String clientsUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/clients";
+    }
+
+    static class TestClassExcludeFilter implements TypeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            String enclosingClass = metadataReader.getClassMetadata().getEnclosingClassName();
+            return enclosingClass != null && (enclosingClass.endsWith("Test") || enclosingClass.endsWith("Tests"));
+        }
+    }
+}
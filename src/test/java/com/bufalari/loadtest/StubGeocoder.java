@@ -0,0 +1,70 @@
+package com.bufalari.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the Geocoding API's /json endpoint. Every address resolves to the same point after
+ * a fixed delay, so the load tests measure how the application waits on the API, not the API itself.
+ */
+final class StubGeocoder implements AutoCloseable {
+
+    private static final byte[] RESPONSE = ("{\"status\":\"OK\",\"results\":[{\"geometry\":"
+            + "{\"location\":{\"lat\":43.6532,\"lng\":-79.3832}}}]}").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubGeocoder(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the stub on a free local port.
+     *
+     * @param latency How long each call takes.
+     * @return The running stub.
+     * @throws IOException If the server cannot be bound.
+     */
+    static StubGeocoder start(Duration latency) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.createContext("/json", exchange -> {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        // Enough threads that the stub never becomes the bottleneck being measured
+        ExecutorService executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        return new StubGeocoder(server, executor);
+    }
+
+    /**
+     * @return The base URL to use as geocoding.api-url.
+     */
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
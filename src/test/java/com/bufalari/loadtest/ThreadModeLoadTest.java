@@ -0,0 +1,177 @@
+package com.bufalari.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares throughput and p99 latency with requests on platform threads and on virtual threads.
+ * <p>
+ * The application runs twice against an in-memory H2 database and a {@link StubGeocoder}, once per mode,
+ * with Tomcat limited to the same number of platform threads. A fixed number of concurrent callers then
+ * loop over a mix of client lookups and creations, each creation waiting on the stub. Excluded from the
+ * default build; run with {@code mvn -Pload-test test} on Java 21 or later (see the load-test profile).
+ * The loop can be tuned with -Dloadtest.concurrency, -Dloadtest.seconds and -Dloadtest.geocoder-latency-ms.
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 200);
+
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.seconds", 15));
+
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+
+    private static final Duration GEOCODER_LATENCY = Duration.ofMillis(Long.getLong("loadtest.geocoder-latency-ms", 50));
+
+    private static final int TOMCAT_THREADS = 50;
+
+    private static final int SEEDED_CLIENTS = 200;
+
+    private static final int CREATE_PERCENT = 20;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newCachedThreadPool())
+            .build();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21 or later");
+
+        try (StubGeocoder geocoder = StubGeocoder.start(GEOCODER_LATENCY)) {
+            Result platform = run(false, geocoder);
+            Result virtual = run(true, geocoder);
+
+            System.out.printf("%n%d callers, %d%% creations, geocoder latency %d ms, %d Tomcat threads%n",
+                    CONCURRENCY, CREATE_PERCENT, GEOCODER_LATENCY.toMillis(), TOMCAT_THREADS);
+            System.out.printf("%-10s %12s %10s %10s %10s%n", "mode", "requests/s", "p50 ms", "p99 ms", "errors");
+            System.out.println(platform.format("platform"));
+            System.out.println(virtual.format("virtual"));
+
+            assertTrue(platform.errorRate() < 0.01, "Platform thread error rate: " + platform.errorRate());
+            assertTrue(virtual.errorRate() < 0.01, "Virtual thread error rate: " + virtual.errorRate());
+        }
+    }
+
+    private Result run(boolean virtualThreads, StubGeocoder geocoder) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = LoadTestApplication.start(geocoder, "loadtest-" + mode, Map.of(
+                "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+                "server.tomcat.threads.max", String.valueOf(TOMCAT_THREADS),
+                // Measure the threading model, not the bulkhead protecting the real API
+                "resilience4j.bulkhead.instances.geocoding.max-concurrent-calls", "100000"))) {
+            String baseUrl = LoadTestApplication.clientsUrl(context);
+            for (int i = 0; i < SEEDED_CLIENTS; i++) {
+                send(createRequest(baseUrl));
+            }
+            drive(baseUrl, WARM_UP);
+            return drive(baseUrl, DURATION);
+        }
+    }
+
+    /**
+     * Runs the callers in a closed loop for the given time.
+     */
+    private Result drive(String baseUrl, Duration duration) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENCY);
+        long end = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> futures = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        for (int c = 0; c < CONCURRENCY; c++) {
+            futures.add(callers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < end) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    HttpRequest request = random.nextInt(100) < CREATE_PERCENT
+                            ? createRequest(baseUrl)
+                            : HttpRequest.newBuilder(URI.create(baseUrl + "/" + (1 + random.nextInt(SEEDED_CLIENTS)))).GET().build();
+                    long start = System.nanoTime();
+                    if (!send(request)) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+        List<long[]> perCaller = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            perCaller.add(future.get());
+        }
+        callers.shutdown();
+        long[] all = perCaller.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get(), duration);
+    }
+
+    private boolean send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private HttpRequest createRequest(String baseUrl) {
+        long n = sequence.incrementAndGet();
+        String body = "{\"name\":\"Load Client " + n + "\",\"city\":\"Toronto\",\"country\":\"Canada\",\"province\":\"ON\","
+                + "\"postalCode\":\"M5V 2H5\",\"address\":\"" + n + " Yonge St\",\"ddI1\":\"+1\",\"phoneNumber1\":\"(416) 555-1212\","
+                + "\"email\":\"load" + n + "@example.com\",\"sinNumber\":\"" + n + "\","
+                + "\"alternativeContacts\":[{\"name\":\"Contact\",\"ddI\":\"+1\",\"phoneNumber\":\"(416) 111-2222\"}]}";
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static final class Result {
+
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final Duration duration;
+
+        Result(long[] sortedLatencies, long errors, Duration duration) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.duration = duration;
+        }
+
+        double errorRate() {
+            return sortedLatencies.length == 0 ? 1 : (double) errors / sortedLatencies.length;
+        }
+
+        String format(String mode) {
+            return String.format("%-10s %12.0f %10.1f %10.1f %10d", mode,
+                    sortedLatencies.length / (duration.toMillis() / 1000.0), percentile(0.50), percentile(0.99), errors);
+        }
+
+        private double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.bufalari.repository;
+
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientField;
+import com.bufalari.entity.AlternativeContactEntity;
+import com.bufalari.entity.ClientCollectionVersionEntity;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeoCoordinatesEntity;
+import com.bufalari.util.ClientETag;
+import com.bufalari.util.GeoHash;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that the list and search queries load alternative contacts without one SELECT per client,
+ * that client inserts are batched, that location queries find clients by geohash cell, that the
+ * version queries behind the ETags follow changes, and that ?fields= reads only the requested columns.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never" // schema-postgresql.sql only applies to Postgres
+})
+class ClientRepositoryTest {
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = ClientRepository.class)
+    @EntityScan(basePackageClasses = ClientEntity.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private AlternativeContactRepository alternativeContactRepository;
+
+    @Autowired
+    private ClientCollectionVersionRepository clientCollectionVersionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ClientConverter clientConverter = new ClientConverter();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testPageQueryCount_IsConstant() {
+        assertEquals(2, countPageStatements(3));
+        assertEquals(2, countPageStatements(30));
+    }
+
+    @Test
+    void testSearchQueryCount_IsConstant() {
+        assertEquals(1, countSearchStatements(3));
+        assertEquals(1, countSearchStatements(30));
+    }
+
+    @Test
+    void testSearch_ReturnsEachClientOnce() {
+        persistClients(4);
+        entityManager.clear();
+
+        List<ClientEntity> clients = clientRepository.findByNameContainingIgnoreCaseAndDeletedFalse("client");
+
+        // Fetch-joining two contacts per client must not duplicate the clients
+        assertEquals(4, clients.size());
+        clients.forEach(client -> assertEquals(2, client.getAlternativeContacts().size()));
+    }
+
+    @Test
+    void testInsertsAreBatched() {
+        statistics.clear();
+        persistClients(30);
+
+        // 90 rows; one statement per row would mean at least 90 prepared statements
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void testFindKeysByEmailIn() {
+        persistClients(3);
+        entityManager.clear();
+
+        List<ClientKeyView> keys = clientRepository.findKeysByEmailIn(List.of("client1@example.com", "unknown@example.com"));
+
+        assertEquals(1, keys.size());
+        assertEquals("client1@example.com", keys.get(0).getEmail());
+        assertEquals("SIN1", keys.get(0).getSinNumber());
+    }
+
+    @Test
+    void testGeohashIsStoredAndQueryableByCell() {
+        persistClients(2);
+        ClientEntity located = clientRepository.findBySinNumberAndDeletedFalse("SIN0").orElseThrow();
+        located.setGeoCoordinates(new GeoCoordinatesEntity());
+        located.getGeoCoordinates().setLatitude(43.6532);
+        located.getGeoCoordinates().setLongitude(-79.3832);
+        entityManager.flush();
+        entityManager.clear();
+
+        String geohash = clientRepository.findById(located.getId()).orElseThrow().getGeoCoordinates().getGeohash();
+        assertEquals(GeoHash.encode(43.6532, -79.3832, GeoHash.MAX_PRECISION), geohash);
+
+        List<ClientLocationView> inCell = clientRepository.findLocationsByGeohashBetween("dpz8", "dpz8zzzzzzzz",
+                43.65, -79.38, Pageable.unpaged());
+        assertEquals(1, inCell.size());
+        assertEquals(located.getId(), inCell.get(0).getId());
+        assertEquals(43.6532, inCell.get(0).getLatitude());
+        assertTrue(clientRepository.findLocationsByGeohashBetween("dpz9", "dpz9zzzzzzzz",
+                43.65, -79.38, Pageable.unpaged()).isEmpty());
+    }
+
+    @Test
+    void testCellQuery_ReturnsTheClosestClientsOfTheCell() {
+        persistClients(4);
+        double[] longitudes = {-79.30, -79.38, -79.34, -79.42};
+        for (int i = 0; i < 4; i++) {
+            ClientEntity client = clientRepository.findBySinNumberAndDeletedFalse("SIN" + i).orElseThrow();
+            client.setGeoCoordinates(new GeoCoordinatesEntity());
+            client.getGeoCoordinates().setLatitude(43.65);
+            client.getGeoCoordinates().setLongitude(longitudes[i]);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ClientLocationView> closest = clientRepository.findLocationsByGeohashBetween("dpz", "dpzzzzzzzzzz",
+                43.65, -79.38, Pageable.ofSize(2));
+
+        assertEquals(List.of(-79.38, -79.34), closest.stream().map(ClientLocationView::getLongitude).toList());
+    }
+
+    @Test
+    void testVersionQueriesFollowChanges() {
+        persistClients(2);
+        ClientEntity client = clientRepository.findBySinNumberAndDeletedFalse("SIN0").orElseThrow();
+        entityManager.clear();
+
+        assertTrue(clientRepository.findUpdatedAtById(client.getId()).isPresent());
+
+        ClientEntity deleted = clientRepository.findById(client.getId()).orElseThrow();
+        deleted.setDeleted(true);
+        entityManager.flush();
+        entityManager.clear();
+
+        // A deleted client has no version of its own
+        assertTrue(clientRepository.findUpdatedAtById(client.getId()).isEmpty());
+    }
+
+    @Test
+    void testCollectionVersionIsIncremented() {
+        assertTrue(clientCollectionVersionRepository.findVersion().isEmpty());
+        assertEquals(0, clientCollectionVersionRepository.increment());
+
+        ClientCollectionVersionEntity version = new ClientCollectionVersionEntity();
+        version.setId(1L);
+        version.setVersion(1);
+        entityManager.persistAndFlush(version);
+        assertEquals(1, clientCollectionVersionRepository.increment());
+        entityManager.clear();
+
+        assertEquals(2L, clientCollectionVersionRepository.findVersion().orElseThrow());
+        assertEquals("W/\"c2\"", ClientETag.forCollection(2));
+    }
+
+    @Test
+    void testFieldsQuery_SelectsOnlyRequestedColumns() {
+        persistClients(3);
+        List<Long> ids = clientRepository.findFirstPageIds(Pageable.ofSize(3));
+        entityManager.clear();
+        statistics.clear();
+
+        List<Tuple> clients = clientRepository.findFieldsByIdIn(ids, ClientField.parse("name,phoneNumber1"));
+
+        assertEquals(List.of("Client 000", "Client 001", "Client 002"),
+                clients.stream().map(client -> client.get("name", String.class)).toList());
+        assertEquals("(416) 555-1212", clients.get(0).get("phoneNumber1"));
+        // id, name and updatedAt are always selected, the rest only when requested; no entity is loaded
+        assertEquals(4, clients.get(0).getElements().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFieldsSearch_EscapesWildcardsAndAppliesTheLimit() {
+        persistClients(3);
+        entityManager.clear();
+
+        Set<ClientField> fields = ClientField.parse("name");
+        assertEquals(List.of("Client 000", "Client 001"), clientRepository.findFieldsByNameContaining("CLIENT", fields, 2)
+                .stream().map(client -> client.get("name", String.class)).toList());
+        assertTrue(clientRepository.findFieldsByNameContaining("client_%", fields, 10).isEmpty());
+    }
+
+    @Test
+    void testContactViews_AreReadWithoutTheirClients() {
+        persistClients(2);
+        List<Long> ids = clientRepository.findFirstPageIds(Pageable.ofSize(2));
+        entityManager.clear();
+        statistics.clear();
+
+        List<AlternativeContactView> contacts = alternativeContactRepository.findViewsByClientIdIn(ids);
+
+        assertEquals(4, contacts.size());
+        assertEquals(ids.get(0), contacts.get(0).getClientId());
+        assertEquals("+1", contacts.get(0).getDdI());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private long countPageStatements(int numberOfClients) {
+        persistClients(numberOfClients);
+        entityManager.clear();
+        statistics.clear();
+
+        List<Long> ids = clientRepository.findFirstPageIds(Pageable.ofSize(numberOfClients));
+        List<ClientEntity> clients = clientRepository.findAllWithContactsByIdIn(ids);
+        clients.forEach(clientConverter::convertEntityToResponseDTO);
+
+        assertEquals(numberOfClients, clients.size());
+        long statements = statistics.getPrepareStatementCount();
+        cleanUp();
+        return statements;
+    }
+
+    private long countSearchStatements(int numberOfClients) {
+        persistClients(numberOfClients);
+        entityManager.clear();
+        statistics.clear();
+
+        List<ClientEntity> clients = clientRepository.findByNameContainingIgnoreCaseAndDeletedFalse("client");
+        clients.forEach(clientConverter::convertEntityToResponseDTO);
+
+        assertEquals(numberOfClients, clients.size());
+        long statements = statistics.getPrepareStatementCount();
+        cleanUp();
+        return statements;
+    }
+
+    private void persistClients(int numberOfClients) {
+        for (int i = 0; i < numberOfClients; i++) {
+            ClientEntity client = new ClientEntity();
+            client.setName(String.format("Client %03d", i));
+            client.setAddress("123 Yonge St");
+            client.setPhoneNumber1("(416) 555-1212");
+            client.setEmail("client" + i + "@example.com");
+            client.setSinNumber("SIN" + i);
+            client.getAlternativeContacts().add(contact(client, "Contact A"));
+            client.getAlternativeContacts().add(contact(client, "Contact B"));
+            entityManager.persist(client);
+        }
+        entityManager.flush();
+    }
+
+    private AlternativeContactEntity contact(ClientEntity client, String name) {
+        AlternativeContactEntity contact = new AlternativeContactEntity();
+        contact.setClient(client);
+        contact.setName(name);
+        contact.setDDI("+1");
+        contact.setPhoneNumber("(416) 111-2222");
+        return contact;
+    }
+
+    private void cleanUp() {
+        clientRepository.deleteAll();
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
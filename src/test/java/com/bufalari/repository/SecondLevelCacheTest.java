@@ -0,0 +1,137 @@
+package com.bufalari.repository;
+
+import com.bufalari.config.SecondLevelCacheConfig;
+import com.bufalari.config.SecondLevelCacheProperties;
+import com.bufalari.entity.AlternativeContactEntity;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.event.ClientInvalidatedEvent;
+import com.bufalari.invalidation.SecondLevelCacheEvictor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that with the l2cache profile a repeated lookup of a client and its contacts is served
+ * without any SQL, and that clients changed on another node are evicted.
+ */
+@DataJpaTest
+@ActiveProfiles("l2cache")
+@TestPropertySource(properties = "spring.sql.init.mode=never")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Entries are cached when the loading transaction completes
+class SecondLevelCacheTest {
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = ClientRepository.class)
+    @EntityScan(basePackageClasses = ClientEntity.class)
+    @EnableConfigurationProperties(SecondLevelCacheProperties.class)
+    @Import({SecondLevelCacheConfig.class, SecondLevelCacheEvictor.class})
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedLookupIsServedFromTheCache() {
+        Long id = clientRepository.save(client()).getId();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        // Statistics are cleared at the start of each lookup
+        assertEquals(2, loadContacts(id));
+        assertTrue(statistics().getPrepareStatementCount() > 0);
+
+        assertEquals(2, loadContacts(id));
+        assertEquals(0, statistics().getPrepareStatementCount(), "Repeat lookups must not reach the database");
+        assertTrue(statistics().getDomainDataRegionStatistics("clients").getHitCount() > 0);
+        assertTrue(statistics().getDomainDataRegionStatistics("client-contacts").getHitCount() > 0);
+    }
+
+    @Test
+    void testClientsChangedOnAnotherNodeAreEvicted() {
+        Long id = clientRepository.save(client()).getId();
+        loadClient(id);
+
+        // Written around this node's Hibernate, as another node would
+        jdbcTemplate.update("UPDATE clients SET name = 'Jane Doe' WHERE id = ?", id);
+        jdbcTemplate.update("UPDATE alternative_contacts SET name = 'Contact C' WHERE client_id = ? AND name = 'Contact A'", id);
+        assertEquals("John Doe", loadClient(id).getName(), "Served from the cache until evicted");
+
+        secondLevelCacheEvictor.onClientsInvalidated(ClientInvalidatedEvent.of(Set.of(id)));
+
+        ClientEntity client = loadClient(id);
+        assertEquals("Jane Doe", client.getName());
+        assertTrue(client.getAlternativeContacts().stream().anyMatch(contact -> "Contact C".equals(contact.getName())));
+    }
+
+    private ClientEntity loadClient(Long id) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            ClientEntity client = clientRepository.findById(id).orElseThrow();
+            client.getAlternativeContacts().size();
+            return client;
+        });
+    }
+
+    private int loadContacts(Long id) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            statistics().clear();
+            return clientRepository.findById(id).orElseThrow().getAlternativeContacts().size();
+        });
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static ClientEntity client() {
+        ClientEntity client = new ClientEntity();
+        client.setName("John Doe");
+        client.setAddress("123 Yonge St");
+        client.setPhoneNumber1("(416) 555-1212");
+        client.setEmail("john.doe@example.com");
+        client.setSinNumber("123456789");
+        for (String name : new String[]{"Contact A", "Contact B"}) {
+            AlternativeContactEntity contact = new AlternativeContactEntity();
+            contact.setClient(client);
+            contact.setName(name);
+            client.getAlternativeContacts().add(contact);
+        }
+        return client;
+    }
+}
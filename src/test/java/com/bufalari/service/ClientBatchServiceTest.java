@@ -0,0 +1,217 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientBatchProperties;
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.AlternativeContactDTO;
+import com.bufalari.dto.ClientBatchItemResultDTO;
+import com.bufalari.dto.ClientBatchResultDTO;
+import com.bufalari.dto.ClientDTO;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
+import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.repository.ClientKeyView;
+import com.bufalari.repository.ClientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ClientBatchServiceTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ClientBatchProperties batchProperties;
+
+    private ClientBatchService clientBatchService;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final List<ClientEntity> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batchProperties = new ClientBatchProperties();
+        batchProperties.setChunkSize(2);
+        batchProperties.setMaxSize(10);
+        clientBatchService = new ClientBatchService(clientRepository, new ClientConverter(),
+                Validation.buildDefaultValidatorFactory().getValidator(), entityManager, transactionManager,
+                eventPublisher, batchProperties);
+
+        when(clientRepository.findKeysByEmailIn(anyCollection())).thenReturn(Collections.emptyList());
+        // Simulate ID assignment on persist
+        when(clientRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<ClientEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> {
+                entity.setId(sequence.incrementAndGet());
+                saved.add(entity);
+            });
+            return entities;
+        });
+    }
+
+    @Test
+    void testCreateClients_Success() {
+        ClientBatchResultDTO result = clientBatchService.createClients(List.of(client(1), client(2), client(3)));
+
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of(1L, 2L, 3L), result.getItems().stream().map(ClientBatchItemResultDTO::getId).toList());
+
+        // Chunks of two: one duplicate check and one flush/clear per chunk
+        verify(clientRepository, times(2)).findKeysByEmailIn(anyCollection());
+        verify(clientRepository, times(2)).saveAll(any());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+
+        // Contacts are cascaded from the client, including the main contact
+        ClientEntity first = saved.get(0);
+        assertEquals(GeocodeStatus.PENDING, first.getGeocodeStatus());
+        assertEquals(2, first.getAlternativeContacts().size());
+        assertEquals("Main Contact", first.getAlternativeContacts().get(1).getNotes());
+        verify(eventPublisher, times(3)).publishEvent(any(ClientGeocodingRequestedEvent.class));
+    }
+
+    @Test
+    void testCreateClients_ReportsFailuresPerItem() {
+        ClientDTO invalid = client(2);
+        invalid.setName(null);
+        ClientDTO existing = client(3);
+        when(clientRepository.findKeysByEmailIn(anyCollection())).thenReturn(List.of(key(existing)));
+
+        ClientBatchResultDTO result = clientBatchService.createClients(List.of(client(1), invalid, existing, client(1), client(4)));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        List<ClientBatchItemResultDTO> items = result.getItems();
+        assertEquals(ClientBatchItemResultDTO.Status.CREATED, items.get(0).getStatus());
+        assertEquals("Client name cannot be null", items.get(1).getError());
+        assertEquals("Client with this email and SIN number already exists.", items.get(2).getError());
+        assertEquals("Duplicate of an earlier client in this batch.", items.get(3).getError());
+        assertEquals(ClientBatchItemResultDTO.Status.CREATED, items.get(4).getStatus());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, items.get(i).getIndex());
+        }
+    }
+
+    @Test
+    void testCreateClients_FailedRowDoesNotAffectItsChunk() {
+        // client2 is only rejected by the database, e.g. a concurrent insert of the same client
+        doAnswer(invocation -> {
+            List<ClientEntity> entities = invocation.getArgument(0);
+            if (entities.stream().anyMatch(entity -> "client2@example.com".equals(entity.getEmail()))) {
+                throw new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("duplicate key value (email, sin_number)=(client2@example.com, SIN2)",
+                                new SQLException("duplicate key"), "ux_clients_email_sin_active"));
+            }
+            entities.forEach(entity -> {
+                entity.setId(sequence.incrementAndGet());
+                saved.add(entity);
+            });
+            return entities;
+        }).when(clientRepository).saveAll(any());
+
+        ClientBatchResultDTO result = clientBatchService.createClients(List.of(client(1), client(2), client(3)));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getFailed());
+        List<ClientBatchItemResultDTO> items = result.getItems();
+        // The first chunk is retried one client at a time
+        assertEquals(ClientBatchItemResultDTO.Status.CREATED, items.get(0).getStatus());
+        assertEquals(ClientBatchItemResultDTO.Status.FAILED, items.get(1).getStatus());
+        assertEquals("Client with this email and SIN number already exists.", items.get(1).getError());
+        assertEquals(ClientBatchItemResultDTO.Status.CREATED, items.get(2).getStatus());
+        verify(clientRepository, times(4)).saveAll(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void testCreateClients_DatabaseErrorIsNotReturned() {
+        doThrow(new DataIntegrityViolationException("value too long for type character varying(20): SIN1"))
+                .when(clientRepository).saveAll(any());
+
+        ClientBatchResultDTO result = clientBatchService.createClients(List.of(client(1)));
+
+        assertEquals(1, result.getFailed());
+        assertEquals("Could not save client.", result.getItems().get(0).getError());
+    }
+
+    @Test
+    void testCreateClients_TooLarge() {
+        List<ClientDTO> clients = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            clients.add(client(i));
+        }
+
+        assertThrows(InvalidClientDataException.class, () -> clientBatchService.createClients(clients));
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void testCreateClients_Empty() {
+        assertThrows(InvalidClientDataException.class, () -> clientBatchService.createClients(List.of()));
+    }
+
+    // Helper method to create a valid ClientDTO with a unique email and SIN number
+    private ClientDTO client(int n) {
+        ClientDTO clientDTO = new ClientDTO();
+        clientDTO.setName("Client " + n);
+        clientDTO.setCity("Toronto");
+        clientDTO.setCountry("Canada");
+        clientDTO.setProvince("ON");
+        clientDTO.setPostalCode("M5V 2H5");
+        clientDTO.setAddress(n + " Yonge St");
+        clientDTO.setDdI1("+1");
+        clientDTO.setPhoneNumber1("(416) 555-1212");
+        clientDTO.setEmail("client" + n + "@example.com");
+        clientDTO.setSinNumber("SIN" + n);
+        AlternativeContactDTO contactDTO = new AlternativeContactDTO();
+        contactDTO.setName("Contact " + n);
+        contactDTO.setDdI("+1");
+        contactDTO.setPhoneNumber("(416) 111-2222");
+        clientDTO.setAlternativeContacts(List.of(contactDTO));
+        return clientDTO;
+    }
+
+    private ClientKeyView key(ClientDTO clientDTO) {
+        return new ClientKeyView() {
+            @Override
+            public String getEmail() {
+                return clientDTO.getEmail();
+            }
+
+            @Override
+            public String getSinNumber() {
+                return clientDTO.getSinNumber();
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.bufalari.service;
+
+import com.bufalari.entity.ClientCollectionVersionEntity;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.repository.ClientCollectionVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClientCollectionVersionTrackerTest {
+
+    @Mock
+    private ClientCollectionVersionRepository versionRepository;
+
+    private ClientCollectionVersionTracker versionTracker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        versionTracker = new ClientCollectionVersionTracker(versionRepository);
+        when(versionRepository.increment()).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(versionTracker);
+    }
+
+    @Test
+    void testChangesInATransaction_IncrementOnceBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        versionTracker.onClientChanged(event(1L));
+        versionTracker.onClientChanged(event(2L));
+
+        verify(versionRepository, never()).increment();
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        TransactionSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().get(0);
+        synchronization.beforeCommit(false);
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(versionRepository, times(1)).increment();
+        // The next transaction increments again
+        assertFalse(TransactionSynchronizationManager.hasResource(versionTracker));
+    }
+
+    @Test
+    void testRolledBackTransaction_DoesNotIncrement() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        versionTracker.onClientChanged(event(1L));
+        TransactionSynchronizationManager.getSynchronizations().get(0)
+                .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(versionRepository, never()).increment();
+        assertFalse(TransactionSynchronizationManager.hasResource(versionTracker));
+    }
+
+    @Test
+    void testChangeOutsideATransaction_IncrementsNowAndCreatesTheRow() {
+        when(versionRepository.increment()).thenReturn(0);
+
+        versionTracker.onClientChanged(event(1L));
+
+        ArgumentCaptor<ClientCollectionVersionEntity> created = ArgumentCaptor.forClass(ClientCollectionVersionEntity.class);
+        verify(versionRepository).save(created.capture());
+        assertEquals(1L, created.getValue().getId());
+        assertEquals(1L, created.getValue().getVersion());
+    }
+
+    @Test
+    void testVersionRowIsCreatedOnceAtStartup() {
+        when(versionRepository.findVersion()).thenReturn(Optional.empty()).thenReturn(Optional.of(0L));
+
+        versionTracker.createVersionRow();
+        versionTracker.createVersionRow();
+
+        verify(versionRepository, times(1)).save(any(ClientCollectionVersionEntity.class));
+    }
+
+    @Test
+    void testCurrentVersion() {
+        when(versionRepository.findVersion()).thenReturn(Optional.empty()).thenReturn(Optional.of(7L));
+
+        assertEquals(0L, versionTracker.currentVersion());
+        assertEquals(7L, versionTracker.currentVersion());
+        verify(versionRepository, never()).save(any());
+    }
+
+    private static ClientChangedEvent event(Long clientId) {
+        return new ClientChangedEvent(clientId, ClientChangedEvent.ChangeType.UPDATED, "John Doe", true, null, null);
+    }
+}
@@ -0,0 +1,192 @@
+package com.bufalari.service;
+
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientFileFormat;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeoCoordinatesEntity;
+import com.bufalari.repository.AlternativeContactRepository;
+import com.bufalari.repository.AlternativeContactView;
+import com.bufalari.repository.ClientRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ClientExportServiceTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private AlternativeContactRepository alternativeContactRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final AtomicBoolean cursorClosed = new AtomicBoolean();
+
+    private ClientExportService clientExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clientExportService = new ClientExportService(clientRepository, alternativeContactRepository,
+                new ClientConverter(), entityManager, objectMapper);
+        when(alternativeContactRepository.findViewsByClientIdIn(anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    void testExportClients_Ndjson() throws Exception {
+        ClientEntity located = client(1);
+        GeoCoordinatesEntity coordinates = new GeoCoordinatesEntity();
+        coordinates.setLatitude(43.6532);
+        coordinates.setLongitude(-79.3832);
+        located.setGeoCoordinates(coordinates);
+        streamClients(located, client(2));
+        AlternativeContactView contact = contact(1L, 10L, "Contact A");
+        when(alternativeContactRepository.findViewsByClientIdIn(List.of(1L, 2L))).thenReturn(List.of(contact));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = clientExportService.exportClients(output, ClientFileFormat.NDJSON, false);
+
+        assertEquals(2, count);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("Contact A", first.get("alternativeContacts").get(0).get("name").asText());
+        assertTrue(first.get("mapLink").has("googleMaps"));
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(0, second.get("alternativeContacts").size());
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void testExportClients_CsvQuotesFieldsAndSkipsContacts() throws Exception {
+        ClientEntity client = client(1);
+        client.setName("Doe, \"John\"");
+        client.setNotes("line 1\nline 2");
+        streamClients(client);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        clientExportService.exportClients(output, ClientFileFormat.CSV, false);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,name,address,city,province,postalCode,country,ddI1,phoneNumber1,ddI2,phoneNumber2,email,notes", lines[0]);
+        assertEquals("1,\"Doe, \"\"John\"\"\",1 Yonge St,Toronto,ON,M5V 2H5,Canada,+1,(416) 555-1212,,,"
+                + "client1@example.com,\"line 1\nline 2\"", lines[1]);
+        verifyNoInteractions(alternativeContactRepository);
+    }
+
+    @Test
+    void testExportClients_Gzip() throws Exception {
+        streamClients(client(1), client(2), client(3));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        clientExportService.exportClients(output, ClientFileFormat.NDJSON, true);
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            String[] lines = new String(input.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(3, lines.length);
+            assertEquals(3, objectMapper.readTree(lines[2]).get("id").asLong());
+        }
+    }
+
+    @Test
+    void testExportClients_LoadsContactsPerBatchAndDetachesRows() throws Exception {
+        ClientEntity[] clients = LongStream.rangeClosed(1, 1200).mapToObj(this::client).toArray(ClientEntity[]::new);
+        streamClients(clients);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(alternativeContactRepository.findViewsByClientIdIn(anyCollection())).thenAnswer(invocation -> {
+            batchSizes.add(invocation.<Collection<?>>getArgument(0).size());
+            return List.of();
+        });
+
+        long count = clientExportService.exportClients(new ByteArrayOutputStream(), ClientFileFormat.NDJSON, false);
+
+        assertEquals(1200, count);
+        // One contact query per batch instead of one lazy load per client
+        assertEquals(List.of(500, 500, 200), batchSizes);
+        // Every row is detached once written, so the persistence context does not grow with the export
+        verify(entityManager, times(1200)).detach(any(ClientEntity.class));
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void testExportClients_ClosesCursorWhenWritingFails() {
+        streamClients(client(1));
+        ByteArrayOutputStream failing = new ByteArrayOutputStream() {
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                throw new IllegalStateException("Connection reset");
+            }
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> clientExportService.exportClients(failing, ClientFileFormat.NDJSON, false));
+        assertTrue(cursorClosed.get());
+    }
+
+    @Test
+    void testExportClients_Empty() throws Exception {
+        streamClients();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = clientExportService.exportClients(output, ClientFileFormat.NDJSON, false);
+
+        assertEquals(0, count);
+        assertEquals(0, output.size());
+        verifyNoInteractions(alternativeContactRepository);
+    }
+
+    private void streamClients(ClientEntity... clients) {
+        when(clientRepository.streamAllByDeletedFalse())
+                .thenReturn(Stream.of(clients).onClose(() -> cursorClosed.set(true)));
+    }
+
+    private ClientEntity client(long id) {
+        ClientEntity client = new ClientEntity();
+        client.setId(id);
+        client.setName("Client " + id);
+        client.setAddress("1 Yonge St");
+        client.setCity("Toronto");
+        client.setProvince("ON");
+        client.setPostalCode("M5V 2H5");
+        client.setCountry("Canada");
+        client.setDdI1("+1");
+        client.setPhoneNumber1("(416) 555-1212");
+        client.setEmail("client" + id + "@example.com");
+        // Contacts come from the batch query; the lazy collection must not be touched
+        client.setAlternativeContacts(null);
+        return client;
+    }
+
+    private static AlternativeContactView contact(Long clientId, Long id, String name) {
+        AlternativeContactView contact = mock(AlternativeContactView.class);
+        when(contact.getClientId()).thenReturn(clientId);
+        when(contact.getId()).thenReturn(id);
+        when(contact.getName()).thenReturn(name);
+        return contact;
+    }
+}
@@ -0,0 +1,68 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientGeoProperties;
+import com.bufalari.dto.NearbyClientDTO;
+import com.bufalari.index.ClientGeoClusterIndex;
+import com.bufalari.index.ClientLocationKdTree;
+import com.bufalari.repository.ClientLocationView;
+import com.bufalari.repository.ClientRepository;
+import com.bufalari.util.GeoHash;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ClientGeoServiceTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    private ClientGeoProperties geoProperties;
+
+    private ClientGeoService clientGeoService;
+
+    // Cells read by the radius searches, and the page size of each read
+    private final Set<String> cells = new HashSet<>();
+    private final List<Integer> pageSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        geoProperties = new ClientGeoProperties();
+        geoProperties.setMaxRadiusKm(200);
+        clientGeoService = new ClientGeoService(clientRepository, new ClientLocationKdTree(),
+                new ClientGeoClusterIndex(geoProperties), geoProperties);
+
+        when(clientRepository.findLocationsByGeohashBetween(anyString(), anyString(), anyDouble(), anyDouble(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    cells.add(invocation.getArgument(0));
+                    pageSizes.add(invocation.<Pageable>getArgument(4).getPageSize());
+                    return List.<ClientLocationView>of();
+                });
+    }
+
+    @Test
+    void testNearestBeforeTheTreeIsLoaded_StopsAtTheMaximumRadius() {
+        List<NearbyClientDTO> result = clientGeoService.nearest(43.6532, -79.3832, 5);
+
+        assertTrue(result.isEmpty());
+        // 50 km, then 200 km; a wider circle would be covered by coarser cells than the 200 km one
+        Set<String> maxRadiusCells = new HashSet<>(GeoHash.coveringCells(43.6532, -79.3832, 200, geoProperties.getMaxCells()));
+        int minPrecision = cells.stream().mapToInt(String::length).min().orElseThrow();
+        assertEquals(maxRadiusCells.stream().mapToInt(String::length).min().orElseThrow(), minPrecision);
+        assertTrue(cells.containsAll(maxRadiusCells));
+        assertTrue(pageSizes.stream().allMatch(size -> size == 5));
+    }
+}
@@ -0,0 +1,184 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientIdempotencyProperties;
+import com.bufalari.dto.ClientDTO;
+import com.bufalari.dto.ClientResponseDTO;
+import com.bufalari.entity.IdempotencyKeyEntity;
+import com.bufalari.exception.IdempotencyKeyReusedException;
+import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClientIdempotencyServiceTest {
+
+    private static final String KEY = "3f1c2a9e-retry";
+
+    @Mock
+    private ClientService clientService;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ClientIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new ClientIdempotencyService(clientService, idempotencyKeyRepository, transactionManager,
+                objectMapper, new ClientIdempotencyProperties(), new SimpleMeterRegistry());
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testCreateClient_WithoutKeyCreatesUnconditionally() {
+        ClientDTO clientDTO = createClientDTO("John Doe");
+        when(clientService.createClient(clientDTO)).thenReturn(createResponse(1L, "John Doe"));
+
+        assertEquals(1L, idempotencyService.createClient(null, clientDTO).getId());
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void testCreateClient_StoresResponseUnderKey() {
+        ClientDTO clientDTO = createClientDTO("John Doe");
+        when(clientService.createClient(clientDTO)).thenReturn(createResponse(1L, "John Doe"));
+
+        ClientResponseDTO response = idempotencyService.createClient(KEY, clientDTO);
+
+        assertEquals(1L, response.getId());
+        ArgumentCaptor<IdempotencyKeyEntity> stored = ArgumentCaptor.forClass(IdempotencyKeyEntity.class);
+        verify(idempotencyKeyRepository).saveAndFlush(stored.capture());
+        assertEquals(KEY, stored.getValue().getKey());
+        assertEquals(1L, stored.getValue().getClientId());
+        assertTrue(stored.getValue().isNew());
+        assertTrue(stored.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusHours(23)));
+    }
+
+    @Test
+    void testCreateClient_RetryReplaysStoredResponse() {
+        ClientDTO clientDTO = createClientDTO("John Doe");
+        when(clientService.createClient(clientDTO)).thenReturn(createResponse(1L, "John Doe"));
+        ArgumentCaptor<IdempotencyKeyEntity> stored = ArgumentCaptor.forClass(IdempotencyKeyEntity.class);
+        idempotencyService.createClient(KEY, clientDTO);
+        verify(idempotencyKeyRepository).saveAndFlush(stored.capture());
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored.getValue()));
+
+        ClientResponseDTO replayed = idempotencyService.createClient(KEY, createClientDTO("John Doe"));
+
+        assertEquals(1L, replayed.getId());
+        assertEquals("John Doe", replayed.getName());
+        verify(clientService, times(1)).createClient(any());
+    }
+
+    @Test
+    void testCreateClient_KeyReusedForDifferentBody() {
+        ClientDTO clientDTO = createClientDTO("John Doe");
+        when(clientService.createClient(clientDTO)).thenReturn(createResponse(1L, "John Doe"));
+        ArgumentCaptor<IdempotencyKeyEntity> stored = ArgumentCaptor.forClass(IdempotencyKeyEntity.class);
+        idempotencyService.createClient(KEY, clientDTO);
+        verify(idempotencyKeyRepository).saveAndFlush(stored.capture());
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(stored.getValue()));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.createClient(KEY, createClientDTO("Jane Doe")));
+        verify(clientService, times(1)).createClient(any());
+    }
+
+    @Test
+    void testCreateClient_ConcurrentRequestWithSameKeyReplaysWinner() throws Exception {
+        ClientDTO clientDTO = createClientDTO("John Doe");
+        when(clientService.createClient(clientDTO)).thenReturn(createResponse(2L, "John Doe"));
+        // The other request committed the key first; the insert of this one fails on the primary key
+        IdempotencyKeyEntity winner = new IdempotencyKeyEntity();
+        winner.setKey(KEY);
+        winner.setRequestHash(hash(clientDTO));
+        winner.setClientId(1L);
+        winner.setResponseBody(objectMapper.writeValueAsString(createResponse(1L, "John Doe")));
+        winner.setCreatedAt(LocalDateTime.now());
+        winner.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.empty()).thenReturn(Optional.of(winner));
+
+        ClientResponseDTO response = idempotencyService.createClient(KEY, clientDTO);
+
+        assertEquals(1L, response.getId());
+    }
+
+    @Test
+    void testCreateClient_OtherViolationIsRethrown() {
+        ClientDTO clientDTO = createClientDTO("John Doe");
+        // The client itself already exists; no request stored the key
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicate email and SIN");
+        when(clientService.createClient(clientDTO)).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> idempotencyService.createClient(KEY, clientDTO)));
+        verify(idempotencyKeyRepository, times(2)).findById(KEY);
+    }
+
+    @Test
+    void testCreateClient_ExpiredKeyIsReleased() {
+        ClientDTO clientDTO = createClientDTO("John Doe");
+        when(clientService.createClient(clientDTO)).thenReturn(createResponse(2L, "John Doe"));
+        IdempotencyKeyEntity expired = new IdempotencyKeyEntity();
+        expired.setKey(KEY);
+        expired.setRequestHash("other");
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(expired));
+
+        assertEquals(2L, idempotencyService.createClient(KEY, clientDTO).getId());
+        verify(idempotencyKeyRepository).delete(expired);
+    }
+
+    @Test
+    void testCreateClient_BlankKeyIsRejected() {
+        assertThrows(InvalidClientDataException.class, () -> idempotencyService.createClient(" ", createClientDTO("John Doe")));
+        verifyNoInteractions(clientService);
+    }
+
+    private String hash(ClientDTO clientDTO) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(clientDTO)));
+    }
+
+    private ClientDTO createClientDTO(String name) {
+        ClientDTO clientDTO = new ClientDTO();
+        clientDTO.setName(name);
+        clientDTO.setEmail("john.doe@example.com");
+        clientDTO.setSinNumber("123456789");
+        clientDTO.setAddress("123 Main St");
+        clientDTO.setCity("Toronto");
+        clientDTO.setProvince("ON");
+        clientDTO.setPostalCode("M5H 2N2");
+        return clientDTO;
+    }
+
+    private ClientResponseDTO createResponse(Long id, String name) {
+        ClientResponseDTO response = new ClientResponseDTO();
+        response.setId(id);
+        response.setName(name);
+        return response;
+    }
+}
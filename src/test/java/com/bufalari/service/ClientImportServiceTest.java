@@ -0,0 +1,292 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientImportProperties;
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientFileFormat;
+import com.bufalari.dto.ImportJobDTO;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.entity.ImportJobEntity;
+import com.bufalari.entity.ImportJobErrorEntity;
+import com.bufalari.entity.ImportJobStatus;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
+import com.bufalari.exception.GeocodingUnavailableException;
+import com.bufalari.exception.ImportJobOnOtherNodeException;
+import com.bufalari.repository.ClientKeyView;
+import com.bufalari.repository.ClientRepository;
+import com.bufalari.repository.ImportJobErrorRepository;
+import com.bufalari.repository.ImportJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClientImportServiceTest {
+
+    private static final String CSV_HEADER = "name,address,city,province,postalCode,country,ddI1,phoneNumber1,email,sinNumber,contactName,contactDdI,contactPhoneNumber\n";
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private ImportJobErrorRepository importJobErrorRepository;
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path directory;
+
+    private ClientImportService clientImportService;
+
+    private ImportJobEntity job;
+
+    private final List<ClientEntity> saved = new ArrayList<>();
+
+    private final List<ImportJobErrorEntity> errors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ClientImportProperties importProperties = new ClientImportProperties();
+        importProperties.setDirectory(directory.toString());
+        importProperties.setChunkSize(2);
+        importProperties.setNode("node-a");
+
+        // Jobs are kept in a single field; running them on the calling thread makes the test synchronous
+        when(importJobRepository.save(any(ImportJobEntity.class))).thenAnswer(invocation -> {
+            job = invocation.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(1L);
+            }
+            return job;
+        });
+        when(importJobRepository.findById(1L)).thenAnswer(invocation -> Optional.ofNullable(job));
+        when(clientRepository.findKeysByEmailIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return saved.stream()
+                    .filter(client -> emails.contains(client.getEmail()))
+                    .map(ClientImportServiceTest::key)
+                    .toList();
+        });
+        when(clientRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<ClientEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId((long) saved.size() + 1));
+            saved.addAll(entities);
+            return entities;
+        });
+        when(importJobErrorRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<ImportJobErrorEntity> entities = invocation.getArgument(0);
+            errors.addAll(entities);
+            return entities;
+        });
+        when(geocodingService.resolve(anyString(), anyString())).thenReturn(GeocodeResult.found(43.6532, -79.3832));
+
+        clientImportService = new ClientImportService(clientRepository, importJobRepository, importJobErrorRepository,
+                new ClientConverter(), geocodingService, Validation.buildDefaultValidatorFactory().getValidator(),
+                entityManager, transactionManager, eventPublisher, new ObjectMapper(), importProperties,
+                Runnable::run, Runnable::run);
+    }
+
+    @Test
+    void testCsvImport() throws Exception {
+        String csv = CSV_HEADER
+                + csvRow(1)
+                + "\"Client, \"\"Two\"\"\",2 Yonge St,Toronto,ON,M5V 2H5,Canada,+1,(416) 555-1212,client2@example.com,SIN2,\"Contact\nTwo\",+1,(416) 111-2222\n"
+                + ",3 Yonge St,Toronto,ON,M5V 2H5,Canada,+1,(416) 555-1212,client3@example.com,SIN3,Contact,+1,(416) 111-2222\n"
+                + csvRow(4)
+                + csvRow(5);
+
+        ImportJobDTO result = createJob(csv, ClientFileFormat.CSV);
+
+        assertEquals(ImportJobStatus.COMPLETED, result.getStatus());
+        assertEquals(5, job.getRecordsProcessed());
+        assertEquals(4, job.getRecordsCreated());
+        assertEquals(1, job.getRecordsFailed());
+        assertEquals(100.0, clientImportService.getJob(1L).getProgressPercent());
+        assertFalse(Files.exists(Path.of(job.getFilePath())), "The file is deleted once the job completes");
+
+        // Chunks of two records, each flushed and cleared
+        verify(clientRepository, times(3)).saveAll(any());
+        verify(entityManager, times(3)).clear();
+
+        assertEquals("Client, \"Two\"", saved.get(1).getName());
+        assertEquals("Contact\nTwo", saved.get(1).getAlternativeContacts().get(0).getName());
+        assertEquals("Main Contact", saved.get(1).getAlternativeContacts().get(1).getNotes());
+        assertEquals(GeocodeStatus.RESOLVED, saved.get(1).getGeocodeStatus());
+
+        assertEquals(1, errors.size());
+        assertEquals(3, errors.get(0).getRecordNumber());
+        assertEquals("Client name cannot be null", errors.get(0).getMessage());
+    }
+
+    @Test
+    void testNdjsonImport_RejectsMalformedAndDuplicateRecords() throws Exception {
+        String ndjson = jsonRow(1) + "\n{not json\n\n" + jsonRow(1) + "\n" + jsonRow(2) + "\n";
+
+        createJob(ndjson, ClientFileFormat.NDJSON);
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(4, job.getRecordsProcessed());
+        assertEquals(2, job.getRecordsCreated());
+        assertEquals(2, job.getRecordsFailed());
+        assertTrue(errors.get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(2, errors.get(0).getRecordNumber());
+        // Record 3 duplicates record 1, which was committed with the previous chunk
+        assertEquals(3, errors.get(1).getRecordNumber());
+    }
+
+    @Test
+    void testResumeSkipsCommittedRecords() throws Exception {
+        Path file = directory.resolve("resume.csv");
+        Files.writeString(file, CSV_HEADER + csvRow(1) + csvRow(2) + csvRow(3), StandardCharsets.UTF_8);
+        job = new ImportJobEntity();
+        job.setId(1L);
+        job.setFormat(ClientFileFormat.CSV);
+        job.setFilePath(file.toString());
+        job.setStatus(ImportJobStatus.FAILED);
+        job.setTotalBytes(Files.size(file));
+        job.setRecordsProcessed(2);
+        job.setRecordsCreated(2);
+
+        clientImportService.resumeJob(1L);
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRecordsProcessed());
+        assertEquals(3, job.getRecordsCreated());
+        assertEquals(1, saved.size());
+        assertEquals("Client 3", saved.get(0).getName());
+    }
+
+    @Test
+    void testJobsAreOnlyResumedByTheirNode() throws Exception {
+        createJob(CSV_HEADER + csvRow(1), ClientFileFormat.CSV);
+        assertEquals("node-a", job.getNode());
+
+        job.setNode("node-b");
+        job.setStatus(ImportJobStatus.FAILED);
+        assertThrows(ImportJobOnOtherNodeException.class, () -> clientImportService.resumeJob(1L));
+
+        clientImportService.resumeInterruptedJobs();
+        verify(importJobRepository).findByNodeAndStatusIn("node-a", List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING));
+        assertEquals(ImportJobStatus.FAILED, job.getStatus());
+    }
+
+    @Test
+    void testGeocodingUnavailable_DefersToWorker() throws Exception {
+        when(geocodingService.resolve(anyString(), anyString())).thenThrow(new GeocodingUnavailableException("Circuit open", null));
+
+        createJob(CSV_HEADER + csvRow(1), ClientFileFormat.CSV);
+
+        assertEquals(1, job.getRecordsCreated());
+        assertEquals(GeocodeStatus.PENDING, saved.get(0).getGeocodeStatus());
+        verify(eventPublisher).publishEvent(new ClientGeocodingRequestedEvent(1L, "1 Yonge St, Toronto, ON, M5V 2H5"));
+    }
+
+    @Test
+    void testUnexpectedError_FailsJobAndKeepsCommittedProgress() throws Exception {
+        doAnswer(invocation -> invocation.getArgument(0))
+                .doThrow(new IllegalStateException("Connection lost"))
+                .when(clientRepository).saveAll(any());
+
+        createJob(CSV_HEADER + csvRow(1) + csvRow(2) + csvRow(3), ClientFileFormat.CSV);
+
+        assertEquals(ImportJobStatus.FAILED, job.getStatus());
+        assertEquals("Connection lost", job.getError());
+        assertEquals(2, job.getRecordsProcessed());
+        assertTrue(Files.exists(Path.of(job.getFilePath())), "The file is kept so the job can be resumed");
+    }
+
+    @Test
+    void testRowRejectedByDatabase_FailsOnlyThatRecord() throws Exception {
+        // client2 is only rejected by the database, e.g. a concurrent insert of the same client
+        doAnswer(invocation -> {
+            List<ClientEntity> entities = invocation.getArgument(0);
+            if (entities.stream().anyMatch(entity -> "client2@example.com".equals(entity.getEmail()))) {
+                throw new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("duplicate key value (email, sin_number)=(client2@example.com, SIN2)",
+                                new SQLException("duplicate key"), "ux_clients_email_sin_active"));
+            }
+            entities.forEach(entity -> entity.setId((long) saved.size() + 1));
+            saved.addAll(entities);
+            return entities;
+        }).when(clientRepository).saveAll(any());
+
+        createJob(CSV_HEADER + csvRow(1) + csvRow(2) + csvRow(3), ClientFileFormat.CSV);
+
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRecordsProcessed());
+        assertEquals(2, job.getRecordsCreated());
+        assertEquals(1, job.getRecordsFailed());
+        // The first chunk is retried one record at a time
+        assertEquals(List.of("Client 1", "Client 3"), saved.stream().map(ClientEntity::getName).toList());
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.get(0).getRecordNumber());
+        assertEquals("Client with this email and SIN number already exists.", errors.get(0).getMessage());
+    }
+
+    private ImportJobDTO createJob(String contents, ClientFileFormat format) throws Exception {
+        clientImportService.createJob(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), format);
+        return clientImportService.getJob(1L);
+    }
+
+    private String csvRow(int n) {
+        return "Client " + n + "," + n + " Yonge St,Toronto,ON,M5V 2H5,Canada,+1,(416) 555-1212,client" + n
+                + "@example.com,SIN" + n + ",Contact " + n + ",+1,(416) 111-2222\n";
+    }
+
+    private String jsonRow(int n) {
+        return "{\"name\":\"Client " + n + "\",\"address\":\"" + n + " Yonge St\",\"city\":\"Toronto\",\"province\":\"ON\","
+                + "\"postalCode\":\"M5V 2H5\",\"country\":\"Canada\",\"ddI1\":\"+1\",\"phoneNumber1\":\"(416) 555-1212\","
+                + "\"email\":\"client" + n + "@example.com\",\"sinNumber\":\"SIN" + n + "\","
+                + "\"alternativeContacts\":[{\"name\":\"Contact " + n + "\",\"ddI\":\"+1\",\"phoneNumber\":\"(416) 111-2222\"}]}";
+    }
+
+    private static ClientKeyView key(ClientEntity client) {
+        return new ClientKeyView() {
+            @Override
+            public String getEmail() {
+                return client.getEmail();
+            }
+
+            @Override
+            public String getSinNumber() {
+                return client.getSinNumber();
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.bufalari.service;
+
+import com.bufalari.config.ClientCacheProperties;
+import com.bufalari.convert.ClientConverter;
+import com.bufalari.dto.ClientResponseDTO;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.event.ClientChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientLookupCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ClientLookupCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ClientEntity client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ClientLookupCache(new ClientConverter(), new ClientCacheProperties(), meterRegistry);
+        client = new ClientEntity();
+        client.setId(1L);
+        client.setName("John Doe");
+        client.setEmail("john.doe@example.com");
+        client.setSinNumber("123456789");
+    }
+
+    @Test
+    void testSecondaryKeys_ResolveToTheCachedClient() {
+        cache.getById(1L, this::load);
+
+        Optional<ClientResponseDTO> bySin = cache.getBySinNumber("123456789", this::load);
+
+        assertEquals("John Doe", bySin.orElseThrow().getName());
+        assertEquals(1, loads.get());
+        // Email keys are only registered by email lookups
+        cache.getByEmail("john.doe@example.com", this::load);
+        cache.getByEmail("john.doe@example.com", this::load);
+        assertEquals(2, loads.get());
+
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "clients").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("clients.cache.load").timers().stream().mapToLong(timer -> timer.count()).sum());
+    }
+
+    @Test
+    void testInvalidation_DropsTheSecondaryKeys() {
+        cache.getBySinNumber("123456789", this::load);
+
+        client.setName("John Roe");
+        cache.onClientChanged(ClientChangedEvent.of(client, ClientChangedEvent.ChangeType.UPDATED));
+
+        assertEquals("John Roe", cache.getBySinNumber("123456789", this::load).orElseThrow().getName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testLoadOverlappingAnInvalidation_IsNotCached() {
+        Optional<ClientResponseDTO> result = cache.getById(1L, () -> {
+            // A write commits while the old row is being read
+            cache.invalidate(1L);
+            return load();
+        });
+
+        assertTrue(result.isPresent());
+        cache.getById(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testMissingAndDeletedClients_AreNotCached() {
+        assertTrue(cache.getById(2L, Optional::empty).isEmpty());
+
+        client.setDeleted(true);
+        assertTrue(cache.getById(1L, this::load).isEmpty());
+        assertTrue(cache.getById(1L, this::load).isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<ClientEntity> load() {
+        loads.incrementAndGet();
+        return Optional.of(client);
+    }
+}
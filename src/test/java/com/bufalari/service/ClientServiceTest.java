@@ -1,30 +1,55 @@
 package com.bufalari.service;
 
+import com.bufalari.config.ClientCacheProperties;
+import com.bufalari.config.ClientPageProperties;
+import com.bufalari.config.ClientSearchProperties;
+import com.bufalari.config.GeocodingProperties;
 import com.bufalari.convert.ClientConverter;
 import com.bufalari.dto.*;
 import com.bufalari.entity.AlternativeContactEntity;
 import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeocodeCacheEntity;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
 import com.bufalari.entity.GeoCoordinatesEntity;
-import com.bufalari.exception.ClientAlreadyExistsException;
 import com.bufalari.exception.ClientNotFoundException;
 import com.bufalari.exception.GeocodingApiException;
+import com.bufalari.exception.GeocodingUnavailableException;
 import com.bufalari.exception.InvalidClientDataException;
+import com.bufalari.index.ClientIndexEntry;
+import com.bufalari.index.ClientNameTrigramIndex;
 import com.bufalari.repository.AlternativeContactRepository;
+import com.bufalari.repository.AlternativeContactView;
 import com.bufalari.repository.ClientRepository;
+import com.bufalari.repository.GeocodeCacheRepository;
 import com.bufalari.repository.GeocodingClientRepository;
+import com.bufalari.util.ClientCursor;
+import com.bufalari.util.ClientETag;
+import jakarta.persistence.Tuple;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class ClientServiceTest {
@@ -35,7 +60,6 @@ class ClientServiceTest {
     @Mock
     private AlternativeContactRepository alternativeContactRepository;
 
-    @Mock
     private ClientConverter clientConverter;
 
     @Mock
@@ -44,22 +68,54 @@ class ClientServiceTest {
     @Mock
     private AlternativeContactService alternativeContactService; // Mock the AlternativeContactService
 
+    @Mock
+    private GeocodeCacheRepository geocodeCacheRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ClientCollectionVersionTracker versionTracker;
+
     @InjectMocks
     private ClientService clientService;
 
     private Validator validator;
 
+    private ClientPageProperties pageProperties;
+
+    private GeocodingService geocodingService;
+
+    private GeocodingProperties geocodingProperties;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private ClientNameTrigramIndex nameIndex;
+
+    private ClientLookupCache lookupCache;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Constructed, so that real methods called on the mock have their map link generator
+        clientConverter = mock(ClientConverter.class, withSettings().useConstructor());
         ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
         validator = factory.getValidator();
-        clientService = new ClientService(clientRepository, clientConverter, geocodingClientRepository, alternativeContactRepository, alternativeContactService, validator);
+        pageProperties = new ClientPageProperties();
+        pageProperties.setDefaultSize(2);
+        geocodingProperties = new GeocodingProperties();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        geocodingService = new GeocodingService(geocodingClientRepository, geocodeCacheRepository, geocodingProperties, new SimpleMeterRegistry(), Runnable::run,
+                circuitBreakerRegistry, BulkheadRegistry.ofDefaults());
+        nameIndex = new ClientNameTrigramIndex();
+        lookupCache = new ClientLookupCache(new ClientConverter(), new ClientCacheProperties(), new SimpleMeterRegistry());
+        clientService = new ClientService(clientRepository, clientConverter, geocodingService, alternativeContactRepository, alternativeContactService, validator, pageProperties, geocodingProperties, eventPublisher,
+                nameIndex, new ClientSearchProperties(), lookupCache, versionTracker);
     }
 
     @Test
-    void testGetAllClients() {
-        // Mock data
+    void testGetAllClients_FirstPage() {
+        // Mock data: the repository returns pageSize + 1 IDs already ordered by (name, id)
         ClientEntity client1 = new ClientEntity();
         client1.setId(1L);
         client1.setName("Client A");
@@ -68,17 +124,45 @@ class ClientServiceTest {
         client2.setId(2L);
         client2.setName("Client B");
 
-        when(clientRepository.findAllByDeletedFalse()).thenReturn(Arrays.asList(client2, client1)); // Returning unsorted
+        when(clientRepository.findFirstPageIds(any(Pageable.class))).thenReturn(Arrays.asList(1L, 2L, 3L));
+        when(clientRepository.findAllWithContactsByIdIn(List.of(1L, 2L))).thenReturn(Arrays.asList(client1, client2));
         when(clientConverter.convertEntityToResponseDTO(any(ClientEntity.class))).thenCallRealMethod();
 
         // Call service method
-        List<ClientResponseDTO> result = clientService.getAllClients();
+        ClientPageDTO result = clientService.getAllClients(null, null);
 
         // Assertions
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Client A", result.get(0).getName()); // Check if it's sorted
-        assertEquals("Client B", result.get(1).getName());
+        assertEquals(2, result.getSize());
+        assertEquals("Client A", result.getItems().get(0).getName());
+        assertEquals("Client B", result.getItems().get(1).getName());
+        assertEquals(ClientCursor.encode("Client B", 2L), result.getNext());
+        verify(clientRepository).findFirstPageIds(Pageable.ofSize(3));
+    }
+
+    @Test
+    void testGetAllClients_LastPage() {
+        // Mock data
+        ClientEntity client3 = new ClientEntity();
+        client3.setId(3L);
+        client3.setName("Client C");
+
+        when(clientRepository.findPageIdsAfter(eq("Client B"), eq(2L), any(Pageable.class))).thenReturn(List.of(3L));
+        when(clientRepository.findAllWithContactsByIdIn(List.of(3L))).thenReturn(List.of(client3));
+        when(clientConverter.convertEntityToResponseDTO(any(ClientEntity.class))).thenCallRealMethod();
+
+        // Call service method
+        ClientPageDTO result = clientService.getAllClients(ClientCursor.encode("Client B", 2L), null);
+
+        // Assertions
+        assertEquals(1, result.getSize());
+        assertEquals("Client C", result.getItems().get(0).getName());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void testGetAllClients_InvalidCursor() {
+        assertThrows(InvalidClientDataException.class, () -> clientService.getAllClients("not-a-cursor", null));
     }
 
     @Test
@@ -98,6 +182,24 @@ class ClientServiceTest {
         assertEquals("John Doe", result.getName());
     }
 
+    @Test
+    void testGetClientById_IsCachedUntilTheClientChanges() {
+        ClientEntity client = new ClientEntity();
+        client.setId(1L);
+        client.setName("John Doe");
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+
+        clientService.getClientById(1L);
+        clientService.getClientById(1L);
+        verify(clientRepository, times(1)).findById(1L);
+
+        client.setName("John Roe");
+        lookupCache.onClientChanged(ClientChangedEvent.of(client, ClientChangedEvent.ChangeType.UPDATED));
+
+        assertEquals("John Roe", clientService.getClientById(1L).getName());
+        verify(clientRepository, times(2)).findById(1L);
+    }
+
     @Test
     void testGetClientById_NonExistingClient() {
         // Mock data
@@ -182,6 +284,68 @@ class ClientServiceTest {
     }
 
 
+    @Test
+    void testCreateClient_AsyncGeocoding() {
+        // Mock data
+        geocodingProperties.setMode(GeocodingProperties.Mode.ASYNC);
+        ClientDTO clientDTO = createValidClientDTO();
+
+        ClientEntity clientEntity = new ClientEntity();
+        clientEntity.setName("John Doe");
+        when(clientConverter.convertDTOToEntity(clientDTO)).thenReturn(clientEntity);
+        when(clientRepository.save(clientEntity)).thenAnswer(invocation -> {
+            clientEntity.setId(1L);
+            return clientEntity;
+        });
+        when(clientConverter.convertEntityToResponseDTO(clientEntity)).thenCallRealMethod();
+
+        // Call service method
+        ClientResponseDTO result = clientService.createClient(clientDTO);
+
+        // Assertions: saved without calling the geocoder, geocoding requested for after the commit
+        assertEquals(GeocodeStatus.PENDING, result.getGeocodeStatus());
+        assertNull(result.getMapLink());
+        verify(geocodingClientRepository, never()).getCoordinates(anyString(), anyString());
+        verify(eventPublisher, times(1)).publishEvent(new ClientGeocodingRequestedEvent(1L, "123 Yonge St, Toronto, ON, M5V 2H5"));
+    }
+
+    @Test
+    void testCreateClient_GeocodingUnavailable_Deferred() {
+        // Mock data: the geocoding circuit is open
+        circuitBreakerRegistry.circuitBreaker("geocoding").transitionToOpenState();
+        ClientDTO clientDTO = createValidClientDTO();
+
+        ClientEntity clientEntity = new ClientEntity();
+        clientEntity.setName("John Doe");
+        when(clientConverter.convertDTOToEntity(clientDTO)).thenReturn(clientEntity);
+        when(clientRepository.save(clientEntity)).thenAnswer(invocation -> {
+            clientEntity.setId(1L);
+            return clientEntity;
+        });
+        when(clientConverter.convertEntityToResponseDTO(clientEntity)).thenCallRealMethod();
+
+        // Call service method
+        ClientResponseDTO result = clientService.createClient(clientDTO);
+
+        // Assertions: saved as PENDING instead of failing
+        assertEquals(GeocodeStatus.PENDING, result.getGeocodeStatus());
+        verify(geocodingClientRepository, never()).getCoordinates(anyString(), anyString());
+        verify(eventPublisher, times(1)).publishEvent(any(ClientGeocodingRequestedEvent.class));
+    }
+
+    @Test
+    void testCreateClient_GeocodingUnavailable_NotDeferred() {
+        // Mock data
+        circuitBreakerRegistry.circuitBreaker("geocoding").transitionToOpenState();
+        geocodingProperties.setDeferWhenUnavailable(false);
+        ClientDTO clientDTO = createValidClientDTO();
+        when(clientConverter.convertDTOToEntity(clientDTO)).thenReturn(new ClientEntity());
+
+        // Assertions
+        assertThrows(GeocodingUnavailableException.class, () -> clientService.createClient(clientDTO));
+        verify(clientRepository, never()).save(any(ClientEntity.class));
+    }
+
     @Test
     void testCreateClient_DuplicateClient() {
         // Mock data
@@ -207,12 +371,17 @@ class ClientServiceTest {
         contactDTO.setNotes("Some notes for alternative contact.");
         clientDTO.setAlternativeContacts(List.of(contactDTO));
 
-        when(clientRepository.findByEmailAndSinNumberAndDeletedFalse(clientDTO.getEmail(), clientDTO.getSinNumber()))
-                .thenReturn(Optional.of(new ClientEntity()));
+        geocodingProperties.setMode(GeocodingProperties.Mode.ASYNC);
+        when(clientConverter.convertDTOToEntity(clientDTO)).thenReturn(new ClientEntity());
+        // The unique index on (email, sin_number) rejects the insert when it is flushed
+        when(clientRepository.save(any(ClientEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \"ux_clients_email_sin_active\""));
 
         // Assertions
-        assertThrows(ClientAlreadyExistsException.class, () -> clientService.createClient(clientDTO),
-                "Should throw ClientAlreadyExistsException when client already exists.");
+        assertThrows(DataIntegrityViolationException.class, () -> clientService.createClient(clientDTO),
+                "Should let the unique index violation reach GlobalExceptionHandler when client already exists.");
+        verify(clientRepository, never()).findByEmailAndSinNumberAndDeletedFalse(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -274,6 +443,23 @@ class ClientServiceTest {
         // Verificar que o repositório foi chamado
         verify(alternativeContactRepository, times(1)).saveAll(anyList());
         verify(clientRepository, times(1)).save(existingClient);
+        // Set even when only contacts change, so the client's ETag changes
+        assertNotNull(existingClient.getUpdatedAt());
+    }
+
+    @Test
+    void testGetClientETag_FromVersionLookupOnly() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_789);
+        when(clientRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+        when(clientRepository.findUpdatedAtById(2L)).thenReturn(Optional.empty());
+
+        String etag = clientService.getClientETag(1L).orElseThrow();
+
+        // Truncated to the microseconds the database keeps
+        assertEquals(ClientETag.forClient(1L, updatedAt.withNano(123_456_000)), etag);
+        assertTrue(ClientETag.matches("\"other\", " + etag.substring(2), etag));
+        assertTrue(clientService.getClientETag(2L).isEmpty());
+        verify(clientRepository, never()).findById(any());
     }
 
     @Test
@@ -377,7 +563,7 @@ class ClientServiceTest {
         when(clientConverter.convertEntityToResponseDTO(any(ClientEntity.class))).thenCallRealMethod();
 
         // Call service method
-        List<ClientResponseDTO> result = clientService.searchClientsByName("Doe");
+        List<ClientResponseDTO> result = clientService.searchClientsByName("Doe", null);
 
         // Assertions
         assertNotNull(result);
@@ -386,6 +572,88 @@ class ClientServiceTest {
         assertEquals("John Doe", result.get(1).getName());
     }
 
+    @Test
+    void testSearchClientsByName_UsesIndexOnceReady() {
+        nameIndex.put(new ClientIndexEntry(1L, "John Doe"));
+        nameIndex.put(new ClientIndexEntry(2L, "Jane Doe"));
+        nameIndex.put(new ClientIndexEntry(3L, "Adam Doerr"));
+        nameIndex.put(new ClientIndexEntry(4L, "Mary Smith"));
+        nameIndex.markReady();
+
+        ClientEntity client3 = new ClientEntity();
+        client3.setId(3L);
+        client3.setName("Adam Doerr");
+        ClientEntity client2 = new ClientEntity();
+        client2.setId(2L);
+        client2.setName("Jane Doe");
+        when(clientRepository.findAllWithContactsByIdIn(List.of(3L, 2L))).thenReturn(List.of(client3, client2));
+        when(clientConverter.convertEntityToResponseDTO(any(ClientEntity.class))).thenCallRealMethod();
+
+        List<ClientResponseDTO> result = clientService.searchClientsByName("doe", 2);
+
+        assertEquals(List.of("Adam Doerr", "Jane Doe"), result.stream().map(ClientResponseDTO::getName).toList());
+        verify(clientRepository, never()).findByNameContainingIgnoreCaseAndDeletedFalse(anyString());
+    }
+
+    @Test
+    void testSearchClientsByName_WithFieldsSkipsContactsAndMapLinks() {
+        Set<ClientField> fields = ClientField.parse("name,city");
+        Tuple client = tuple(Map.of("id", 1L, "name", "John Doe", "city", "Toronto"));
+        when(clientRepository.findFieldsByNameContaining("Doe", fields, 100)).thenReturn(List.of(client));
+        when(clientConverter.convertTupleToFieldsDTO(any(), any(), any())).thenCallRealMethod();
+
+        List<ClientFieldsDTO> result = clientService.searchClientsByName("Doe", null, fields);
+
+        assertEquals(1, result.size());
+        assertEquals(Map.of("id", 1L, "name", "John Doe", "city", "Toronto"), result.get(0).getFields());
+        verifyNoInteractions(alternativeContactRepository);
+        verify(client, never()).get(eq("latitude"), any());
+    }
+
+    @Test
+    void testGetAllClients_WithFieldsLoadsRequestedContactsInOneQuery() {
+        Set<ClientField> fields = ClientField.parse("name,alternativeContacts");
+        Tuple client1 = tuple(Map.of("id", 1L, "name", "Client A"));
+        Tuple client2 = tuple(Map.of("id", 2L, "name", "Client B"));
+        AlternativeContactView contact = mock(AlternativeContactView.class);
+        when(contact.getClientId()).thenReturn(1L);
+        when(contact.getName()).thenReturn("Contact A");
+        when(clientRepository.findFirstPageIds(any(Pageable.class))).thenReturn(List.of(1L, 2L, 3L));
+        when(clientRepository.findFieldsByIdIn(List.of(1L, 2L), fields)).thenReturn(List.of(client1, client2));
+        when(alternativeContactRepository.findViewsByClientIdIn(List.of(1L, 2L))).thenReturn(List.of(contact));
+        when(clientConverter.convertTupleToFieldsDTO(any(), any(), any())).thenCallRealMethod();
+
+        ClientFieldsPageDTO result = clientService.getAllClients(null, null, fields);
+
+        assertEquals(2, result.getSize());
+        assertEquals(ClientCursor.encode("Client B", 2L), result.getNext());
+        List<?> contacts = (List<?>) result.getItems().get(0).getFields().get("alternativeContacts");
+        assertEquals("Contact A", ((AlternativeContactDTO) contacts.get(0)).getName());
+        assertEquals(List.of(), result.getItems().get(1).getFields().get("alternativeContacts"));
+        verify(alternativeContactRepository, times(1)).findViewsByClientIdIn(any());
+        verify(clientRepository, never()).findAllWithContactsByIdIn(any());
+    }
+
+    @Test
+    void testClientFields_UnknownFieldIsRejected() {
+        assertThrows(InvalidClientDataException.class, () -> ClientField.parse("name,sinNumber"));
+        assertThrows(InvalidClientDataException.class, () -> ClientField.parse(" , "));
+    }
+
+    @Test
+    void testClientChanges_ArePublished() {
+        ClientEntity client = new ClientEntity();
+        client.setId(1L);
+        client.setName("John Doe");
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+
+        clientService.deleteClient(1L);
+        verify(eventPublisher).publishEvent(new ClientChangedEvent(1L, ClientChangedEvent.ChangeType.DELETED, "John Doe", false, null, null));
+
+        clientService.activateClient(1L);
+        verify(eventPublisher).publishEvent(new ClientChangedEvent(1L, ClientChangedEvent.ChangeType.ACTIVATED, "John Doe", true, null, null));
+    }
+
     @Test
     void testGetClientByEmail_ExistingClient() {
         // Mock data
@@ -456,6 +724,121 @@ class ClientServiceTest {
         assertThrows(GeocodingApiException.class, () -> clientService.getCoordinatesFromAddress(address, traceId));
     }
 
+    @Test
+    void testGetCoordinatesFromAddress_CachedByNormalizedAddress() {
+        // Mock data
+        String traceId = UUID.randomUUID().toString();
+        when(geocodingClientRepository.getCoordinates(anyString(), anyString())).thenReturn(createGeocodingResponseDTO());
+
+        // Call service method twice with trivially different spellings of the same address
+        clientService.getCoordinatesFromAddress("123 Yonge St, Toronto, ON, M5V 2H5", traceId);
+        double[] coordinates = clientService.getCoordinatesFromAddress("  123 yonge st ,Toronto,  ON, M5V 2H5", traceId);
+
+        // Assertions
+        assertEquals(43.6532, coordinates[0]);
+        assertEquals(-79.3832, coordinates[1]);
+        verify(geocodingClientRepository, times(1)).getCoordinates(anyString(), anyString());
+    }
+
+    @Test
+    void testGetCoordinatesFromAddress_ZeroResultsCached() {
+        // Mock data
+        String address = "Invalid Address";
+        String traceId = UUID.randomUUID().toString();
+        GeocodingResponseDTO mockResponse = new GeocodingResponseDTO();
+        mockResponse.setStatus("ZERO_RESULTS");
+        when(geocodingClientRepository.getCoordinates(address, GeocodingClientRepository.getAccessToken())).thenReturn(mockResponse);
+
+        // Assertions: the second lookup fails without calling the API again
+        assertThrows(GeocodingApiException.class, () -> clientService.getCoordinatesFromAddress(address, traceId));
+        assertThrows(GeocodingApiException.class, () -> clientService.getCoordinatesFromAddress(address, traceId));
+        verify(geocodingClientRepository, times(1)).getCoordinates(anyString(), anyString());
+    }
+
+    @Test
+    void testGetCoordinatesFromAddress_TransientErrorNotCached() {
+        // Mock data
+        String address = "123 Yonge St, Toronto, ON, M5V 2H5";
+        String traceId = UUID.randomUUID().toString();
+        GeocodingResponseDTO overLimit = new GeocodingResponseDTO();
+        overLimit.setStatus("OVER_QUERY_LIMIT");
+        when(geocodingClientRepository.getCoordinates(anyString(), anyString()))
+                .thenReturn(overLimit)
+                .thenReturn(createGeocodingResponseDTO());
+
+        // Assertions
+        assertThrows(GeocodingApiException.class, () -> clientService.getCoordinatesFromAddress(address, traceId));
+        assertEquals(43.6532, clientService.getCoordinatesFromAddress(address, traceId)[0]);
+        verify(geocodingClientRepository, times(2)).getCoordinates(anyString(), anyString());
+    }
+
+    @Test
+    void testGetCoordinatesFromAddress_ServedFromCacheTable() {
+        // Mock data: another node already geocoded this address
+        String address = "123 Yonge St, Toronto, ON, M5V 2H5";
+        String traceId = UUID.randomUUID().toString();
+        when(geocodeCacheRepository.findByAddressHash(anyString())).thenReturn(Optional.of(storedEntry(address, LocalDateTime.now().minusDays(1))));
+
+        // Call service method
+        double[] coordinates = clientService.getCoordinatesFromAddress(address, traceId);
+
+        // Assertions
+        assertEquals(43.6532, coordinates[0]);
+        verify(geocodingClientRepository, never()).getCoordinates(anyString(), anyString());
+    }
+
+    @Test
+    void testGetCoordinatesFromAddress_StaleTableEntryRefreshed() {
+        // Mock data: entry past the refresh age but within the TTL
+        String address = "123 Yonge St, Toronto, ON, M5V 2H5";
+        String traceId = UUID.randomUUID().toString();
+        when(geocodeCacheRepository.findByAddressHash(anyString())).thenReturn(Optional.of(storedEntry(address, LocalDateTime.now().minusDays(45))));
+        when(geocodingClientRepository.getCoordinates(anyString(), anyString())).thenReturn(createGeocodingResponseDTO(43.7, -79.4));
+
+        // Call service method: the stale value is served, the refresh runs on the (direct) executor
+        double[] coordinates = clientService.getCoordinatesFromAddress(address, traceId);
+
+        // Assertions
+        assertEquals(43.6532, coordinates[0]);
+        verify(geocodingClientRepository, times(1)).getCoordinates(anyString(), anyString());
+        verify(geocodeCacheRepository, times(1)).upsert(anyString(), eq("123 yonge st, toronto, on, m5v 2h5"),
+                eq(43.7), eq(-79.4), eq("OK"), any(LocalDateTime.class));
+        assertEquals(43.7, clientService.getCoordinatesFromAddress(address, traceId)[0]);
+    }
+
+    @Test
+    void testGetCoordinatesFromAddress_ResultWrittenToCacheTable() {
+        // Mock data
+        String address = "123 Yonge St, Toronto, ON, M5V 2H5";
+        String traceId = UUID.randomUUID().toString();
+        when(geocodingClientRepository.getCoordinates(anyString(), anyString())).thenReturn(createGeocodingResponseDTO());
+
+        // Call service method
+        clientService.getCoordinatesFromAddress(address, traceId);
+
+        // Assertions
+        verify(geocodeCacheRepository, times(1)).upsert(argThat(hash -> hash.length() == 64), anyString(),
+                eq(43.6532), eq(-79.3832), eq("OK"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testGetCoordinatesFromAddress_CacheTableFailuresAreIgnored() {
+        // Mock data: the table cannot be read or written, e.g. a concurrent write of the same address
+        String address = "123 Yonge St, Toronto, ON, M5V 2H5";
+        String traceId = UUID.randomUUID().toString();
+        when(geocodeCacheRepository.findByAddressHash(anyString())).thenThrow(new QueryTimeoutException("timeout"));
+        when(geocodeCacheRepository.upsert(anyString(), anyString(), any(), any(), anyString(), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(geocodingClientRepository.getCoordinates(anyString(), anyString())).thenReturn(createGeocodingResponseDTO());
+
+        // Call service method
+        double[] coordinates = clientService.getCoordinatesFromAddress(address, traceId);
+
+        // Assertions
+        assertEquals(43.6532, coordinates[0]);
+        verify(geocodeCacheRepository, times(1)).upsert(anyString(), anyString(), any(), any(), anyString(), any(LocalDateTime.class));
+    }
+
     @Test
     void testConvertToResponseDTO() {
         // Mock data
@@ -483,6 +866,39 @@ class ClientServiceTest {
         assertTrue(result.getMapLink().containsKey("hereWeGo"));
     }
 
+    // Helper method to create a valid ClientDTO
+    private ClientDTO createValidClientDTO() {
+        ClientDTO clientDTO = new ClientDTO();
+        clientDTO.setName("John Doe");
+        clientDTO.setCity("Toronto");
+        clientDTO.setCountry("Canada");
+        clientDTO.setProvince("ON");
+        clientDTO.setPostalCode("M5V 2H5");
+        clientDTO.setAddress("123 Yonge St");
+        clientDTO.setDdI1("+1");
+        clientDTO.setPhoneNumber1("(416) 555-1212");
+        clientDTO.setEmail("john.doe@example.com");
+        clientDTO.setSinNumber("123456789");
+        AlternativeContactDTO contactDTO = new AlternativeContactDTO();
+        contactDTO.setName("Jane Doe");
+        contactDTO.setDdI("+1");
+        contactDTO.setPhoneNumber("(416) 111-2222");
+        clientDTO.setAlternativeContacts(List.of(contactDTO));
+        return clientDTO;
+    }
+
+    // Helper method to create a geocode_cache row
+    private GeocodeCacheEntity storedEntry(String address, LocalDateTime resolvedAt) {
+        GeocodeCacheEntity entry = new GeocodeCacheEntity();
+        entry.setAddressHash("hash");
+        entry.setAddress(address.toLowerCase());
+        entry.setStatus("OK");
+        entry.setLatitude(43.6532);
+        entry.setLongitude(-79.3832);
+        entry.setResolvedAt(resolvedAt);
+        return entry;
+    }
+
     // Helper method to create a mock GeocodingResponseDTO
     private GeocodingResponseDTO createGeocodingResponseDTO() {
         GeocodingResponseDTO responseDTO = new GeocodingResponseDTO();
@@ -522,4 +938,11 @@ class ClientServiceTest {
 
         return responseDTO;
     }
-}
\ No newline at end of file
+
+    private Tuple tuple(Map<String, Object> columns) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get(anyString())).thenAnswer(invocation -> columns.get(invocation.<String>getArgument(0)));
+        when(tuple.get(anyString(), any())).thenAnswer(invocation -> columns.get(invocation.<String>getArgument(0)));
+        return tuple;
+    }
+}
@@ -0,0 +1,182 @@
+package com.bufalari.service;
+
+import com.bufalari.config.GeocodingProperties;
+import com.bufalari.exception.GeocodingApiException;
+import com.bufalari.exception.GeocodingUnavailableException;
+import com.bufalari.repository.GeocodeCacheRepository;
+import com.bufalari.repository.GeocodingClientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.Request;
+import feign.Retryer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Exercises the timeouts, circuit breaker and bulkhead around the Geocoding API against a local
+ * stub server that injects latency and errors.
+ */
+class GeocodingServiceTest {
+
+    private static final String OK_BODY = "{\"status\":\"OK\",\"results\":[{\"geometry\":{\"location\":{\"lat\":43.6532,\"lng\":-79.3832}}}]}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile int httpStatus = 200;
+    private volatile String responseBody = OK_BODY;
+
+    private GeocodingService geocodingService;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/json", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(httpStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        GeocodingClientRepository client = Feign.builder()
+                .contract(new SpringMvcContract())
+                .decoder((response, type) -> objectMapper.readValue(response.body().asInputStream(), objectMapper.constructType(type)))
+                .options(new Request.Options(200, TimeUnit.MILLISECONDS, 300, TimeUnit.MILLISECONDS, true))
+                .retryer(Retryer.NEVER_RETRY) // As configured by Spring Cloud OpenFeign
+                .target(GeocodingClientRepository.class, "http://localhost:" + server.getAddress().getPort());
+
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        GeocodingProperties properties = new GeocodingProperties();
+        properties.getStore().setEnabled(false);
+        geocodingService = new GeocodingService(client, mock(GeocodeCacheRepository.class), properties,
+                new SimpleMeterRegistry(), Runnable::run, circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testReadTimeout() {
+        latencyMillis = 2_000;
+
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> geocodingService.getCoordinates("1 Slow St", "trace"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 1_500, "Call should give up after the read timeout, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void testCircuitOpensAfterErrors_AndFailsFast() {
+        httpStatus = 500;
+        for (int i = 0; i < 4; i++) {
+            String address = "Failing St " + i;
+            assertThrows(RuntimeException.class, () -> geocodingService.getCoordinates(address, "trace"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("geocoding").getState());
+
+        // Further calls are rejected without reaching the server, even once it has recovered
+        httpStatus = 200;
+        int requestsBefore = requests.get();
+        assertThrows(GeocodingUnavailableException.class, () -> geocodingService.getCoordinates("Healthy St", "trace"));
+        assertEquals(requestsBefore, requests.get());
+    }
+
+    @Test
+    void testBulkheadRejectsExcessConcurrentCalls() throws Exception {
+        latencyMillis = 150;
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<double[]>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String address = "Concurrent St " + i;
+            results.add(callers.submit(() -> {
+                start.await();
+                return geocodingService.getCoordinates(address, "trace");
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<double[]> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(GeocodingUnavailableException.class, e.getCause());
+                rejected++;
+            }
+        }
+        callers.shutdown();
+
+        assertEquals(2, succeeded);
+        assertEquals(3, rejected);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void testSuccessfulCall() {
+        double[] coordinates = geocodingService.getCoordinates("123 Yonge St", "trace");
+
+        assertEquals(43.6532, coordinates[0]);
+        assertEquals(-79.3832, coordinates[1]);
+    }
+
+    @Test
+    void testTransientStatusCountsAsFailure() {
+        responseBody = "{\"status\":\"OVER_QUERY_LIMIT\",\"results\":[]}";
+        for (int i = 0; i < 4; i++) {
+            String address = "Limited St " + i;
+            assertThrows(GeocodingApiException.class, () -> geocodingService.getCoordinates(address, "trace"));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("geocoding").getState());
+    }
+}
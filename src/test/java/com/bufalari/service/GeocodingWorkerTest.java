@@ -0,0 +1,216 @@
+package com.bufalari.service;
+
+import com.bufalari.config.GeocodingProperties;
+import com.bufalari.entity.ClientEntity;
+import com.bufalari.entity.GeocodeStatus;
+import com.bufalari.event.ClientChangedEvent;
+import com.bufalari.event.ClientGeocodingRequestedEvent;
+import com.bufalari.exception.GeocodingUnavailableException;
+import com.bufalari.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class GeocodingWorkerTest {
+
+    private static final String ADDRESS = "123 Yonge St, Toronto, ON, M5V 2H5";
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private TaskScheduler scheduler;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GeocodingProperties geocodingProperties;
+
+    private GeocodingWorker geocodingWorker;
+
+    // Attempts scheduled on the worker's scheduler, run by the tests one at a time
+    private final List<Runnable> scheduledTasks = new ArrayList<>();
+    private final List<Instant> scheduledTimes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        geocodingProperties = new GeocodingProperties();
+        geocodingProperties.getAsync().setMaxAttempts(3);
+        geocodingProperties.getAsync().setInitialBackoff(Duration.ofSeconds(2));
+        geocodingProperties.getAsync().setMaxBackoff(Duration.ofSeconds(5));
+        geocodingWorker = new GeocodingWorker(geocodingService, clientRepository, geocodingProperties, scheduler, eventPublisher);
+
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            scheduledTimes.add(invocation.getArgument(1));
+            return null;
+        });
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client(1L)));
+    }
+
+    @Test
+    void testResolvedAddress_StoresCoordinatesAndPublishesChange() {
+        when(geocodingService.resolve(eq(ADDRESS), anyString())).thenReturn(GeocodeResult.found(43.6532, -79.3832));
+
+        geocodingWorker.onGeocodingRequested(new ClientGeocodingRequestedEvent(1L, ADDRESS));
+        runNext();
+
+        verify(clientRepository).updateGeocoding(eq(1L), eq(43.6532), eq(-79.3832), anyString(),
+                eq(GeocodeStatus.RESOLVED), any(LocalDateTime.class));
+        verifyUpdatedPublished();
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    void testUnknownAddress_MarksFailedAndPublishesChange() {
+        when(geocodingService.resolve(eq(ADDRESS), anyString())).thenReturn(GeocodeResult.notFound());
+
+        geocodingWorker.onGeocodingRequested(new ClientGeocodingRequestedEvent(1L, ADDRESS));
+        runNext();
+
+        verify(clientRepository).updateGeocoding(eq(1L), isNull(), isNull(), isNull(),
+                eq(GeocodeStatus.FAILED), any(LocalDateTime.class));
+        verifyUpdatedPublished();
+        // Not retried
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    void testTransientFailure_RetriedWithBackoffThenSucceeds() {
+        when(geocodingService.resolve(eq(ADDRESS), anyString()))
+                .thenThrow(new GeocodingUnavailableException("Geocoding API is temporarily unavailable", null))
+                .thenReturn(GeocodeResult.found(43.6532, -79.3832));
+
+        geocodingWorker.onGeocodingRequested(new ClientGeocodingRequestedEvent(1L, ADDRESS));
+        runNext();
+
+        assertEquals(1, scheduledTasks.size());
+        Duration delay = Duration.between(Instant.now(), scheduledTimes.get(0));
+        assertTrue(delay.compareTo(Duration.ofMillis(500)) > 0 && delay.compareTo(Duration.ofSeconds(2)) <= 0, "Delay: " + delay);
+        verify(clientRepository, never()).updateGeocoding(any(), any(), any(), any(), any(), any());
+
+        runNext();
+
+        verify(clientRepository).updateGeocoding(eq(1L), anyDouble(), anyDouble(), anyString(),
+                eq(GeocodeStatus.RESOLVED), any(LocalDateTime.class));
+        verifyUpdatedPublished();
+    }
+
+    @Test
+    void testRetriesExhausted_MarksFailedAndPublishesChange() {
+        when(geocodingService.resolve(eq(ADDRESS), anyString()))
+                .thenThrow(new GeocodingUnavailableException("Geocoding API is temporarily unavailable", null));
+
+        geocodingWorker.onGeocodingRequested(new ClientGeocodingRequestedEvent(1L, ADDRESS));
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            runNext();
+        }
+
+        verify(geocodingService, times(3)).resolve(eq(ADDRESS), anyString());
+        verify(clientRepository).updateGeocoding(eq(1L), isNull(), isNull(), isNull(),
+                eq(GeocodeStatus.FAILED), any(LocalDateTime.class));
+        verifyUpdatedPublished();
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    void testMarkFailedError_LeavesClientPendingWithoutPublishing() {
+        geocodingProperties.getAsync().setMaxAttempts(1);
+        when(geocodingService.resolve(eq(ADDRESS), anyString()))
+                .thenThrow(new GeocodingUnavailableException("Geocoding API is temporarily unavailable", null));
+        when(clientRepository.updateGeocoding(any(), any(), any(), any(), eq(GeocodeStatus.FAILED), any()))
+                .thenThrow(new IllegalStateException("Connection refused"));
+
+        geocodingWorker.onGeocodingRequested(new ClientGeocodingRequestedEvent(1L, ADDRESS));
+        runNext();
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testBackoff_GrowsExponentiallyUpToTheMaximum() {
+        GeocodingProperties.Async async = geocodingProperties.getAsync();
+        for (int i = 0; i < 100; i++) {
+            Duration first = GeocodingWorker.backoff(async, 1);
+            assertTrue(first.toMillis() >= 1000 && first.toMillis() <= 2000, "First: " + first);
+            Duration second = GeocodingWorker.backoff(async, 2);
+            assertTrue(second.toMillis() >= 2000 && second.toMillis() <= 4000, "Second: " + second);
+            // Capped at max-backoff, also where the shift would overflow
+            Duration late = GeocodingWorker.backoff(async, 40);
+            assertTrue(late.toMillis() >= 2500 && late.toMillis() <= 5000, "Late: " + late);
+        }
+    }
+
+    @Test
+    void testSweep_ResubmitsPendingClientsOnce() {
+        ClientEntity pending = client(1L);
+        when(clientRepository.findByGeocodeStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                eq(GeocodeStatus.PENDING), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(pending));
+
+        geocodingWorker.resubmitPendingClients();
+        // Still in flight: a second sweep does not queue it again
+        geocodingWorker.resubmitPendingClients();
+
+        assertEquals(1, scheduledTasks.size());
+        ArgumentCaptor<LocalDateTime> updatedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(clientRepository, times(2)).findByGeocodeStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                eq(GeocodeStatus.PENDING), updatedBefore.capture(), any(Pageable.class));
+        assertTrue(updatedBefore.getValue().isBefore(LocalDateTime.now().minusMinutes(4)));
+
+        when(geocodingService.resolve(eq(ADDRESS), anyString())).thenReturn(GeocodeResult.found(43.6532, -79.3832));
+        runNext();
+        geocodingWorker.resubmitPendingClients();
+
+        // Once resolved it is no longer in flight, so a later sweep may queue it again
+        assertEquals(1, scheduledTasks.size());
+    }
+
+    private void runNext() {
+        assertFalse(scheduledTasks.isEmpty(), "Nothing scheduled");
+        scheduledTimes.remove(0);
+        scheduledTasks.remove(0).run();
+    }
+
+    private void verifyUpdatedPublished() {
+        ArgumentCaptor<ClientChangedEvent> event = ArgumentCaptor.forClass(ClientChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getClientId());
+        assertEquals(ClientChangedEvent.ChangeType.UPDATED, event.getValue().getType());
+    }
+
+    private static ClientEntity client(Long id) {
+        ClientEntity client = new ClientEntity();
+        client.setId(id);
+        client.setName("John Doe");
+        client.setAddress("123 Yonge St");
+        client.setCity("Toronto");
+        client.setProvince("ON");
+        client.setPostalCode("M5V 2H5");
+        client.setGeocodeStatus(GeocodeStatus.PENDING);
+        return client;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bufalari.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+    @Test
+    void testEncode() {
+        assertEquals("ezs42", GeoHash.encode(42.6, -5.6, 5));
+        assertEquals("dpz83", GeoHash.encode(43.6532, -79.3832, 5));
+        assertTrue(GeoHash.encode(43.6532, -79.3832, GeoHash.MAX_PRECISION).startsWith("dpz83"));
+    }
+
+    @Test
+    void testHaversine() {
+        // Toronto to Montreal
+        assertEquals(504, GeoHash.haversineKm(43.6532, -79.3832, 45.5017, -73.5673), 5);
+        assertEquals(0, GeoHash.haversineKm(43.6532, -79.3832, 43.6532, -79.3832), 1e-9);
+    }
+
+    @Test
+    void testCoveringCells_ContainEveryPointInTheCircle() {
+        double latitude = 43.6532, longitude = -79.3832, radiusKm = 10;
+        Set<String> cells = GeoHash.coveringCells(latitude, longitude, radiusKm, 16);
+
+        assertTrue(cells.size() <= 16);
+        int precision = cells.iterator().next().length();
+        for (int bearing = 0; bearing < 360; bearing += 15) {
+            // Points just inside the circle in every direction
+            double dLat = Math.cos(Math.toRadians(bearing)) * (radiusKm * 0.99) / 111.32;
+            double dLng = Math.sin(Math.toRadians(bearing)) * (radiusKm * 0.99) / (111.32 * Math.cos(Math.toRadians(latitude)));
+            String hash = GeoHash.encode(latitude + dLat, longitude + dLng, precision);
+            assertTrue(cells.contains(hash), "Bearing " + bearing + " falls outside the covering cells");
+        }
+    }
+
+    @Test
+    void testCoveringCells_WrapAroundTheAntimeridian() {
+        Set<String> cells = GeoHash.coveringCells(0, 179.99, 50, 16);
+
+        assertTrue(cells.contains(GeoHash.encode(0, 179.99, cells.iterator().next().length())));
+        assertTrue(cells.contains(GeoHash.encode(0, -179.9, cells.iterator().next().length())));
+    }
+}
@@ -0,0 +1,82 @@
+package com.bufalari.util;
+
+import com.bufalari.dto.ClientResponseDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapLinkGeneratorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testLinks_MatchTheFormattedTemplates() {
+        Map<String, String> links = MapLinkGenerator.generateMapLinks(43.6532, -79.3832);
+
+        assertEquals(List.of("googleMaps", "waze", "appleMaps", "sygic", "hereWeGo"), List.copyOf(links.keySet()));
+        assertEquals("https://www.google.com/maps/search/?api=1&query=43.6532,-79.3832", links.get("googleMaps"));
+        assertEquals("https://waze.com/ul?ll=43.6532,-79.3832&navigate=yes", links.get("waze"));
+        assertEquals("http://maps.apple.com/?daddr=43.6532,-79.3832", links.get("appleMaps"));
+        assertEquals("com.sygic.aura://coordinate|43.6532|-79.3832", links.get("sygic"));
+        assertEquals("https://wego.here.com/directions/mix//43.6532,-79.3832", links.get("hereWeGo"));
+        assertNull(links.get("unknown"));
+        assertThrows(UnsupportedOperationException.class, () -> links.put("waze", "x"));
+    }
+
+    @Test
+    void testFormatCoordinate() {
+        assertEquals("43.6532", MapLinkGenerator.formatCoordinate(43.6532));
+        assertEquals("-79.3832", MapLinkGenerator.formatCoordinate(-79.3832));
+        assertEquals("45.0", MapLinkGenerator.formatCoordinate(45));
+        assertEquals("0.0", MapLinkGenerator.formatCoordinate(-0.0));
+        assertEquals("0.0001", MapLinkGenerator.formatCoordinate(0.0001)); // Double.toString gives 1.0E-4
+        assertEquals("-0.0000123", MapLinkGenerator.formatCoordinate(-0.0000123));
+        assertEquals("12.3456789", MapLinkGenerator.formatCoordinate(12.34567891));
+        assertEquals("180.0", MapLinkGenerator.formatCoordinate(179.99999999));
+        assertEquals("NaN", MapLinkGenerator.formatCoordinate(Double.NaN));
+    }
+
+    @Test
+    void testSerialization_WritesTheSameObjectAsAMap() throws Exception {
+        Map<String, String> links = MapLinkGenerator.generateMapLinks(-33.8688, 151.2093);
+
+        JsonNode written = objectMapper.readTree(objectMapper.writeValueAsString(links));
+        JsonNode expected = objectMapper.valueToTree(new LinkedHashMap<>(links));
+        assertEquals(expected, written);
+        assertEquals(List.of("googleMaps", "waze", "appleMaps", "sygic", "hereWeGo"),
+                List.copyOf(objectMapper.convertValue(written, new TypeReference<LinkedHashMap<String, String>>() {}).keySet()));
+    }
+
+    @Test
+    void testSerialization_AsPartOfAClientResponse() throws Exception {
+        ClientResponseDTO client = new ClientResponseDTO();
+        client.setId(1L);
+        client.setMapLink(MapLinkGenerator.generateMapLinks(43.6532, -79.3832));
+
+        ClientResponseDTO read = objectMapper.readValue(objectMapper.writeValueAsString(client), ClientResponseDTO.class);
+
+        assertEquals(client.getMapLink(), read.getMapLink());
+    }
+
+    @Test
+    void testConfiguredProviders() {
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put("osm", "https://www.openstreetmap.org/?mlat={lat}&mlon={lng}#map=17/{lat}/{lng}");
+        templates.put("waze", MapLinkGenerator.DEFAULT_TEMPLATES.get("waze"));
+        MapLinkGenerator generator = new MapLinkGenerator(templates);
+
+        Map<String, String> links = generator.links(43.6532, -79.3832);
+
+        assertEquals(Map.of(
+                "osm", "https://www.openstreetmap.org/?mlat=43.6532&mlon=-79.3832#map=17/43.6532/-79.3832",
+                "waze", "https://waze.com/ul?ll=43.6532,-79.3832&navigate=yes"), links);
+        assertThrows(IllegalArgumentException.class, () -> new MapLinkGenerator(Map.of("broken", "https://example.com/")));
+    }
+}